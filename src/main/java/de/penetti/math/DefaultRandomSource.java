@@ -0,0 +1,23 @@
+package de.penetti.math;
+
+import java.util.SplittableRandom;
+
+/**
+ * Holds the default {@link RandomSource}. Each thread gets its own {@link SplittableRandom}, split from a common root.
+ *
+ * @author Enrico
+ */
+final class DefaultRandomSource {
+  private static final SplittableRandom root = new SplittableRandom();
+  private static final ThreadLocal<SplittableRandom> local = ThreadLocal.withInitial(DefaultRandomSource::split);
+  static volatile RandomSource source = () -> local.get().nextDouble();
+
+  private DefaultRandomSource() {
+  }
+
+  private static SplittableRandom split() {
+    synchronized (root) {
+      return root.split();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package de.penetti.math;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Source of uniformly distributed random numbers.
+ * <p>
+ * The sources created here are based on {@link SplittableRandom}; they never block and are much cheaper than a
+ * {@link java.security.SecureRandom}. The {@link #getDefault() default source} can be used by any number of threads,
+ * a {@link #seeded(long) seeded source} produces a reproducible sequence and must not be shared between threads.
+ * </p>
+ *
+ * @author Enrico
+ */
+@FunctionalInterface
+public interface RandomSource {
+  /**
+   * @return a uniformly distributed value in [0, 1)
+   */
+  double nextDouble();
+
+  /**
+   * @return a uniformly distributed value in [min, max)
+   */
+  default double nextDouble(double min, double max) {
+    return min + nextDouble() * (max - min);
+  }
+
+  /**
+   * Fills the arrays with the coordinates of random vectors with x in [xMin, xMax) and y in [yMin, yMax).
+   *
+   * @param xs receives the x coordinates
+   * @param ys receives the y coordinates
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  default void fill(double[] xs, double[] ys, double xMin, double xMax, double yMin, double yMax) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = nextDouble(xMin, xMax);
+      ys[i] = nextDouble(yMin, yMax);
+    }
+  }
+
+  /**
+   * Gets the shared, thread safe source, which is used if no source is given.
+   * Each thread draws from its own {@link SplittableRandom}, split off a common root.
+   *
+   * @return the default source
+   */
+  static RandomSource getDefault() {
+    return DefaultRandomSource.source;
+  }
+
+  /**
+   * Replaces the default source. The default source is used by any number of threads, so the given source must be
+   * thread safe. A {@link #seeded(long) seeded source} is not; it may only replace the default while a single thread
+   * draws from it, e.g. to reproduce a single threaded run.
+   *
+   * @param source the new default source, thread safe
+   */
+  static void setDefault(RandomSource source) {
+    DefaultRandomSource.source = Objects.requireNonNull(source);
+  }
+
+  /**
+   * Creates a source with a reproducible sequence. The source is not thread safe.
+   *
+   * @param seed
+   * @return the source
+   */
+  static RandomSource seeded(long seed) {
+    return new SplittableRandom(seed)::nextDouble;
+  }
+}
@@ -0,0 +1,164 @@
+package de.penetti.math.geom;
+
+import java.util.function.IntPredicate;
+
+/**
+ * The active bounding boxes of a sweep in x direction, indexed by their y intervals.
+ * <p>
+ * All boxes are known in advance; the index is a binary tree, whose leaves are the boxes ordered by their minimum y.
+ * Each node knows the number of its active boxes and an upper bound of their maximum y. A query for the y interval
+ * [a, b] visits only the nodes with boxes whose minimum y is at most b and whose maximum y may be at least a, so it
+ * needs O((1 + r) log n) amortized time for r reported boxes. Boxes which the sweep line has passed, i.e. whose
+ * maximum x is less than the x of the sweep line, are removed when a query meets them.
+ * </p>
+ *
+ * @author Enrico
+ */
+final class ActiveBoxes {
+  private final double[] minY;
+  private final double[] maxY;
+  private final double[] maxX;
+  private final int size;
+  private final int[] boxes;            // die Boxen nach minY sortiert
+  private final double[] sortedMinY;
+  private final int[] leafOf;           // Blatt je Box
+  private final int[] count;            // Anzahl der aktiven Boxen im Teilbaum
+  private final double[] bound;         // obere Schranke für maxY der aktiven Boxen im Teilbaum
+
+  // die laufende Anfrage
+  private double queryMinY;
+  private int last;                     // letztes Blatt mit minY bis zum maxY der Anfrage
+  private double sweepX;
+  private IntPredicate visitor;
+  private boolean stopped;
+
+  /**
+   * @param minY the minimum y of the boxes
+   * @param maxY the maximum y of the boxes
+   * @param maxX the maximum x of the boxes
+   * @param size the number of boxes
+   */
+  ActiveBoxes(double[] minY, double[] maxY, double[] maxX, int size) {
+    this.minY = minY;
+    this.maxY = maxY;
+    this.maxX = maxX;
+    this.size = size;
+    boxes = IndexSort.sort(minY, size);
+    sortedMinY = new double[size];
+    leafOf = new int[size];
+    for (int i = 0; i < size; i++) {
+      sortedMinY[i] = minY[boxes[i]];
+      leafOf[boxes[i]] = i;
+    }
+    count = new int[4 * Math.max(size, 1)];
+    bound = new double[count.length];
+  }
+
+  /**
+   * Creates an empty index over the same boxes, without sorting them again.
+   */
+  ActiveBoxes(ActiveBoxes index) {
+    minY = index.minY;
+    maxY = index.maxY;
+    maxX = index.maxX;
+    size = index.size;
+    boxes = index.boxes;
+    sortedMinY = index.sortedMinY;
+    leafOf = index.leafOf;
+    count = new int[index.count.length];
+    bound = new double[count.length];
+  }
+
+  /**
+   * Inserts the box.
+   */
+  void insert(int box) {
+    int leaf = leafOf[box];
+    int node = 1;
+    int from = 0;
+    int to = size - 1;
+    while (true) {
+      bound[node] = count[node] == 0 ? maxY[box] : Math.max(bound[node], maxY[box]);
+      count[node]++;
+      if (from == to) {
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      if (leaf <= mid) {
+        node = 2 * node;
+        to = mid;
+      }
+      else {
+        node = 2 * node + 1;
+        from = mid + 1;
+      }
+    }
+  }
+
+  /**
+   * Reports each active box, whose y interval overlaps the y interval of the given box, once to the visitor.
+   *
+   * @param box     the box, whose y interval is queried; it need not be inserted
+   * @param x       the x of the sweep line; boxes with a smaller maximum x are removed
+   * @param visitor receives the boxes; returns {@code false} to stop the query
+   * @return {@code false}, if the visitor stopped the query
+   */
+  boolean query(int box, double x, IntPredicate visitor) {
+    if (size == 0 || count[1] == 0) {
+      return true;
+    }
+    queryMinY = minY[box];
+    // das letzte Blatt mit minY <= maxY der Anfrage
+    double queryMaxY = maxY[box];
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sortedMinY[mid] <= queryMaxY) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    last = low - 1;
+    sweepX = x;
+    this.visitor = visitor;
+    stopped = false;
+    query(1, 0, size - 1);
+    this.visitor = null;
+    return !stopped;
+  }
+
+  /**
+   * @return the number of removed boxes
+   */
+  private int query(int node, int from, int to) {
+    if (stopped || count[node] == 0 || from > last || bound[node] < queryMinY) {
+      return 0;
+    }
+    if (from == to) {
+      int a = boxes[from];
+      if (maxX[a] < sweepX) {
+        count[node] = 0;
+        return 1;
+      }
+      stopped = !visitor.test(a);
+      return 0;
+    }
+    int mid = (from + to) >>> 1;
+    int removed = query(2 * node, from, mid) + query(2 * node + 1, mid + 1, to);
+    if (removed > 0) {
+      count[node] -= removed;
+      // die Schranke aus den Kindern neu bestimmen
+      double b = Double.NEGATIVE_INFINITY;
+      for (int child = 2 * node; child <= 2 * node + 1; child++) {
+        if (count[child] > 0) {
+          b = Math.max(b, bound[child]);
+        }
+      }
+      bound[node] = b;
+    }
+    return removed;
+  }
+}
@@ -0,0 +1,154 @@
+package de.penetti.math.geom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Convex hull after Andrew's monotone chain.
+ * <p>
+ * The points are sorted by x (and y for equal x); the lower and the upper hull are built by one pass each, in which
+ * every point that does not make a left turn is removed. Large inputs are split into chunks whose hulls are computed
+ * in parallel on the common fork-join pool; the hull of the merged partial hulls is the hull of the input.
+ * </p>
+ * <p>
+ * The hull is a closed, counter clockwise oriented polyline without collinear vertices, starting at the point with
+ * the smallest x (and smallest y).
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class ConvexHull {
+  /**
+   * Inputs with more points are split and their parts are computed in parallel.
+   */
+  static final int PARALLEL_THRESHOLD = 1 << 14;
+
+  private ConvexHull() {
+  }
+
+  /**
+   * Computes the convex hull of the vertices of the polyline.
+   *
+   * @param polyline
+   * @return the hull
+   * @see #of(double[], double[])
+   */
+  public static Polyline of(Polyline polyline) {
+    PackedPolyline packed = PackedPolyline.fromPolyline(polyline);
+    return of(packed.xs, packed.ys);
+  }
+
+  /**
+   * Computes the convex hull of the given points.
+   *
+   * @param xs x coordinates
+   * @param ys y coordinates
+   * @return the hull as closed, counter clockwise polyline
+   * @throws IllegalArgumentException if the arrays differ in length or contain less than two distinct points
+   */
+  public static Polyline of(double[] xs, double[] ys) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    double[][] hull = xs.length > PARALLEL_THRESHOLD
+                      ? new HullTask(xs, ys, 0, xs.length).invoke()
+                      : hull(xs, ys, 0, xs.length);
+    int n = hull[0].length;
+    if (n < 2) {
+      throw new IllegalArgumentException("A hull requires a minimum of two distinct points.");
+    }
+    List<Vector> vectors = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      vectors.add(new Vector(hull[0][i], hull[1][i]));
+    }
+    return new Polyline(true, vectors);
+  }
+
+  /**
+   * Computes the hull of the points {@code from..to-1}.
+   *
+   * @return x and y coordinates of the hull
+   */
+  static double[][] hull(double[] xs, double[] ys, int from, int to) {
+    int n = to - from;
+    int[] order = new int[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = from + i;
+    }
+    // stabil nach y, dann nach x sortiert ergibt die lexikographische Ordnung
+    IndexSort.sort(order, 0, n, ys);
+    IndexSort.sort(order, 0, n, xs);
+
+    int[] hull = new int[2 * n + 1];
+    int k = 0;
+    for (int i = 0; i < n; i++) {
+      int p = order[i];
+      while (k >= 2 && cross(xs, ys, hull[k - 2], hull[k - 1], p) <= 0) {
+        k--;
+      }
+      hull[k++] = p;
+    }
+    for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+      int p = order[i];
+      while (k >= lower && cross(xs, ys, hull[k - 2], hull[k - 1], p) <= 0) {
+        k--;
+      }
+      hull[k++] = p;
+    }
+    // der letzte Punkt ist wieder der erste
+    k = Math.max(k - 1, Math.min(n, 1));
+    if (k == 2 && xs[hull[0]] == xs[hull[1]] && ys[hull[0]] == ys[hull[1]]) {
+      k = 1;
+    }
+    double[][] result = new double[2][k];
+    for (int i = 0; i < k; i++) {
+      result[0][i] = xs[hull[i]];
+      result[1][i] = ys[hull[i]];
+    }
+    return result;
+  }
+
+  private static double cross(double[] xs, double[] ys, int o, int a, int b) {
+    return (xs[a] - xs[o]) * (ys[b] - ys[o]) - (ys[a] - ys[o]) * (xs[b] - xs[o]);
+  }
+
+  private static final class HullTask extends RecursiveTask<double[][]> {
+    private static final long serialVersionUID = -3269213823463212530L;
+    private final double[] xs;
+    private final double[] ys;
+    private final int from;
+    private final int to;
+
+    private HullTask(double[] xs, double[] ys, int from, int to) {
+      this.xs = xs;
+      this.ys = ys;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected double[][] compute() {
+      if (to - from <= PARALLEL_THRESHOLD) {
+        return hull(xs, ys, from, to);
+      }
+      int mid = (from + to) >>> 1;
+      HullTask left = new HullTask(xs, ys, from, mid);
+      left.fork();
+      double[][] right = new HullTask(xs, ys, mid, to).compute();
+      return merge(left.join(), right);
+    }
+
+    private static double[][] merge(double[][] hull1, double[][] hull2) {
+      int n1 = hull1[0].length;
+      int n2 = hull2[0].length;
+      double[] xs = new double[n1 + n2];
+      double[] ys = new double[n1 + n2];
+      System.arraycopy(hull1[0], 0, xs, 0, n1);
+      System.arraycopy(hull2[0], 0, xs, n1, n2);
+      System.arraycopy(hull1[1], 0, ys, 0, n1);
+      System.arraycopy(hull2[1], 0, ys, n1, n2);
+      return hull(xs, ys, 0, n1 + n2);
+    }
+  }
+}
@@ -0,0 +1,652 @@
+package de.penetti.math.geom;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Delaunay triangulation of a set of points.
+ * <p>
+ * The triangulation is built incrementally by a radial sweep: starting with the seed triangle of smallest
+ * circumcircle near the centre, the points are added in the order of their distance to its circumcentre. A point
+ * outside the current convex hull is connected to the visible hull edges; a point inside or on the hull, which occurs
+ * for nearly collinear points with a flat seed triangle, is located by a walk and splits its triangle or edge. The new
+ * edges are made Delaunay by edge flips (Lawson). The hull is kept in a doubly linked list with a hash by angle, so the
+ * expected run time is O(n log n). The orientation and in-circle tests use the adaptive exact {@link Predicates}.
+ * </p>
+ * <p>
+ * The triangulation is stored as half-edge structure in primitive arrays: the half-edge {@code e} belongs to the
+ * triangle {@code e / 3} and starts at the point {@code triangles[e]}; the next half-edge of its triangle is
+ * {@link #next(int)}. {@code halfedges[e]} is the opposite half-edge of the adjacent triangle, or -1 on the hull.
+ * Triangles are counter clockwise. Every point is a vertex, only exact duplicates are not triangulated. If all points
+ * are collinear, there are no triangles and the hull contains the points in their order along the line, ascending in
+ * x, then in y.
+ * </p>
+ * <p>
+ * This class is immutable; any number of threads can query it concurrently.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class Delaunay {
+  private final double[] xs;
+  private final double[] ys;
+  private final int[] triangles;
+  private final int[] halfedges;
+  private final int[] hull;
+  private final int[] inedges;    // eine ankommende Halbkante je Punkt, auf dem Rand die Randkante; -1 für Dubletten
+
+  private Delaunay(double[] xs, double[] ys) {
+    this.xs = xs;
+    this.ys = ys;
+    Builder builder = new Builder(xs, ys);
+    builder.build();
+    this.triangles = Arrays.copyOf(builder.triangles, builder.trianglesLength);
+    this.halfedges = Arrays.copyOf(builder.halfedges, builder.trianglesLength);
+    this.hull = builder.hull();
+    int n = xs.length;
+    this.inedges = new int[n];
+    Arrays.fill(inedges, -1);
+    for (int e = 0; e < triangles.length; e++) {
+      int p = triangles[next(e)];
+      if (halfedges[e] == -1 || inedges[p] == -1) {
+        inedges[p] = e;
+      }
+    }
+  }
+
+  /**
+   * Triangulates the given points. The arrays are copied.
+   *
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public static Delaunay of(double[] xs, double[] ys) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    return new Delaunay(xs.clone(), ys.clone());
+  }
+
+  /**
+   * Triangulates the given vectors; the indices are the positions in the iteration order.
+   */
+  public static Delaunay of(Collection<Vector> vectors) {
+    Objects.requireNonNull(vectors);
+    double[] xs = new double[vectors.size()];
+    double[] ys = new double[vectors.size()];
+    int i = 0;
+    for (Vector v : vectors) {
+      xs[i] = v.getX();
+      ys[i++] = v.getY();
+    }
+    return new Delaunay(xs, ys);
+  }
+
+  /**
+   * Gets the next half-edge of the same triangle.
+   */
+  public static int next(int e) {
+    return e % 3 == 2 ? e - 2 : e + 1;
+  }
+
+  /**
+   * Gets the previous half-edge of the same triangle.
+   */
+  public static int prev(int e) {
+    return e % 3 == 0 ? e + 2 : e - 1;
+  }
+
+  public int size() {
+    return xs.length;
+  }
+
+  public double getX(int point) {
+    return xs[point];
+  }
+
+  public double getY(int point) {
+    return ys[point];
+  }
+
+  public int triangleCount() {
+    return triangles.length / 3;
+  }
+
+  /**
+   * @return the points of the triangles, three per triangle, counter clockwise
+   */
+  public int[] getTriangles() {
+    return triangles.clone();
+  }
+
+  /**
+   * @return the opposite half-edge of each half-edge or -1
+   */
+  public int[] getHalfedges() {
+    return halfedges.clone();
+  }
+
+  /**
+   * @return the points of the convex hull, counter clockwise
+   */
+  public int[] getHull() {
+    return hull.clone();
+  }
+
+  /**
+   * Gets the point at which the half-edge starts.
+   */
+  int start(int e) {
+    return triangles[e];
+  }
+
+  int opposite(int e) {
+    return halfedges[e];
+  }
+
+  int inedge(int point) {
+    return inedges[point];
+  }
+
+  /**
+   * Reports the Delaunay neighbours of the point, counter clockwise; for a point on the hull the first and the last
+   * neighbour are its neighbours on the hull.
+   *
+   * @param point
+   * @param consumer receives the neighbours
+   */
+  public void neighbours(int point, IntConsumer consumer) {
+    Objects.checkIndex(point, xs.length);
+    int e0 = inedges[point];
+    if (e0 == -1) {
+      // keine Dreiecke: Nachbarn auf der Geraden
+      if (triangles.length == 0) {
+        for (int i = 0; i < hull.length; i++) {
+          if (hull[i] == point) {
+            if (i > 0) {
+              consumer.accept(hull[i - 1]);
+            }
+            if (i + 1 < hull.length) {
+              consumer.accept(hull[i + 1]);
+            }
+          }
+        }
+      }
+      return;
+    }
+    int e = e0;
+    do {
+      consumer.accept(triangles[e]);
+      int o = next(e);
+      e = halfedges[o];
+      if (e == -1) {
+        consumer.accept(triangles[next(o)]);
+        return;
+      }
+    } while (e != e0);
+  }
+
+  /**
+   * Computes the Voronoi diagram, clipped to the given rectangle.
+   *
+   * @return the diagram
+   * @throws IllegalArgumentException if the rectangle is empty
+   */
+  public Voronoi voronoi(double minX, double minY, double maxX, double maxY) {
+    return new Voronoi(this, minX, minY, maxX, maxY);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Delaunay(%d Points; %d Triangles)", size(), triangleCount());
+  }
+
+  /**
+   * State of the construction.
+   */
+  private static final class Builder {
+    private final double[] xs;
+    private final double[] ys;
+    private final int n;
+    private final int[] triangles;
+    private final int[] halfedges;
+    private int trianglesLength;
+
+    private final int[] hullPrev;
+    private final int[] hullNext;
+    private final int[] hullTri;    // Randkante, die an dem Punkt beginnt
+    private final int[] hullHash;
+    private final int hashSize;
+    private int hullStart = -1;
+    private double cx;
+    private double cy;
+    private int[] collinear;        // die Punkte entlang der Geraden, wenn es keine Dreiecke gibt
+
+    private int[] edgeStack = new int[64];
+
+    private Builder(double[] xs, double[] ys) {
+      this.xs = xs;
+      this.ys = ys;
+      this.n = xs.length;
+      int maxTriangles = Math.max(2 * n - 5, 0);
+      this.triangles = new int[maxTriangles * 3];
+      this.halfedges = new int[maxTriangles * 3];
+      this.hullPrev = new int[n];
+      this.hullNext = new int[n];
+      this.hullTri = new int[n];
+      this.hashSize = Math.max((int) Math.ceil(Math.sqrt(n)), 1);
+      this.hullHash = new int[hashSize];
+    }
+
+    private void build() {
+      if (n == 0) {
+        collinear = new int[0];
+        return;
+      }
+      double minX = Double.POSITIVE_INFINITY;
+      double minY = Double.POSITIVE_INFINITY;
+      double maxX = Double.NEGATIVE_INFINITY;
+      double maxY = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < n; i++) {
+        minX = Math.min(minX, xs[i]);
+        minY = Math.min(minY, ys[i]);
+        maxX = Math.max(maxX, xs[i]);
+        maxY = Math.max(maxY, ys[i]);
+      }
+      double mx = (minX + maxX) / 2;
+      double my = (minY + maxY) / 2;
+
+      // Startdreieck: der Punkt nächst der Mitte, sein nächster Nachbar und der Punkt mit kleinstem Umkreis
+      int i0 = 0;
+      double best = Double.POSITIVE_INFINITY;
+      for (int i = 0; i < n; i++) {
+        double d = distSq(mx, my, xs[i], ys[i]);
+        if (d < best) {
+          best = d;
+          i0 = i;
+        }
+      }
+      int i1 = -1;
+      best = Double.POSITIVE_INFINITY;
+      for (int i = 0; i < n; i++) {
+        double d = distSq(xs[i0], ys[i0], xs[i], ys[i]);
+        if (d > 0 && d < best) {
+          best = d;
+          i1 = i;
+        }
+      }
+      int i2 = -1;
+      best = Double.POSITIVE_INFINITY;
+      if (i1 >= 0) {
+        for (int i = 0; i < n; i++) {
+          if (i == i0 || i == i1) {
+            continue;
+          }
+          double r = circumradiusSq(xs[i0], ys[i0], xs[i1], ys[i1], xs[i], ys[i]);
+          if (r < best) {
+            best = r;
+            i2 = i;
+          }
+        }
+      }
+      if (i2 < 0 || best == Double.POSITIVE_INFINITY) {
+        buildCollinear();
+        return;
+      }
+      if (Predicates.orientation(xs[i0], ys[i0], xs[i1], ys[i1], xs[i2], ys[i2]) < 0) {
+        int i = i1;
+        i1 = i2;
+        i2 = i;
+      }
+      circumcenter(xs[i0], ys[i0], xs[i1], ys[i1], xs[i2], ys[i2]);
+
+      double[] dists = new double[n];
+      for (int i = 0; i < n; i++) {
+        dists[i] = distSq(xs[i], ys[i], cx, cy);
+      }
+      int[] ids = IndexSort.sort(dists, n);
+
+      hullStart = i0;
+      hullNext[i0] = hullPrev[i2] = i1;
+      hullNext[i1] = hullPrev[i0] = i2;
+      hullNext[i2] = hullPrev[i1] = i0;
+      Arrays.fill(hullHash, -1);
+      hullHash[hashKey(xs[i0], ys[i0])] = i0;
+      hullHash[hashKey(xs[i1], ys[i1])] = i1;
+      hullHash[hashKey(xs[i2], ys[i2])] = i2;
+      int t0 = addTriangle(i0, i1, i2, -1, -1, -1);
+      hullTri[i0] = t0;
+      hullTri[i1] = t0 + 1;
+      hullTri[i2] = t0 + 2;
+
+      double xp = Double.NaN;
+      double yp = Double.NaN;
+      for (int k = 0; k < n; k++) {
+        int i = ids[k];
+        double x = xs[i];
+        double y = ys[i];
+        if (x == xp && y == yp) {
+          continue;
+        }
+        xp = x;
+        yp = y;
+        if (i == i0 || i == i1 || i == i2) {
+          continue;
+        }
+        add(i, x, y);
+      }
+    }
+
+    /**
+     * Adds the point i. Usually it lies outside the hull; if the seed triangle is flat, the order by distance to its
+     * circumcentre does not guarantee that, and a point inside or on the hull is inserted into its triangle.
+     */
+    private void add(int i, double x, double y) {
+      // eine sichtbare Randkante suchen, beginnend beim Randpunkt mit ähnlichem Winkel
+      int start = 0;
+      int key = hashKey(x, y);
+      for (int j = 0; j < hashSize; j++) {
+        start = hullHash[(key + j) % hashSize];
+        if (start != -1 && start != hullNext[start]) {
+          break;
+        }
+      }
+      start = hullPrev[start];
+      int e = start;
+      int q;
+      while (!visible(e, q = hullNext[e], x, y)) {
+        e = q;
+        if (e == start) {
+          insert(i, x, y, hullTri[e]); // innerhalb oder auf dem Rand
+          return;
+        }
+      }
+
+      int t = addTriangle(e, i, q, -1, -1, hullTri[e]);
+      hullTri[e] = t;
+      hullTri[i] = t + 1;
+      legalize(t + 2);
+
+      // vorwärts weitere sichtbare Kanten
+      int m = q;
+      while (visible(m, q = hullNext[m], x, y)) {
+        t = addTriangle(m, i, q, hullTri[i], -1, hullTri[m]);
+        hullTri[i] = t + 1;
+        legalize(t + 2);
+        hullNext[m] = m; // aus dem Rand entfernt
+        m = q;
+      }
+      // rückwärts weitere sichtbare Kanten
+      if (e == start) {
+        while (visible(q = hullPrev[e], e, x, y)) {
+          t = addTriangle(q, i, e, -1, hullTri[e], hullTri[q]);
+          hullTri[q] = t;
+          legalize(t + 2);
+          hullNext[e] = e;
+          e = q;
+        }
+      }
+
+      hullStart = hullPrev[i] = e;
+      hullNext[e] = hullPrev[m] = i;
+      hullNext[i] = m;
+      hullHash[hashKey(x, y)] = i;
+      hullHash[hashKey(xs[e], ys[e])] = e;
+    }
+
+    /**
+     * Inserts the point i, which lies inside or on the hull, into the triangle or on the edge containing it. The
+     * triangle is located by a visibility walk starting at the half-edge e. A duplicate of a vertex is omitted.
+     */
+    private void insert(int i, double x, double y, int e) {
+      int t = e - e % 3;
+      int on;
+      walk:
+      while (true) {
+        on = -1;
+        for (int a = t; a < t + 3; a++) {
+          int o = Predicates.orientation(xs[triangles[a]], ys[triangles[a]], xs[triangles[next(a)]],
+              ys[triangles[next(a)]], x, y);
+          if (o < 0) {
+            t = halfedges[a] - halfedges[a] % 3;
+            continue walk;
+          }
+          if (o == 0) {
+            if (on != -1) {
+              return; // Dublette einer Ecke
+            }
+            on = a;
+          }
+        }
+        break;
+      }
+      if (on == -1) {
+        // das Dreieck (a, b, c) in (a, b, i), (b, c, i) und (c, a, i) teilen
+        int b = triangles[t + 1];
+        int c = triangles[t + 2];
+        int hbc = halfedges[t + 1];
+        int hca = halfedges[t + 2];
+        triangles[t + 2] = i;
+        int t1 = addTriangle(b, c, i, hbc, -1, t + 1);
+        int t2 = addTriangle(c, triangles[t], i, hca, t + 2, t1 + 1);
+        if (hbc == -1) {
+          hullTri[b] = t1;
+        }
+        if (hca == -1) {
+          hullTri[c] = t2;
+        }
+        legalize(t);
+        legalize(t1);
+        legalize(t2);
+        return;
+      }
+      // die Kante (a, b) teilen: (a, b, c) in (a, i, c) und (i, b, c), das Nachbardreieck (b, a, d) in (b, i, d)
+      // und (i, a, d)
+      int a = triangles[on];
+      int b = triangles[next(on)];
+      int en = next(on);
+      int ep = prev(on);
+      int c = triangles[ep];
+      int hbc = halfedges[en];
+      int f = halfedges[on];
+      triangles[en] = i;
+      int t1 = addTriangle(i, b, c, -1, hbc, en);
+      if (hbc == -1) {
+        hullTri[b] = t1 + 1;
+      }
+      if (f == -1) {
+        // auf dem Rand
+        hullTri[a] = on;
+        hullTri[i] = t1;
+        hullNext[a] = hullPrev[b] = i;
+        hullPrev[i] = a;
+        hullNext[i] = b;
+        hullHash[hashKey(x, y)] = i;
+      }
+      else {
+        int fn = next(f);
+        int d = triangles[prev(f)];
+        int had = halfedges[fn];
+        triangles[fn] = i;
+        int t2 = addTriangle(i, a, d, on, had, fn);
+        if (had == -1) {
+          hullTri[a] = t2 + 1;
+        }
+        link(f, t1);
+        legalize(prev(f));
+        legalize(t2 + 1);
+      }
+      legalize(ep);
+      legalize(t1 + 1);
+    }
+
+    /**
+     * Tests, if the point lies right of the hull edge (a, b), outside the hull.
+     */
+    private boolean visible(int a, int b, double x, double y) {
+      return Predicates.orientation(xs[a], ys[a], xs[b], ys[b], x, y) < 0;
+    }
+
+    /**
+     * Flips the half-edge a and the edges behind it, until all of them are Delaunay.
+     */
+    private void legalize(int a) {
+      int size = 0;
+      while (true) {
+        int b = halfedges[a];
+        int a0 = a - a % 3;
+        int ar = a0 + (a + 2) % 3;
+        if (b == -1) {
+          if (size == 0) {
+            return;
+          }
+          a = edgeStack[--size];
+          continue;
+        }
+        int b0 = b - b % 3;
+        int al = a0 + (a + 1) % 3;
+        int bl = b0 + (b + 2) % 3;
+        int br = b0 + (b + 1) % 3;
+        int p0 = triangles[ar];
+        int pr = triangles[a];
+        int pl = triangles[al];
+        int p1 = triangles[bl];
+        boolean illegal = Predicates.incircle(xs[pr], ys[pr], xs[pl], ys[pl], xs[p0], ys[p0], xs[p1], ys[p1]) > 0;
+        if (illegal) {
+          triangles[a] = p1;
+          triangles[b] = p0;
+          int hbl = halfedges[bl];
+          int har = halfedges[ar];
+          if (hbl == -1) {
+            hullTri[p1] = a;
+          }
+          if (har == -1) {
+            hullTri[p0] = b;
+          }
+          link(a, hbl);
+          link(b, har);
+          link(ar, bl);
+          if (size == edgeStack.length) {
+            edgeStack = Arrays.copyOf(edgeStack, size * 2);
+          }
+          edgeStack[size++] = br;
+          // a ist jetzt die Kante (p1, pl) gegenüber dem neuen Punkt
+        }
+        else {
+          if (size == 0) {
+            return;
+          }
+          a = edgeStack[--size];
+        }
+      }
+    }
+
+    private void link(int a, int b) {
+      halfedges[a] = b;
+      if (b != -1) {
+        halfedges[b] = a;
+      }
+    }
+
+    private int addTriangle(int i0, int i1, int i2, int a, int b, int c) {
+      int t = trianglesLength;
+      triangles[t] = i0;
+      triangles[t + 1] = i1;
+      triangles[t + 2] = i2;
+      link(t, a);
+      link(t + 1, b);
+      link(t + 2, c);
+      trianglesLength += 3;
+      return t;
+    }
+
+    private int hashKey(double x, double y) {
+      return (int) Math.floor(pseudoAngle(x - cx, y - cy) * hashSize) % hashSize;
+    }
+
+    /**
+     * Monotone in the angle of (dx, dy), in [0, 1].
+     */
+    private static double pseudoAngle(double dx, double dy) {
+      double p = dx / (Math.abs(dx) + Math.abs(dy));
+      return (dy > 0 ? 3 - p : 1 + p) / 4;
+    }
+
+    private void circumcenter(double ax, double ay, double bx, double by, double cx, double cy) {
+      double dx = bx - ax;
+      double dy = by - ay;
+      double ex = cx - ax;
+      double ey = cy - ay;
+      double bl = dx * dx + dy * dy;
+      double cl = ex * ex + ey * ey;
+      double d = .5 / (dx * ey - dy * ex);
+      this.cx = ax + (ey * bl - dy * cl) * d;
+      this.cy = ay + (dx * cl - ex * bl) * d;
+    }
+
+    private static double circumradiusSq(double ax, double ay, double bx, double by, double cx, double cy) {
+      double dx = bx - ax;
+      double dy = by - ay;
+      double ex = cx - ax;
+      double ey = cy - ay;
+      double bl = dx * dx + dy * dy;
+      double cl = ex * ex + ey * ey;
+      double d = .5 / (dx * ey - dy * ex);
+      double x = (ey * bl - dy * cl) * d;
+      double y = (dx * cl - ex * bl) * d;
+      double r = x * x + y * y;
+      return Double.isFinite(r) ? r : Double.POSITIVE_INFINITY;
+    }
+
+    private static double distSq(double ax, double ay, double bx, double by) {
+      double dx = ax - bx;
+      double dy = ay - by;
+      return dx * dx + dy * dy;
+    }
+
+    /**
+     * All points are collinear: they are sorted along the line, ascending in x, then in y; duplicates are omitted.
+     */
+    private void buildCollinear() {
+      double dx = 0;
+      double dy = 0;
+      for (int i = 1; i < n && dx == 0 && dy == 0; i++) {
+        dx = xs[i] - xs[0];
+        dy = ys[i] - ys[0];
+      }
+      if (dx < 0 || dx == 0 && dy < 0) {
+        dx = -dx;
+        dy = -dy;
+      }
+      double[] keys = new double[n];
+      for (int i = 0; i < n; i++) {
+        keys[i] = (xs[i] - xs[0]) * dx + (ys[i] - ys[0]) * dy;
+      }
+      int[] ids = IndexSort.sort(keys, n);
+      int[] points = new int[n];
+      int count = 0;
+      for (int k = 0; k < n; k++) {
+        if (count == 0 || keys[ids[k]] != keys[points[count - 1]]) {
+          points[count++] = ids[k];
+        }
+      }
+      collinear = Arrays.copyOf(points, count);
+    }
+
+    private int[] hull() {
+      if (collinear != null) {
+        return collinear;
+      }
+      int size = 1;
+      for (int e = hullNext[hullStart]; e != hullStart; e = hullNext[e]) {
+        size++;
+      }
+      int[] hull = new int[size];
+      for (int i = 0, e = hullStart; i < size; i++, e = hullNext[e]) {
+        hull[i] = e;
+      }
+      return hull;
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package de.penetti.math.geom;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Vertex reduction after Douglas–Peucker.
+ * <p>
+ * A vertex is removed, if its distance to the segment between the retained neighbours is not greater than the
+ * tolerance. The recursion of the algorithm is replaced by an explicit stack, so polylines with millions of vertices
+ * can be simplified. A closed polyline is simplified as ring: the first vertex is appended at the end, so the
+ * closing segment is simplified as well.
+ * </p>
+ * <p>
+ * The {@link Streaming streaming variant} simplifies vertices as they arrive, with a buffer of bounded size.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class DouglasPeucker {
+  private DouglasPeucker() {
+  }
+
+  /**
+   * Simplifies the given polyline.
+   *
+   * @param polyline
+   * @param tolerance maximum distance of a removed vertex to the simplified polyline
+   * @return the simplified polyline
+   * @throws IllegalArgumentException if the tolerance is negative or NaN
+   */
+  public static Polyline simplify(Polyline polyline, double tolerance) {
+    return simplify(PackedPolyline.fromPolyline(polyline), tolerance).toPolyline();
+  }
+
+  /**
+   * @see #simplify(Polyline, double)
+   */
+  public static PackedPolyline simplify(PackedPolyline polyline, double tolerance) {
+    checkTolerance(tolerance);
+    double[] xs = polyline.xs;
+    double[] ys = polyline.ys;
+    int n = xs.length;
+    if (polyline.isClosed()) {
+      // Ring: der erste Punkt wird als letzter wiederholt
+      xs = Arrays.copyOf(xs, n + 1);
+      ys = Arrays.copyOf(ys, n + 1);
+      xs[n] = xs[0];
+      ys[n] = ys[0];
+    }
+    boolean[] keep = keep(xs, ys, xs.length, tolerance * tolerance);
+    if (polyline.isClosed()) {
+      // ein Ring behält neben dem ersten mindestens den davon entferntesten Punkt
+      keep[farthest(xs, ys, n)] = true;
+    }
+    int kept = 0;
+    for (int i = 0; i < n; i++) {
+      if (keep[i]) {
+        kept++;
+      }
+    }
+    double[] sxs = new double[kept];
+    double[] sys = new double[kept];
+    for (int i = 0, j = 0; i < n; i++) {
+      if (keep[i]) {
+        sxs[j] = xs[i];
+        sys[j++] = ys[i];
+      }
+    }
+    return PackedPolyline.of(polyline.isClosed(), sxs, sys);
+  }
+
+  private static int farthest(double[] xs, double[] ys, int n) {
+    int farthest = 1;
+    double max = -1;
+    for (int i = 1; i < n; i++) {
+      double dx = xs[i] - xs[0];
+      double dy = ys[i] - ys[0];
+      if (dx * dx + dy * dy > max) {
+        max = dx * dx + dy * dy;
+        farthest = i;
+      }
+    }
+    return farthest;
+  }
+
+  private static void checkTolerance(double tolerance) {
+    if (!(tolerance >= .0)) {
+      throw new IllegalArgumentException("The tolerance must not be negative.");
+    }
+  }
+
+  /**
+   * Marks the vertices {@code 0..n-1} which are retained. The first and the last vertex are always retained.
+   */
+  static boolean[] keep(double[] xs, double[] ys, int n, double toleranceSq) {
+    boolean[] keep = new boolean[n];
+    keep[0] = true;
+    keep[n - 1] = true;
+    int[] stack = new int[32];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = n - 1;
+    while (top > 0) {
+      int last = stack[--top];
+      int first = stack[--top];
+      double max = toleranceSq;
+      int index = -1;
+      for (int i = first + 1; i < last; i++) {
+        double d = SegmentIndex.segmentDistanceSq(xs[i], ys[i], xs[first], ys[first], xs[last], ys[last]);
+        if (d > max) {
+          max = d;
+          index = i;
+        }
+      }
+      if (index >= 0) {
+        keep[index] = true;
+        if (top + 4 > stack.length) {
+          stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top++] = first;
+        stack[top++] = index;
+        stack[top++] = index;
+        stack[top++] = last;
+      }
+    }
+    return keep;
+  }
+
+  /**
+   * Creates a streaming simplifier.
+   *
+   * @param tolerance  maximum distance of a removed vertex to the simplified polyline
+   * @param bufferSize maximum number of buffered vertices, at least 3
+   * @param sink       receives the retained vertices in their order
+   * @return the simplifier
+   * @throws IllegalArgumentException if the tolerance is negative or the buffer is too small
+   */
+  public static Streaming streaming(double tolerance, int bufferSize, Sink sink) {
+    checkTolerance(tolerance);
+    if (bufferSize < 3) {
+      throw new IllegalArgumentException("The buffer must hold at least three vertices.");
+    }
+    return new Streaming(tolerance * tolerance, bufferSize, Objects.requireNonNull(sink));
+  }
+
+  /**
+   * Receives the vertices retained by a {@link Streaming} simplifier.
+   */
+  @FunctionalInterface
+  public interface Sink {
+    void accept(double x, double y);
+  }
+
+  /**
+   * Simplifies an open polyline whose vertices arrive one by one.
+   * <p>
+   * The vertices are collected in a buffer; when it is full, the buffer is simplified, the retained vertices are
+   * passed to the sink and the last retained vertex starts the next buffer. Thus the memory is bounded by the buffer
+   * size and the tolerance is kept, but a vertex at a buffer boundary may be retained, which the simplification of
+   * the complete polyline would remove. {@link #finish()} simplifies the remaining buffer.
+   * </p>
+   * <p>
+   * This class is not thread safe.
+   * </p>
+   */
+  public static final class Streaming implements AutoCloseable {
+    private final double toleranceSq;
+    private final Sink sink;
+    private final double[] xs;
+    private final double[] ys;
+    private int size;
+    private long received;
+    private long emitted;
+    private boolean finished;
+
+    private Streaming(double toleranceSq, int bufferSize, Sink sink) {
+      this.toleranceSq = toleranceSq;
+      this.sink = sink;
+      this.xs = new double[bufferSize];
+      this.ys = new double[bufferSize];
+    }
+
+    public Streaming add(Vector v) {
+      return add(v.getX(), v.getY());
+    }
+
+    /**
+     * Adds the next vertex.
+     *
+     * @throws IllegalStateException if the simplifier is finished
+     */
+    public Streaming add(double x, double y) {
+      if (finished) {
+        throw new IllegalStateException("The simplifier is finished.");
+      }
+      xs[size] = x;
+      ys[size++] = y;
+      received++;
+      if (size == xs.length) {
+        flush(false);
+      }
+      return this;
+    }
+
+    private void flush(boolean last) {
+      boolean[] keep = keep(xs, ys, size, toleranceSq);
+      int end = last ? size : size - 1;
+      // der erste Punkt eines Folgepuffers wurde bereits ausgegeben
+      for (int i = emitted == 0 ? 0 : 1; i < end; i++) {
+        if (keep[i]) {
+          sink.accept(xs[i], ys[i]);
+          emitted++;
+        }
+      }
+      xs[0] = xs[size - 1];
+      ys[0] = ys[size - 1];
+      size = 1;
+      if (!last) {
+        sink.accept(xs[0], ys[0]);
+        emitted++;
+      }
+    }
+
+    /**
+     * Simplifies the buffered vertices and passes them to the sink. Further calls have no effect.
+     */
+    public void finish() {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      if (size == 1 && emitted == 0) {
+        sink.accept(xs[0], ys[0]);
+        emitted++;
+      }
+      else if (size > 1) {
+        flush(true);
+      }
+    }
+
+    @Override
+    public void close() {
+      finish();
+    }
+
+    /**
+     * @return number of vertices added
+     */
+    public long getReceived() {
+      return received;
+    }
+
+    /**
+     * @return number of vertices passed to the sink
+     */
+    public long getEmitted() {
+      return emitted;
+    }
+
+    /**
+     * @return number of vertices removed so far
+     */
+    public long getRemoved() {
+      int pending = finished ? 0 : emitted > 0 ? size - 1 : size; // buffer[0] ist nach einem flush bereits ausgegeben
+      return received - emitted - pending;
+    }
+  }
+}
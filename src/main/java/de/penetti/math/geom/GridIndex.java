@@ -0,0 +1,339 @@
+package de.penetti.math.geom;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Uniform grid over a set of points (spatial hash).
+ * <p>
+ * The bounding box of the points is divided into square cells of the given size. The buckets are stored in
+ * compressed sparse row layout: the indices of the points of cell {@code c} are
+ * {@code entries[offsets[c]..offsets[c+1]-1]}, in ascending order. Cells are numbered row by row,
+ * {@code c = row * columns + column}. The grid suits dense, uniformly distributed points; for clustered points a
+ * {@link KdTree} is preferable.
+ * </p>
+ * <p>
+ * This class is immutable; any number of threads can query it concurrently.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class GridIndex {
+  private final double[] xs;
+  private final double[] ys;
+  private final double cellSize;
+  private final double originX;
+  private final double originY;
+  private final int columns;
+  private final int rows;
+  private final int[] offsets;
+  private final int[] entries;
+
+  private GridIndex(double[] xs, double[] ys, double cellSize, boolean parallel) {
+    if (!(cellSize > 0) || Double.isInfinite(cellSize)) {
+      throw new IllegalArgumentException("The cell size must be positive and finite.");
+    }
+    int n = xs.length;
+    this.xs = xs;
+    this.ys = ys;
+    this.cellSize = cellSize;
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < n; i++) {
+      minX = Math.min(minX, xs[i]);
+      minY = Math.min(minY, ys[i]);
+      maxX = Math.max(maxX, xs[i]);
+      maxY = Math.max(maxY, ys[i]);
+    }
+    if (n == 0) {
+      minX = minY = maxX = maxY = 0;
+    }
+    else if (Double.isNaN(minX + minY + maxX + maxY) || Double.isInfinite(maxX - minX) || Double.isInfinite(maxY - minY)) {
+      throw new IllegalArgumentException("The coordinates must be finite.");
+    }
+    this.originX = minX;
+    this.originY = minY;
+    long columns = (long) ((maxX - minX) / cellSize) + 1;
+    long rows = (long) ((maxY - minY) / cellSize) + 1;
+    if (columns * rows >= Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The cell size is too small for the extent of the points.");
+    }
+    this.columns = (int) columns;
+    this.rows = (int) rows;
+    int cells = this.columns * this.rows;
+    this.offsets = new int[cells + 1];
+    this.entries = new int[n];
+    if (parallel) {
+      buildParallel(cells);
+    }
+    else {
+      build();
+    }
+  }
+
+  /**
+   * Builds the grid over the given coordinates. The arrays are copied.
+   *
+   * @param xs       x coordinates
+   * @param ys       y coordinates
+   * @param cellSize edge length of the cells
+   * @return the grid
+   * @throws IllegalArgumentException if the arrays differ in length, the cell size is not positive, a coordinate is
+   *                                  not finite or the grid would have too many cells
+   */
+  public static GridIndex of(double[] xs, double[] ys, double cellSize) {
+    return of(xs, ys, cellSize, false);
+  }
+
+  /**
+   * @param parallel whether the grid is built in parallel; worthwhile for very large inputs only
+   * @see #of(double[], double[], double)
+   */
+  public static GridIndex of(double[] xs, double[] ys, double cellSize, boolean parallel) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    return new GridIndex(xs.clone(), ys.clone(), cellSize, parallel);
+  }
+
+  /**
+   * Builds the grid over the given vectors; the indices are the positions in the iteration order.
+   *
+   * @see #of(double[], double[], double)
+   */
+  public static GridIndex of(Collection<Vector> vectors, double cellSize) {
+    Objects.requireNonNull(vectors);
+    double[] xs = new double[vectors.size()];
+    double[] ys = new double[vectors.size()];
+    int i = 0;
+    for (Vector v : vectors) {
+      xs[i] = v.getX();
+      ys[i++] = v.getY();
+    }
+    return new GridIndex(xs, ys, cellSize, false);
+  }
+
+  private void build() {
+    int n = xs.length;
+    int[] cellOf = new int[n];
+    for (int i = 0; i < n; i++) {
+      cellOf[i] = cell(i);
+      offsets[cellOf[i] + 1]++;
+    }
+    prefixSum();
+    int[] cursor = Arrays.copyOf(offsets, offsets.length - 1);
+    for (int i = 0; i < n; i++) {
+      entries[cursor[cellOf[i]]++] = i;
+    }
+  }
+
+  /**
+   * Parallel counting sort: each task counts the points of its range into its own array, so the tasks share no
+   * counters. The counts are merged per cell into the start of each task within the cell, so the tasks scatter
+   * their points independently and the points of a cell stay in ascending order.
+   */
+  private void buildParallel(int cells) {
+    int n = xs.length;
+    // je Aufgabe ein Zähler-Array: höchstens etwa 4n Zähler insgesamt
+    int tasks = (int) Math.min(ForkJoinPool.getCommonPoolParallelism(), 4L * n / cells);
+    if (tasks < 2) {
+      build();
+      return;
+    }
+    int[] cellOf = new int[n];
+    int[][] counts = new int[tasks][];
+    IntStream.range(0, tasks).parallel().forEach(t -> {
+      int[] count = counts[t] = new int[cells];
+      for (int i = from(t, tasks, n), to = from(t + 1, tasks, n); i < to; i++) {
+        cellOf[i] = cell(i);
+        count[cellOf[i]]++;
+      }
+    });
+    // je Zelle: die Anzahl und der Beginn jeder Aufgabe innerhalb der Zelle
+    IntStream.range(0, cells).parallel().forEach(c -> {
+      int sum = 0;
+      for (int[] count : counts) {
+        int k = count[c];
+        count[c] = sum;
+        sum += k;
+      }
+      offsets[c + 1] = sum;
+    });
+    prefixSum();
+    IntStream.range(0, tasks).parallel().forEach(t -> {
+      int[] cursor = counts[t];
+      for (int i = from(t, tasks, n), to = from(t + 1, tasks, n); i < to; i++) {
+        int c = cellOf[i];
+        entries[offsets[c] + cursor[c]++] = i;
+      }
+    });
+  }
+
+  /**
+   * @return the first point of the task
+   */
+  private static int from(int task, int tasks, int n) {
+    return (int) ((long) n * task / tasks);
+  }
+
+  private void prefixSum() {
+    for (int c = 1; c < offsets.length; c++) {
+      offsets[c] += offsets[c - 1];
+    }
+  }
+
+  private int cell(int i) {
+    return row(ys[i]) * columns + column(xs[i]);
+  }
+
+  /**
+   * Gets the column of the given x coordinate, clamped to the grid.
+   */
+  public int column(double x) {
+    return clamp((x - originX) / cellSize, columns);
+  }
+
+  /**
+   * Gets the row of the given y coordinate, clamped to the grid.
+   */
+  public int row(double y) {
+    return clamp((y - originY) / cellSize, rows);
+  }
+
+  private static int clamp(double cell, int count) {
+    if (!(cell > 0)) {
+      return 0;
+    }
+    return cell >= count ? count - 1 : (int) cell;
+  }
+
+  public int size() {
+    return xs.length;
+  }
+
+  public double getCellSize() {
+    return cellSize;
+  }
+
+  public int getColumns() {
+    return columns;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Gets the point with the given index.
+   *
+   * @param index index of the point in the input
+   * @return the point
+   */
+  public Vector get(int index) {
+    Objects.checkIndex(index, xs.length);
+    return new Vector(xs[index], ys[index]);
+  }
+
+  /**
+   * Gets the number of points in the given cell.
+   */
+  public int count(int column, int row) {
+    int c = cellIndex(column, row);
+    return offsets[c + 1] - offsets[c];
+  }
+
+  /**
+   * Reports the points of the given cell in ascending order.
+   *
+   * @param consumer receives the indices of the points
+   */
+  public void cell(int column, int row, IntConsumer consumer) {
+    int c = cellIndex(column, row);
+    for (int i = offsets[c], end = offsets[c + 1]; i < end; i++) {
+      consumer.accept(entries[i]);
+    }
+  }
+
+  private int cellIndex(int column, int row) {
+    Objects.checkIndex(column, columns);
+    Objects.checkIndex(row, rows);
+    return row * columns + column;
+  }
+
+  /**
+   * Reports the points of all cells in the given range of columns and rows (inclusive); the range is clamped to the
+   * grid. Each row of cells is one contiguous run of the entries.
+   *
+   * @param consumer receives the indices of the points
+   */
+  public void cells(int minColumn, int minRow, int maxColumn, int maxRow, IntConsumer consumer) {
+    minColumn = Math.max(minColumn, 0);
+    minRow = Math.max(minRow, 0);
+    maxColumn = Math.min(maxColumn, columns - 1);
+    maxRow = Math.min(maxRow, rows - 1);
+    if (minColumn > maxColumn) {
+      return;
+    }
+    for (int row = minRow; row <= maxRow; row++) {
+      int first = row * columns;
+      for (int i = offsets[first + minColumn], end = offsets[first + maxColumn + 1]; i < end; i++) {
+        consumer.accept(entries[i]);
+      }
+    }
+  }
+
+  /**
+   * Reports the points of the cell containing the given point and of its eight neighbours. Each point within one
+   * cell size of the given point is reported, but also more distant ones.
+   *
+   * @param consumer receives the indices of the points
+   */
+  public void neighbourhood(double x, double y, IntConsumer consumer) {
+    int column = column(x);
+    int row = row(y);
+    cells(column - 1, row - 1, column + 1, row + 1, consumer);
+  }
+
+  /**
+   * Reports each point whose distance to the given point is not greater than {@code radius}.
+   *
+   * @param consumer receives the indices of the points
+   */
+  public void radius(double x, double y, double radius, IntConsumer consumer) {
+    double radiusSq = radius * radius;
+    cells(column(x - radius), row(y - radius), column(x + radius), row(y + radius), i -> {
+      double dx = xs[i] - x;
+      double dy = ys[i] - y;
+      if (dx * dx + dy * dy <= radiusSq) {
+        consumer.accept(i);
+      }
+    });
+  }
+
+  /**
+   * Reports each point inside the given rectangle (borders inclusive).
+   *
+   * @param consumer receives the indices of the points
+   */
+  public void range(double minX, double minY, double maxX, double maxY, IntConsumer consumer) {
+    if (!(minX <= maxX && minY <= maxY)) {
+      return;
+    }
+    cells(column(minX), row(minY), column(maxX), row(maxY), i -> {
+      if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) {
+        consumer.accept(i);
+      }
+    });
+  }
+
+  @Override
+  public String toString() {
+    return String.format("GridIndex(%d Points; %dx%d Cells)", size(), columns, rows);
+  }
+}
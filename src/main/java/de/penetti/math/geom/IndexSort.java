@@ -0,0 +1,74 @@
+package de.penetti.math.geom;
+
+/**
+ * Sorts indices by primitive keys without boxing.
+ *
+ * @author Enrico
+ */
+final class IndexSort {
+  private IndexSort() {
+  }
+
+  /**
+   * Returns the indices {@code 0..n-1} sorted by {@code keys[index]}. The sort is stable.
+   *
+   * @param keys the sort keys
+   * @param n    number of keys to sort
+   * @return the sorted indices
+   */
+  static int[] sort(double[] keys, int n) {
+    int[] indices = new int[n];
+    for (int i = 0; i < n; i++) {
+      indices[i] = i;
+    }
+    sort(indices, 0, n, keys);
+    return indices;
+  }
+
+  /**
+   * Sorts {@code indices[from..to)} by {@code keys[index]}. The sort is stable.
+   */
+  static void sort(int[] indices, int from, int to, double[] keys) {
+    if (to - from < 2) {
+      return;
+    }
+    int[] buffer = new int[to - from];
+    mergeSort(indices, buffer, from, to, keys);
+  }
+
+  private static void mergeSort(int[] indices, int[] buffer, int from, int to, double[] keys) {
+    int n = to - from;
+    if (n <= 16) {
+      for (int i = from + 1; i < to; i++) {
+        int index = indices[i];
+        double key = keys[index];
+        int j = i - 1;
+        while (j >= from && Double.compare(keys[indices[j]], key) > 0) {
+          indices[j + 1] = indices[j];
+          j--;
+        }
+        indices[j + 1] = index;
+      }
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    mergeSort(indices, buffer, from, mid, keys);
+    mergeSort(indices, buffer, mid, to, keys);
+    if (Double.compare(keys[indices[mid - 1]], keys[indices[mid]]) <= 0) {
+      return;
+    }
+    System.arraycopy(indices, from, buffer, 0, n);
+    int i = 0;
+    int j = mid - from;
+    int k = from;
+    while (i < mid - from && j < n) {
+      indices[k++] = Double.compare(keys[buffer[j]], keys[buffer[i]]) < 0 ? buffer[j++] : buffer[i++];
+    }
+    while (i < mid - from) {
+      indices[k++] = buffer[i++];
+    }
+    while (j < n) {
+      indices[k++] = buffer[j++];
+    }
+  }
+}
@@ -0,0 +1,405 @@
+package de.penetti.math.geom;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Two-dimensional k-d tree over a set of points.
+ * <p>
+ * The tree is built once by median partitioning and stored implicitly in primitive arrays: the node of the range
+ * {@code [lo, hi)} is the median {@code (lo + hi) / 2}, which splits the range by x on even and by y on odd depths.
+ * Thus the tree is balanced and needs no node objects. Queries report the indices of the points in the order in which
+ * they were given.
+ * </p>
+ * <p>
+ * This class is immutable; any number of threads can query it concurrently.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class KdTree {
+  private final double[] xs;      // Koordinaten in Baumordnung
+  private final double[] ys;
+  private final int[] indices;    // ursprüngliche Indizes in Baumordnung
+  private final int[] positions;  // Umkehrung von indices
+
+  private KdTree(double[] xs, double[] ys) {
+    int n = xs.length;
+    this.xs = xs;
+    this.ys = ys;
+    this.indices = new int[n];
+    for (int i = 0; i < n; i++) {
+      indices[i] = i;
+    }
+    build(0, n, 0);
+    this.positions = new int[n];
+    for (int i = 0; i < n; i++) {
+      positions[indices[i]] = i;
+    }
+  }
+
+  /**
+   * Builds the tree over the given coordinates. The arrays are copied.
+   *
+   * @param xs x coordinates
+   * @param ys y coordinates
+   * @return the tree
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public static KdTree of(double[] xs, double[] ys) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    return new KdTree(xs.clone(), ys.clone());
+  }
+
+  /**
+   * Builds the tree over the given vectors; the indices are the positions in the iteration order.
+   */
+  public static KdTree of(Collection<Vector> vectors) {
+    Objects.requireNonNull(vectors);
+    double[] xs = new double[vectors.size()];
+    double[] ys = new double[vectors.size()];
+    int i = 0;
+    for (Vector v : vectors) {
+      xs[i] = v.getX();
+      ys[i++] = v.getY();
+    }
+    return new KdTree(xs, ys);
+  }
+
+  /**
+   * Builds the tree over the vertices of the polyline; the indices are the indices of the vertices.
+   */
+  public static KdTree of(Polyline polyline) {
+    PackedPolyline packed = PackedPolyline.fromPolyline(polyline);
+    return new KdTree(packed.xs, packed.ys);
+  }
+
+  private void build(int lo, int hi, int depth) {
+    while (hi - lo > 1) {
+      int m = (lo + hi) >>> 1;
+      select(lo, hi - 1, m, (depth & 1) == 0 ? xs : ys);
+      build(lo, m, depth + 1);
+      lo = m + 1;
+      depth++;
+    }
+  }
+
+  /**
+   * Rearranges {@code [lo, hi]} so that the element at {@code k} is the one of sorted order and no element left of it
+   * is greater and no element right of it is smaller (quickselect).
+   */
+  private void select(int lo, int hi, int k, double[] keys) {
+    while (hi > lo) {
+      int mid = (lo + hi) >>> 1;
+      // Median aus drei als Pivot
+      if (keys[mid] < keys[lo]) swap(mid, lo);
+      if (keys[hi] < keys[lo]) swap(hi, lo);
+      if (keys[hi] < keys[mid]) swap(hi, mid);
+      double pivot = keys[mid];
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (keys[i] < pivot) i++;
+        while (keys[j] > pivot) j--;
+        if (i <= j) {
+          swap(i++, j--);
+        }
+      }
+      if (k <= j) {
+        hi = j;
+      }
+      else if (k >= i) {
+        lo = i;
+      }
+      else {
+        return;
+      }
+    }
+  }
+
+  private void swap(int i, int j) {
+    double x = xs[i];
+    xs[i] = xs[j];
+    xs[j] = x;
+    double y = ys[i];
+    ys[i] = ys[j];
+    ys[j] = y;
+    int index = indices[i];
+    indices[i] = indices[j];
+    indices[j] = index;
+  }
+
+  public int size() {
+    return xs.length;
+  }
+
+  /**
+   * Gets the point with the given index.
+   *
+   * @param index index of the point in the input
+   * @return the point
+   */
+  public Vector get(int index) {
+    int i = position(index);
+    return new Vector(xs[i], ys[i]);
+  }
+
+  private int position(int index) {
+    return positions[Objects.checkIndex(index, indices.length)];
+  }
+
+  /**
+   * Finds the point nearest to the given point.
+   *
+   * @return index of the nearest point or -1, if the tree is empty
+   */
+  public int nearest(double x, double y) {
+    Nearest nearest = new Nearest();
+    nearest(0, xs.length, 0, x, y, nearest);
+    return nearest.index;
+  }
+
+  /**
+   * @see #nearest(double, double)
+   */
+  public int nearest(Vector v) {
+    return nearest(v.getX(), v.getY());
+  }
+
+  private void nearest(int lo, int hi, int depth, double x, double y, Nearest nearest) {
+    if (lo >= hi) {
+      return;
+    }
+    int m = (lo + hi) >>> 1;
+    double dx = x - xs[m];
+    double dy = y - ys[m];
+    double d = dx * dx + dy * dy;
+    if (d < nearest.distanceSq || (d == nearest.distanceSq && indices[m] < nearest.index)) {
+      nearest.distanceSq = d;
+      nearest.index = indices[m];
+    }
+    double diff = (depth & 1) == 0 ? dx : dy;
+    if (diff < 0) {
+      nearest(lo, m, depth + 1, x, y, nearest);
+      if (diff * diff <= nearest.distanceSq) {
+        nearest(m + 1, hi, depth + 1, x, y, nearest);
+      }
+    }
+    else {
+      nearest(m + 1, hi, depth + 1, x, y, nearest);
+      if (diff * diff <= nearest.distanceSq) {
+        nearest(lo, m, depth + 1, x, y, nearest);
+      }
+    }
+  }
+
+  /**
+   * Finds the {@code k} points nearest to the given point.
+   *
+   * @return indices of the points, ordered by ascending distance; less than {@code k}, if the tree has less points
+   */
+  public int[] nearest(double x, double y, int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("k must not be negative.");
+    }
+    Heap heap = new Heap(Math.min(k, xs.length));
+    if (heap.capacity > 0) {
+      nearest(0, xs.length, 0, x, y, heap);
+    }
+    return heap.sorted();
+  }
+
+  private void nearest(int lo, int hi, int depth, double x, double y, Heap heap) {
+    if (lo >= hi) {
+      return;
+    }
+    int m = (lo + hi) >>> 1;
+    double dx = x - xs[m];
+    double dy = y - ys[m];
+    heap.offer(dx * dx + dy * dy, indices[m]);
+    double diff = (depth & 1) == 0 ? dx : dy;
+    int nearLo = diff < 0 ? lo : m + 1;
+    int nearHi = diff < 0 ? m : hi;
+    nearest(nearLo, nearHi, depth + 1, x, y, heap);
+    if (heap.size < heap.capacity || diff * diff <= heap.distances[0]) {
+      nearest(diff < 0 ? m + 1 : lo, diff < 0 ? hi : m, depth + 1, x, y, heap);
+    }
+  }
+
+  /**
+   * Reports each point whose distance to the given point is not greater than {@code radius}.
+   *
+   * @param consumer receives the indices of the points
+   */
+  public void radius(double x, double y, double radius, IntConsumer consumer) {
+    radius(0, xs.length, 0, x, y, radius * radius, consumer);
+  }
+
+  /**
+   * @see #radius(double, double, double, IntConsumer)
+   */
+  public int[] radius(double x, double y, double radius) {
+    IntBuffer buffer = new IntBuffer();
+    radius(x, y, radius, buffer);
+    return buffer.toArray();
+  }
+
+  private void radius(int lo, int hi, int depth, double x, double y, double radiusSq, IntConsumer consumer) {
+    while (lo < hi) {
+      int m = (lo + hi) >>> 1;
+      double dx = x - xs[m];
+      double dy = y - ys[m];
+      if (dx * dx + dy * dy <= radiusSq) {
+        consumer.accept(indices[m]);
+      }
+      double diff = (depth & 1) == 0 ? dx : dy;
+      boolean both = diff * diff <= radiusSq;
+      if (diff < 0) {
+        if (both) {
+          radius(m + 1, hi, depth + 1, x, y, radiusSq, consumer);
+        }
+        hi = m;
+      }
+      else {
+        if (both) {
+          radius(lo, m, depth + 1, x, y, radiusSq, consumer);
+        }
+        lo = m + 1;
+      }
+      depth++;
+    }
+  }
+
+  /**
+   * Reports each point inside the given rectangle (borders inclusive).
+   *
+   * @param consumer receives the indices of the points
+   */
+  public void range(double minX, double minY, double maxX, double maxY, IntConsumer consumer) {
+    range(0, xs.length, 0, minX, minY, maxX, maxY, consumer);
+  }
+
+  /**
+   * @see #range(double, double, double, double, IntConsumer)
+   */
+  public int[] range(double minX, double minY, double maxX, double maxY) {
+    IntBuffer buffer = new IntBuffer();
+    range(minX, minY, maxX, maxY, buffer);
+    return buffer.toArray();
+  }
+
+  private void range(int lo, int hi, int depth, double minX, double minY, double maxX, double maxY,
+                     IntConsumer consumer) {
+    if (lo >= hi) {
+      return;
+    }
+    int m = (lo + hi) >>> 1;
+    double x = xs[m];
+    double y = ys[m];
+    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+      consumer.accept(indices[m]);
+    }
+    double split = (depth & 1) == 0 ? x : y;
+    double min = (depth & 1) == 0 ? minX : minY;
+    double max = (depth & 1) == 0 ? maxX : maxY;
+    if (min <= split) {
+      range(lo, m, depth + 1, minX, minY, maxX, maxY, consumer);
+    }
+    if (max >= split) {
+      range(m + 1, hi, depth + 1, minX, minY, maxX, maxY, consumer);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("KdTree(%d Points)", size());
+  }
+
+  private static final class Nearest {
+    private double distanceSq = Double.POSITIVE_INFINITY;
+    private int index = -1;
+  }
+
+  /**
+   * Max-heap of the k smallest distances.
+   */
+  private static final class Heap {
+    private final int capacity;
+    private final double[] distances;
+    private final int[] indices;
+    private int size;
+
+    private Heap(int capacity) {
+      this.capacity = capacity;
+      this.distances = new double[capacity];
+      this.indices = new int[capacity];
+    }
+
+    private void offer(double distance, int index) {
+      if (size < capacity) {
+        int i = size++;
+        while (i > 0) {
+          int parent = (i - 1) >>> 1;
+          if (distances[parent] >= distance) {
+            break;
+          }
+          distances[i] = distances[parent];
+          indices[i] = indices[parent];
+          i = parent;
+        }
+        distances[i] = distance;
+        indices[i] = index;
+      }
+      else if (distance < distances[0]) {
+        int i = 0;
+        while (true) {
+          int child = 2 * i + 1;
+          if (child >= size) {
+            break;
+          }
+          if (child + 1 < size && distances[child + 1] > distances[child]) {
+            child++;
+          }
+          if (distances[child] <= distance) {
+            break;
+          }
+          distances[i] = distances[child];
+          indices[i] = indices[child];
+          i = child;
+        }
+        distances[i] = distance;
+        indices[i] = index;
+      }
+    }
+
+    private int[] sorted() {
+      int[] order = IndexSort.sort(distances, size);
+      int[] result = new int[size];
+      for (int i = 0; i < size; i++) {
+        result[i] = indices[order[i]];
+      }
+      return result;
+    }
+  }
+
+  private static final class IntBuffer implements IntConsumer {
+    private int[] values = new int[16];
+    private int size;
+
+    @Override
+    public void accept(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    private int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -1,8 +1,5 @@
 package de.penetti.math.geom;
 
-import Jama.Matrix;
-import de.penetti.math.NumberRange;
-
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.Optional;
@@ -17,7 +14,6 @@ import static de.penetti.math.MathUtil.PI;
  */
 public final class Line implements Serializable {
   private static final long serialVersionUID = -999701483216745289L;
-  private final static double EPSILON = 1e-10;
   private final Vector origin;
   private final Vector destination;
 
@@ -140,34 +136,21 @@ public final class Line implements Serializable {
   /**
    * Calculates the normal vector of the line.
    * The normal vector points from (origin, destination) upwards. I.e. if the rise is negative,
-   * x is always positive, if the rise is positive, x is always negative.
+   * x is always positive, if the rise is positive, x is always negative. The normal of a vertical line is (1, 0).
+   * The normal is computed directly from the direction (-dy, dx) / |d|; a line without length has no normal,
+   * both coordinates are NaN then.
    *
    * @see #orthogonal(Vector)
    */
   public Vector normal() {
-    Vector normal = null;
-    while (normal == null) {
-      Vector rand = Vector.random(1, 100_000d);
-      normal = orthogonal(rand).normalize();
-      if (Double.isNaN(normal.getX()) ||
-        Double.isNaN(normal.getY()))
-        normal = null;
-    }
-    if (origin.getX() < destination.getX()) {
-      if (origin.getY() < destination.getY()) {
-        if (normal.getX() > 0) {
-          normal = normal.mul(-1.00);
-        }
-      }
-    }
-    else {
-      if (origin.getY() > destination.getY()) {
-        if (normal.getX() < 0) {
-          normal = normal.mul(-1.00);
-        }
-      }
+    double dx = destination.getX() - origin.getX();
+    double dy = destination.getY() - origin.getY();
+    if (dx < 0 || (dx == 0 && dy > 0)) {
+      dx = .0 - dx; // .0 - x statt -x, damit keine -0.0 entsteht
+      dy = .0 - dy;
     }
-    return normal;
+    double l = Math.sqrt(dx * dx + dy * dy);
+    return l > .0 ? new Vector((.0 - dy) / l, dx / l) : new Vector(Double.NaN, Double.NaN);
   }
 
   public boolean contains(Vector v) {
@@ -188,26 +171,54 @@ public final class Line implements Serializable {
    * @return LEFT, RIGHT, BEHIND, BEYOND, ORIGIN, DESTINATION oder BETWEEN
    */
   public PointStatus classify(Vector v) {
-    Vector a = getDirection();
-    Vector b = v.sub(origin);
-    double sa = a.determinante(b);
-    if (sa > 0.0) {
+    return classify(v.getX(), v.getY());
+  }
+
+  /**
+   * Classifies a batch of points.
+   *
+   * @param xs  x coordinates of the points
+   * @param ys  y coordinates of the points
+   * @param out receives the classification of each point
+   * @throws IllegalArgumentException if the arrays differ in length
+   * @see #classify(Vector)
+   */
+  public void classify(double[] xs, double[] ys, PointStatus[] out) {
+    if (xs.length != ys.length || xs.length != out.length) {
+      throw new IllegalArgumentException("The arrays must have the same length.");
+    }
+    for (int i = 0; i < xs.length; i++) {
+      out[i] = classify(xs[i], ys[i]);
+    }
+  }
+
+  private PointStatus classify(double x, double y) {
+    double ox = origin.getX();
+    double oy = origin.getY();
+    double dx = destination.getX();
+    double dy = destination.getY();
+    int orientation = Predicates.orientation(ox, oy, dx, dy, x, y);
+    if (orientation > 0) {
       return PointStatus.LEFT;
     }
-    if (sa < 0.0) {
+    if (orientation < 0) {
       return PointStatus.RIGHT;
     }
-    if ((a.getX() * b.getX() < 0.0) ||
-        (a.getY() * b.getY() < 0.0)) {
+    double ax = dx - ox;
+    double ay = dy - oy;
+    double bx = x - ox;
+    double by = y - oy;
+    if ((ax * bx < 0.0) ||
+        (ay * by < 0.0)) {
       return PointStatus.BEHIND;
     }
-    if (a.length() < b.length()) {
+    if (ax * ax + ay * ay < bx * bx + by * by) {
       return PointStatus.BEYOND;
     }
-    if (origin.equals(v)) {
+    if (ox == x && oy == y) {
       return PointStatus.ORIGIN;
     }
-    if (destination.equals(v)) {
+    if (dx == x && dy == y) {
       return PointStatus.DESTINATION;
     }
     return PointStatus.BETWEEN;
@@ -240,80 +251,59 @@ public final class Line implements Serializable {
    * Returns the {@link Intersection} whether the two line segments intersect, whether
    * the straight lines intersect, or whether the two straight lines are identical or parallel.
    * The intersection, if any, is also in {@link Intersection}.
+   * If one of the lines has no length, the status is {@link LineStatus#DEFICIENT}.
    *
+   * @see LineIntersector
    * @param line
    * @return
    */
   public Intersection intersection(Line line) {
-    LineStatus lineStatus = LineStatus.DEFICIENT;
-    Vector intersection = null;
-    try {
-      Vector dir1 = getDirection().normalize();
-      Vector dir2 = line.getDirection().normalize();
-      double det = dir1.determinante(dir2);
-      if (Math.abs(det) < EPSILON) { // if(getDirection().isLinearlyDependent(line.getDirection()))
-        // Geraden sind identisch oder parallel, wenn die Richtungsvektoren linear abhängig sind
-        // bzw wenn die Determinante der Richtungsvektoren gegen 0 geht
-        // ε für Ungenauigkeit bei double-Berechnungen
-        if (distance(line.getOrigin()) < EPSILON) {
-          lineStatus = LineStatus.IDENTICAL; // Geraden sind identisch
-        }
-        else {
-          lineStatus = LineStatus.PARALLEL;  // Geraden verlaufen parallel zueinander
-        }
-      }
-      else { // Geraden schneiden sich
-        // Aufstellen der Matrix aus den Richtungsvektoren
-        Matrix a = new Matrix(new double[][]{{dir1.getX(), -dir2.getX()},
-                                             {dir1.getY(), -dir2.getY()}});
-        // Aufstellen des Lösungsvektors aus den Ortsvektoren
-        Matrix b = new Matrix(new double[][]{{-origin.getX() + line.origin.getX()},
-                                             {-origin.getY() + line.origin.getY()}});
-        // und Lösen des GLS
-        Matrix x = a.solve(b);
-
-        // λ ermitteln
-        double λ = x.get(1, 0);
-
-        // Prüfen, ob für λ und µ der gleiche Schnittpunkt berechnet wird durch
-        // Einsetzen von λ in die jeweilige vektorielle Geradengleichung
-        double ax = line.origin.getX() + λ * dir2.getX();
-        double ay = line.origin.getY() + λ * dir2.getY();
-
-        // Geraden haben einen Schnittpunkt miteinander
-        // Einsetzen von λ in die Geradengleichung, um die Koordinaten des Schnittpunktes zu bestimmen
-        intersection = new Vector(ax, ay);
-        lineStatus = LineStatus.LINE_INTERSECTS;
-
-        // Test, ob Schnittpunkt direkt auf der Strecke
-        Vector endPnt1 = new Vector(origin.getX() + getDirection().getX(), origin.getY() + getDirection().getY());
-        Vector endPnt2 = new Vector(line.origin.getX() + line.getDirection().getX(), line.origin.getY() + line.getDirection().getY());
-        NumberRange<Double> r1x = new NumberRange<>(Math.min(origin.getX(), endPnt1.getX()), Math.max(origin.getX(), endPnt1.getX()));
-        NumberRange<Double> r1y = new NumberRange<>(Math.min(origin.getY(), endPnt1.getY()), Math.max(origin.getY(), endPnt1.getY()));
-        NumberRange<Double> r2x = new NumberRange<>(Math.min(line.origin.getX(), endPnt2.getX()), Math.max(line.origin.getX(), endPnt2.getX()));
-        NumberRange<Double> r2y = new NumberRange<>(Math.min(line.origin.getY(), endPnt2.getY()), Math.max(line.origin.getY(), endPnt2.getY()));
-        if (r1x.contains(intersection.getX()) &&
-            r1y.contains(intersection.getY()) &&
-            r2x.contains(intersection.getX()) &&
-            r2y.contains(intersection.getY())) {
-          lineStatus = LineStatus.SEGMENT_INTERSECTS;
-        }
-      }
-    }
-    catch (Exception e) {
-      System.out.println(e.getClass().getSimpleName() + ": " + e.getLocalizedMessage());
-    }
-    return new Intersection(this, line, intersection, lineStatus);
+    LineIntersector.Result result = new LineIntersector.Result();
+    LineIntersector.intersect(origin.getX(), origin.getY(), destination.getX(), destination.getY(),
+                              line.origin.getX(), line.origin.getY(), line.destination.getX(), line.destination.getY(),
+                              result);
+    return new Intersection(this, line, result.getIntersection(), result.getLineStatus());
   }
 
   /**
    * Gets the distance from vector v to this line.
+   * The line is regarded as infinite straight line; see {@link #segmentDistance(Vector)} for the distance to the
+   * line segment.
    *
    * @param v
    * @return
    */
   public double distance(Vector v) {
-    return orthogonal(v).length();
+    double dx = destination.getX() - origin.getX();
+    double dy = destination.getY() - origin.getY();
+    double cross = dx * (v.getY() - origin.getY()) - dy * (v.getX() - origin.getX());
+    return Math.abs(cross) / Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * Gets the distance from vector v to the line segment (origin, destination).
+   *
+   * @param v
+   * @return
+   */
+  public double segmentDistance(Vector v) {
+    return Math.sqrt(SegmentIndex.segmentDistanceSq(v.getX(), v.getY(), origin.getX(), origin.getY(),
+                                                    destination.getX(), destination.getY()));
+  }
+
+  /**
+   * Gets the point of the line segment (origin, destination) which is closest to v.
+   *
+   * @param v
+   * @return
+   */
+  public Vector closestPoint(Vector v) {
+    double ox = origin.getX();
+    double oy = origin.getY();
+    double dx = destination.getX() - ox;
+    double dy = destination.getY() - oy;
+    double t = SegmentIndex.segmentParameter(v.getX(), v.getY(), ox, oy, destination.getX(), destination.getY());
+    return new Vector(ox + t * dx, oy + t * dy);
   }
 
   @Override
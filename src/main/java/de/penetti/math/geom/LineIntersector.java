@@ -0,0 +1,131 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.geom.Line.LineStatus;
+
+/**
+ * Intersection of two line segments given by their raw coordinates.
+ * The segments are intersected in closed form; nothing is allocated, the intersection is written to a
+ * caller-supplied {@link Result}, which may be reused for any number of calls.
+ * <p>
+ * The {@link LineStatus} has the same meaning as in {@link Line#intersection(Line)}, which is based on this class.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class LineIntersector {
+  private final static double EPSILON = 1e-10;
+
+  private LineIntersector() {
+  }
+
+  /**
+   * Intersects the segment (a, b) with the segment (c, d).
+   * <p>
+   * The direction vectors are linearly dependent, if the determinant of the normalized direction vectors is smaller
+   * than ε. Then the lines are {@link LineStatus#IDENTICAL}, if c lies on the line (a, b), otherwise they are
+   * {@link LineStatus#PARALLEL}. Else the intersection is c + λ (d - c) with
+   * <pre>
+   *   λ = ((c - a) x (b - a)) / ((b - a) x (d - c))
+   * </pre>
+   * and the status is {@link LineStatus#SEGMENT_INTERSECTS}, if the intersection lies on both segments, or
+   * {@link LineStatus#LINE_INTERSECTS} otherwise. If one of the segments has no length or a coordinate is not
+   * finite, the status is {@link LineStatus#DEFICIENT}.
+   * </p>
+   *
+   * @param result receives the status and, if the lines intersect, the intersection; may be {@code null}
+   * @return the status
+   */
+  public static LineStatus intersect(double ax, double ay, double bx, double by,
+                                     double cx, double cy, double dx, double dy,
+                                     Result result) {
+    LineStatus status = LineStatus.DEFICIENT;
+    double px = Double.NaN;
+    double py = Double.NaN;
+    double d1x = bx - ax;
+    double d1y = by - ay;
+    double d2x = dx - cx;
+    double d2y = dy - cy;
+    double l1 = Math.sqrt(d1x * d1x + d1y * d1y);
+    double l2 = Math.sqrt(d2x * d2x + d2y * d2y);
+    if (l1 > .0 && l2 > .0 && Double.isFinite(l1) && Double.isFinite(l2)) {
+      double wx = cx - ax;
+      double wy = cy - ay;
+      double det = (d1x / l1) * (d2y / l2) - (d1y / l1) * (d2x / l2);
+      if (Math.abs(det) < EPSILON) {
+        // Geraden sind identisch oder parallel, wenn die Richtungsvektoren linear abhängig sind
+        status = Math.abs(d1x * wy - d1y * wx) / l1 < EPSILON ? LineStatus.IDENTICAL : LineStatus.PARALLEL;
+      }
+      else {
+        double λ = (wx * d1y - wy * d1x) / (d1x * d2y - d1y * d2x);
+        px = cx + λ * d2x;
+        py = cy + λ * d2y;
+        status = px >= Math.min(ax, bx) && px <= Math.max(ax, bx) &&
+                 py >= Math.min(ay, by) && py <= Math.max(ay, by) &&
+                 px >= Math.min(cx, dx) && px <= Math.max(cx, dx) &&
+                 py >= Math.min(cy, dy) && py <= Math.max(cy, dy)
+               ? LineStatus.SEGMENT_INTERSECTS
+               : LineStatus.LINE_INTERSECTS;
+      }
+    }
+    if (result != null) {
+      result.status = status;
+      result.x = px;
+      result.y = py;
+    }
+    return status;
+  }
+
+  /**
+   * Mutable holder for the result of {@link #intersect}.
+   */
+  public static final class Result {
+    private LineStatus status = LineStatus.DEFICIENT;
+    private double x = Double.NaN;
+    private double y = Double.NaN;
+
+    public LineStatus getLineStatus() {
+      return status;
+    }
+
+    /**
+     * Tests, if the lines have an intersection, i.e. the status is {@link LineStatus#LINE_INTERSECTS} or
+     * {@link LineStatus#SEGMENT_INTERSECTS}.
+     *
+     * @return true if there is an intersection
+     */
+    public boolean hasIntersection() {
+      return status == LineStatus.LINE_INTERSECTS ||
+             status == LineStatus.SEGMENT_INTERSECTS;
+    }
+
+    /**
+     * @return x of the intersection or NaN
+     */
+    public double getX() {
+      return x;
+    }
+
+    /**
+     * @return y of the intersection or NaN
+     */
+    public double getY() {
+      return y;
+    }
+
+    /**
+     * @return the intersection or {@code null}
+     */
+    public Vector getIntersection() {
+      return hasIntersection() ? new Vector(x, y) : null;
+    }
+
+    @Override
+    public String toString() {
+      return "Result{" +
+        "status=" + status +
+        ", x=" + x +
+        ", y=" + y +
+        '}';
+    }
+  }
+}
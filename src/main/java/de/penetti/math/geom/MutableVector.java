@@ -0,0 +1,160 @@
+package de.penetti.math.geom;
+
+/**
+ * Mutable companion of {@link Vector} for chained arithmetic without allocation.
+ * <p>
+ * All operations modify this vector in place and return it, so they can be chained:
+ * <pre>
+ *   MutableVector m = MutableVector.create();
+ *   m.set(v).sub(origin).rotate(angle).add(origin);
+ * </pre>
+ * The operations compute the same values as the corresponding methods of {@link Vector}. Use {@link #toVector()}
+ * to get an immutable result.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class MutableVector {
+  private double x;
+  private double y;
+
+  private MutableVector(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  public static MutableVector create() {
+    return new MutableVector(0, 0);
+  }
+
+  public static MutableVector create(double x, double y) {
+    return new MutableVector(x, y);
+  }
+
+  public static MutableVector of(Vector v) {
+    return new MutableVector(v.getX(), v.getY());
+  }
+
+  public double getX() {
+    return x;
+  }
+
+  public double getY() {
+    return y;
+  }
+
+  public MutableVector set(double x, double y) {
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
+  public MutableVector set(Vector v) {
+    return set(v.getX(), v.getY());
+  }
+
+  public MutableVector set(MutableVector v) {
+    return set(v.x, v.y);
+  }
+
+  /**
+   * @see Vector#add(Vector)
+   */
+  public MutableVector add(double x, double y) {
+    this.x += x;
+    this.y += y;
+    return this;
+  }
+
+  /**
+   * @see Vector#add(Vector)
+   */
+  public MutableVector add(Vector v) {
+    return add(v.getX(), v.getY());
+  }
+
+  /**
+   * @see Vector#sub(Vector)
+   */
+  public MutableVector sub(double x, double y) {
+    this.x -= x;
+    this.y -= y;
+    return this;
+  }
+
+  /**
+   * @see Vector#sub(Vector)
+   */
+  public MutableVector sub(Vector v) {
+    return sub(v.getX(), v.getY());
+  }
+
+  /**
+   * @see Vector#mul(double)
+   */
+  public MutableVector mul(double f) {
+    x = f * x;
+    y = f * y;
+    return this;
+  }
+
+  /**
+   * @see Vector#rotate(double)
+   */
+  public MutableVector rotate(double angle) {
+    double ca = Math.cos(angle);
+    double sa = Math.sin(angle);
+    double rx = x * ca - y * sa;
+    y = x * sa + y * ca;
+    x = rx;
+    return this;
+  }
+
+  /**
+   * @see Vector#rotate(Vector, double)
+   */
+  public MutableVector rotate(Vector origin, double angle) {
+    return sub(origin).rotate(angle).add(origin);
+  }
+
+  /**
+   * @see Vector#normalize()
+   */
+  public MutableVector normalize() {
+    double n = length();
+    x = x / n;
+    y = y / n;
+    return this;
+  }
+
+  /**
+   * @see Vector#length()
+   */
+  public double length() {
+    return Math.sqrt(Math.pow(x, 2) + Math.pow(y, 2));
+  }
+
+  /**
+   * @see Vector#dot(Vector)
+   */
+  public double dot(Vector v) {
+    return x * v.getX() + y * v.getY();
+  }
+
+  /**
+   * Creates an immutable copy of this vector.
+   *
+   * @return the vector
+   */
+  public Vector toVector() {
+    return new Vector(x, y);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MutableVector(%.3f:%.3f)", x, y);
+  }
+}
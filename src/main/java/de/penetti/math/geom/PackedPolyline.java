@@ -0,0 +1,398 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.geom.Line.LineStatus;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A polyline which stores its coordinates as primitive arrays (struct of arrays) instead of one {@link Vector}
+ * per vertex. The metric operations work directly on the coordinates and yield the same results as the
+ * corresponding methods of {@link Polyline}.
+ * <p>
+ * This class is immutable.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class PackedPolyline implements Serializable {
+  private static final long serialVersionUID = 2361479815540935236L;
+  final double[] xs;
+  final double[] ys;
+  private final boolean closed;
+
+  private PackedPolyline(boolean closed, double[] xs, double[] ys) {
+    this.xs = xs;
+    this.ys = ys;
+    this.closed = closed;
+  }
+
+  /**
+   * Creates a packed polyline from the given coordinates. The arrays are copied.
+   *
+   * @param closed whether the polyline is closed
+   * @param xs     x coordinates
+   * @param ys     y coordinates
+   * @return the packed polyline
+   * @throws IllegalArgumentException if the arrays differ in length or contain less than two coordinates
+   */
+  public static PackedPolyline of(boolean closed, double[] xs, double[] ys) {
+    Objects.requireNonNull(xs);
+    Objects.requireNonNull(ys);
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    if (xs.length < 2) {
+      throw new IllegalArgumentException("A polyline requires a minimum of two points.");
+    }
+    return new PackedPolyline(closed, xs.clone(), ys.clone());
+  }
+
+  /**
+   * Creates a packed polyline which owns the given arrays; they must not be modified afterwards.
+   */
+  static PackedPolyline wrap(boolean closed, double[] xs, double[] ys) {
+    return new PackedPolyline(closed, xs, ys);
+  }
+
+  public static PackedPolyline fromPolyline(Polyline polyline) {
+    Objects.requireNonNull(polyline);
+    int n = polyline.size();
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    int[] i = {0};
+    polyline.stream().forEach(v -> {
+      xs[i[0]] = v.getX();
+      ys[i[0]++] = v.getY();
+    });
+    return new PackedPolyline(polyline.isClosed(), xs, ys);
+  }
+
+  public Polyline toPolyline() {
+    List<Vector> vectors = new ArrayList<>(xs.length);
+    for (int i = 0; i < xs.length; i++) {
+      vectors.add(new Vector(xs[i], ys[i]));
+    }
+    return new Polyline(closed, vectors);
+  }
+
+  public int size() {
+    return xs.length;
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  public double getX(int index) {
+    return xs[index];
+  }
+
+  public double getY(int index) {
+    return ys[index];
+  }
+
+  public Vector get(int index) {
+    return new Vector(xs[index], ys[index]);
+  }
+
+  /**
+   * Copies the x coordinates into a new array.
+   *
+   * @return the x coordinates
+   */
+  public double[] xs() {
+    return xs.clone();
+  }
+
+  /**
+   * Copies the y coordinates into a new array.
+   *
+   * @return the y coordinates
+   */
+  public double[] ys() {
+    return ys.clone();
+  }
+
+  /**
+   * Counts the segments of this polyline. A closed polyline has one segment more than an open one.
+   *
+   * @return number of segments
+   */
+  public int segments() {
+    return closed ? xs.length : xs.length - 1;
+  }
+
+  /**
+   * @see Polyline#length()
+   */
+  public double length() {
+    int n = xs.length;
+    double length = .0;
+    for (int i = 0; i < n - 1; i++) {
+      length += distance(xs[i], ys[i], xs[i + 1], ys[i + 1]);
+    }
+    if (closed) {
+      length += distance(xs[n - 1], ys[n - 1], xs[0], ys[0]);
+    }
+    return length;
+  }
+
+  private static double distance(double ax, double ay, double bx, double by) {
+    double dx = bx - ax;
+    double dy = by - ay;
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * @see Polyline#area()
+   */
+  public double area() {
+    int n = xs.length;
+    double sum = .0;
+    for (int i = 0; i < n - 1; i++) {
+      sum += (ys[i] + ys[i + 1]) * (xs[i] - xs[i + 1]);
+    }
+    sum += (ys[n - 1] + ys[0]) * (xs[n - 1] - xs[0]);
+    return Math.abs(sum / 2);
+  }
+
+  /**
+   * @see Polyline#isCCW()
+   */
+  public boolean isCCW() {
+    int n = xs.length;
+    double sum = .0;
+    for (int i = 0; i < n - 1; i++) {
+      sum += (xs[i + 1] - xs[i]) * (ys[i + 1] + ys[i]);
+    }
+    sum += (xs[0] - xs[n - 1]) * (ys[0] + ys[n - 1]);
+    return sum <= .0;
+  }
+
+  /**
+   * @see Polyline#contains(Vector)
+   */
+  public boolean contains(Vector v) {
+    return contains(v.getX(), v.getY());
+  }
+
+  /**
+   * @see Polyline#contains(Vector)
+   */
+  public boolean contains(double x, double y) {
+    int t = -1;
+    int n = xs.length;
+    for (int i = 0, j = n - 1; i < n; j = i++) {
+      t = t * crossingTest(x, y, xs[j], ys[j], xs[i], ys[i]);
+      if (t == 0) {
+        break;
+      }
+    }
+    return t >= 0;
+  }
+
+  private static int crossingTest(double x, double y, double ax, double ay, double bx, double by) {
+    if (ay > by) {
+      double tmp = ax;
+      ax = bx;
+      bx = tmp;
+      tmp = ay;
+      ay = by;
+      by = tmp;
+    }
+    if (y <= ay || y > by) {
+      return 1;
+    }
+    return Predicates.orientation(ax, ay, bx, by, x, y);
+  }
+
+  /**
+   * @see Polyline#centroid()
+   */
+  public Vector centroid() {
+    double centroidX = 0;
+    double centroidY = 0;
+    for (int i = 0; i < xs.length; i++) {
+      centroidX += xs[i];
+      centroidY += ys[i];
+    }
+    int n = xs.length;
+    return new Vector(centroidX / n, centroidY / n);
+  }
+
+  /**
+   * Determines the segments of this polyline which intersect the given line segment.
+   * Unlike {@link Polyline#intersection(Line)} only real intersections ({@link LineStatus#SEGMENT_INTERSECTS}) are
+   * reported; segments which miss the line do not produce a result.
+   *
+   * @param line
+   * @return the intersections in the order of the segments
+   */
+  public Collection<SegmentIntersection> intersection(Line line) {
+    double cx = line.getOrigin().getX();
+    double cy = line.getOrigin().getY();
+    double dx = line.getDestination().getX();
+    double dy = line.getDestination().getY();
+    Collection<SegmentIntersection> intersections = new ArrayList<>();
+    LineIntersector.Result result = new LineIntersector.Result();
+    int n = xs.length;
+    for (int i = 0; i < segments(); i++) {
+      int j = i + 1 == n ? 0 : i + 1;
+      if (LineIntersector.intersect(xs[i], ys[i], xs[j], ys[j], cx, cy, dx, dy, result) == LineStatus.SEGMENT_INTERSECTS) {
+        intersections.add(new SegmentIntersection(i, result.getX(), result.getY()));
+      }
+    }
+    return intersections;
+  }
+
+  /**
+   * Determines the intersections of the segments of this polyline with the segments of the given polyline.
+   * Like {@link Polyline#intersection(Polyline)} only real intersections ({@link LineStatus#SEGMENT_INTERSECTS}) are
+   * reported. The segments are found by a sweep over monotone chains, so only segments with overlapping bounding boxes
+   * are compared.
+   *
+   * @param polyline
+   * @return the intersections in the order of the segments of this polyline, then of the given one
+   */
+  public Collection<SegmentPairIntersection> intersection(PackedPolyline polyline) {
+    Objects.requireNonNull(polyline);
+    SortedMap<Long, SegmentPairIntersection> intersections = new TreeMap<>();
+    SegmentSweep.intersections(this, polyline, (s, t, x, y) -> {
+      intersections.put(((long) s << 32) | t, new SegmentPairIntersection(s, t, x, y));
+      return true;
+    });
+    return new ArrayList<>(intersections.values());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PackedPolyline that = (PackedPolyline) o;
+    return closed == that.closed &&
+           Arrays.equals(xs, that.xs) &&
+           Arrays.equals(ys, that.ys);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Objects.hash(closed);
+    result = 31 * result + Arrays.hashCode(xs);
+    result = 31 * result + Arrays.hashCode(ys);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PackedPolyline@%s(%d Vectors; %s)", Integer.toHexString(hashCode()), size(), closed ? "closed" : "open");
+  }
+
+  /**
+   * Intersection of a segment of a {@link PackedPolyline} with a line.
+   */
+  public static final class SegmentIntersection {
+    private final int segment;
+    private final double x;
+    private final double y;
+
+    private SegmentIntersection(int segment, double x, double y) {
+      this.segment = segment;
+      this.x = x;
+      this.y = y;
+    }
+
+    /**
+     * Gets the index of the segment. The segment {@code i} starts at vertex {@code i}.
+     *
+     * @return index of the segment
+     */
+    public int getSegment() {
+      return segment;
+    }
+
+    public double getX() {
+      return x;
+    }
+
+    public double getY() {
+      return y;
+    }
+
+    public Vector getIntersection() {
+      return new Vector(x, y);
+    }
+
+    @Override
+    public String toString() {
+      return "SegmentIntersection{" +
+        "segment=" + segment +
+        ", x=" + x +
+        ", y=" + y +
+        '}';
+    }
+  }
+
+  /**
+   * Intersection of a segment of a {@link PackedPolyline} with a segment of another one.
+   */
+  public static final class SegmentPairIntersection {
+    private final int segment1;
+    private final int segment2;
+    private final double x;
+    private final double y;
+
+    private SegmentPairIntersection(int segment1, int segment2, double x, double y) {
+      this.segment1 = segment1;
+      this.segment2 = segment2;
+      this.x = x;
+      this.y = y;
+    }
+
+    /**
+     * Gets the index of the segment of the first polyline. The segment {@code i} starts at vertex {@code i}.
+     *
+     * @return index of the segment
+     */
+    public int getSegment1() {
+      return segment1;
+    }
+
+    /**
+     * Gets the index of the segment of the second polyline.
+     *
+     * @return index of the segment
+     */
+    public int getSegment2() {
+      return segment2;
+    }
+
+    public double getX() {
+      return x;
+    }
+
+    public double getY() {
+      return y;
+    }
+
+    public Vector getIntersection() {
+      return new Vector(x, y);
+    }
+
+    @Override
+    public String toString() {
+      return "SegmentPairIntersection{" +
+        "segment1=" + segment1 +
+        ", segment2=" + segment2 +
+        ", x=" + x +
+        ", y=" + y +
+        '}';
+    }
+  }
+}
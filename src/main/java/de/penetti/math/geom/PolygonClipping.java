@@ -0,0 +1,946 @@
+package de.penetti.math.geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+
+/**
+ * Boolean operations on polygons, after Martinez, Rueda and Feito, "A new algorithm for computing Boolean operations
+ * on polygons" (2009).
+ * <p>
+ * Each operand is a set of rings; a point lies inside an operand, if it is enclosed by an odd number of its rings
+ * (even-odd rule). Thus holes can be given in any orientation. The polylines are regarded as closed.
+ * </p>
+ * <p>
+ * The computation has three phases:
+ * </p>
+ * <ol>
+ * <li>The rings are noded: the segments are grouped into monotone chains, which are swept in x direction as in
+ * {@link SegmentSweep}. Each segment is split at the points where it crosses or touches another segment. As the
+ * rounded crossing points may create new crossings, this is repeated for the segments at these points until no
+ * segment is split. If this does not converge within a few passes, the computation fails with an
+ * {@link IllegalStateException} instead of returning a wrong result.</li>
+ * <li>The noded edges are swept from left to right. The status structure holds the active edges ordered from bottom
+ * to top; as edges only meet at their end points, the order is decided by orientation tests. When an edge is
+ * inserted, the regions above it are derived from the regions above its lower neighbour. So each edge knows, whether
+ * the regions below and above it are inside of the operands and of the result. The edges separating the inside and
+ * the outside of the result are kept.</li>
+ * <li>The kept edges, directed with the result on their left, are linked to rings. At a vertex with several rings
+ * the outgoing edge next clockwise is taken, so the rings touch there but don't cross.</li>
+ * </ol>
+ * <p>
+ * With p pairs of chains whose bounding boxes overlap, noding needs O((n + p) log² n) time per pass plus the bisection
+ * of these pairs, the sweep O((n + k) log n) for k intersections. Typically p is proportional to n + k; in the worst
+ * case, e.g. many long chains sharing their bounding boxes, it is quadratic in n. The result consists of
+ * closed polylines without collinear vertices, outer boundaries counter clockwise and holes clockwise. The rings
+ * don't cross; they can touch each other or themselves at common vertices.
+ * </p>
+ * <p>
+ * Many polygons are united by {@link #unionAll(Collection)} in a cascade: they are ordered along a Hilbert curve
+ * through the centres of their bounding boxes, so neighbouring polygons are united first, and reduced in a balanced
+ * binary tree. Thus the intermediate results stay small and local. Large subtrees are united in parallel on the
+ * common fork-join pool.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class PolygonClipping {
+  /**
+   * Maximale Anzahl der Durchläufe beim Zerlegen der Ringe.
+   */
+  private static final int MAX_NODING_PASSES = 8;
+  /**
+   * Ab dieser Anzahl von Polygonen vereinigt {@link #unionAll(Collection)} die beiden Hälften parallel.
+   */
+  static final int PARALLEL_THRESHOLD = 16;
+  /**
+   * Seitenlänge des Gitters der Hilbert-Kurve für die Sortierung in {@link #unionAll(Collection)}.
+   */
+  private static final int HILBERT_SIZE = 1 << 16;
+
+  /**
+   * The boolean operations.
+   */
+  public enum Operation {
+    UNION {
+      @Override
+      boolean inside(boolean subject, boolean clip) {
+        return subject || clip;
+      }
+    },
+    INTERSECTION {
+      @Override
+      boolean inside(boolean subject, boolean clip) {
+        return subject && clip;
+      }
+    },
+    DIFFERENCE {
+      @Override
+      boolean inside(boolean subject, boolean clip) {
+        return subject && !clip;
+      }
+    },
+    XOR {
+      @Override
+      boolean inside(boolean subject, boolean clip) {
+        return subject != clip;
+      }
+    };
+
+    /**
+     * Tests, if a region is inside the result.
+     *
+     * @param subject the region is inside the subject
+     * @param clip    the region is inside the clip polygon
+     */
+    abstract boolean inside(boolean subject, boolean clip);
+  }
+
+  private PolygonClipping() {
+  }
+
+  public static List<Polyline> union(Polyline subject, Polyline clip) {
+    return compute(List.of(subject), List.of(clip), Operation.UNION);
+  }
+
+  public static List<Polyline> intersection(Polyline subject, Polyline clip) {
+    return compute(List.of(subject), List.of(clip), Operation.INTERSECTION);
+  }
+
+  public static List<Polyline> difference(Polyline subject, Polyline clip) {
+    return compute(List.of(subject), List.of(clip), Operation.DIFFERENCE);
+  }
+
+  public static List<Polyline> xor(Polyline subject, Polyline clip) {
+    return compute(List.of(subject), List.of(clip), Operation.XOR);
+  }
+
+  /**
+   * Computes the boolean operation of two polygons, each given by its rings.
+   *
+   * @param subject   the rings of the subject
+   * @param clip      the rings of the clip polygon
+   * @param operation
+   * @return the rings of the result, outer boundaries counter clockwise, holes clockwise
+   * @throws IllegalStateException if the rings could not be noded
+   */
+  public static List<Polyline> compute(Collection<Polyline> subject, Collection<Polyline> clip, Operation operation) {
+    Objects.requireNonNull(subject);
+    Objects.requireNonNull(clip);
+    Objects.requireNonNull(operation);
+    return compute(subject, clip, operation, false);
+  }
+
+  /**
+   * Computes the region, where the winding number of the rings is positive. Unlike the even-odd rule, this depends
+   * on the orientation of the rings: a counter clockwise ring adds one to the winding number of the points inside,
+   * a clockwise ring subtracts one. This removes the loops of an offset curve, which run in the opposite direction.
+   *
+   * @param rings the rings
+   * @return the rings of the region, outer boundaries counter clockwise, holes clockwise
+   */
+  static List<Polyline> positive(Collection<Polyline> rings) {
+    Objects.requireNonNull(rings);
+    return compute(rings, List.of(), Operation.UNION, true);
+  }
+
+  /**
+   * @param positive the subject contains the points with a positive winding number instead of an odd one
+   */
+  private static List<Polyline> compute(Collection<Polyline> subject, Collection<Polyline> clip, Operation operation,
+                                        boolean positive) {
+    List<double[]> xs = new ArrayList<>();
+    List<double[]> ys = new ArrayList<>();
+    List<Integer> owners = new ArrayList<>();
+    addRings(subject, 0, xs, ys, owners);
+    addRings(clip, 1, xs, ys, owners);
+    Rings rings = new Rings(xs.toArray(new double[0][]), ys.toArray(new double[0][]),
+                            owners.stream().mapToInt(Integer::intValue).toArray());
+    // die gerundeten Schnittpunkte können neue Schnitte erzeugen
+    int pass = 0;
+    while (rings.node()) {
+      if (++pass > MAX_NODING_PASSES) {
+        // der Sweep setzt voraus, dass sich die Kanten nicht kreuzen
+        throw new IllegalStateException("The rings are not noded after " + MAX_NODING_PASSES + " passes.");
+      }
+    }
+    Graph graph = new Graph(rings);
+    graph.sweep(operation, positive);
+    return graph.rings();
+  }
+
+  /**
+   * Unites all polygons.
+   *
+   * @param polygons the polygons, each regarded as closed
+   * @return the rings of the union, outer boundaries counter clockwise, holes clockwise
+   */
+  public static List<Polyline> unionAll(Collection<Polyline> polygons) {
+    Objects.requireNonNull(polygons);
+    Polyline[] sorted = hilbertOrder(polygons.toArray(new Polyline[0]));
+    if (sorted.length == 0) {
+      return new ArrayList<>();
+    }
+    return sorted.length > PARALLEL_THRESHOLD
+           ? new UnionTask(sorted, 0, sorted.length).invoke()
+           : union(sorted, 0, sorted.length);
+  }
+
+  /**
+   * Unites the polygons {@code from..to-1} sequentially.
+   */
+  private static List<Polyline> union(Polyline[] polygons, int from, int to) {
+    if (to - from == 1) {
+      return compute(List.of(polygons[from]), List.of(), Operation.UNION);
+    }
+    if (to - from == 2) {
+      return union(polygons[from], polygons[from + 1]);
+    }
+    int mid = (from + to) >>> 1;
+    return compute(union(polygons, from, mid), union(polygons, mid, to), Operation.UNION);
+  }
+
+  /**
+   * Sorts the polygons along a Hilbert curve through the centres of their bounding boxes.
+   */
+  private static Polyline[] hilbertOrder(Polyline[] polygons) {
+    int n = polygons.length;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < n; i++) {
+      PolylineMetrics metrics = polygons[i].metrics();
+      xs[i] = (metrics.getMinX() + metrics.getMaxX()) / 2;
+      ys[i] = (metrics.getMinY() + metrics.getMaxY()) / 2;
+      minX = Math.min(minX, xs[i]);
+      minY = Math.min(minY, ys[i]);
+      maxX = Math.max(maxX, xs[i]);
+      maxY = Math.max(maxY, ys[i]);
+    }
+    double scale = HILBERT_SIZE - 1;
+    double scaleX = maxX > minX ? scale / (maxX - minX) : 0;
+    double scaleY = maxY > minY ? scale / (maxY - minY) : 0;
+    double[] keys = new double[n];
+    for (int i = 0; i < n; i++) {
+      keys[i] = hilbert((int) ((xs[i] - minX) * scaleX), (int) ((ys[i] - minY) * scaleY));
+    }
+    int[] order = IndexSort.sort(keys, n);
+    Polyline[] sorted = new Polyline[n];
+    for (int i = 0; i < n; i++) {
+      sorted[i] = polygons[order[i]];
+    }
+    return sorted;
+  }
+
+  /**
+   * Gets the position of the cell (x, y) on the Hilbert curve through the grid of {@code HILBERT_SIZE}² cells.
+   */
+  static long hilbert(int x, int y) {
+    long d = 0;
+    for (int s = HILBERT_SIZE >>> 1; s > 0; s >>>= 1) {
+      int rx = (x & s) != 0 ? 1 : 0;
+      int ry = (y & s) != 0 ? 1 : 0;
+      d += (long) s * s * ((3 * rx) ^ ry);
+      // Quadranten drehen, damit die Kurve zusammenhängt
+      if (ry == 0) {
+        if (rx == 1) {
+          x = HILBERT_SIZE - 1 - x;
+          y = HILBERT_SIZE - 1 - y;
+        }
+        int t = x;
+        x = y;
+        y = t;
+      }
+    }
+    return d;
+  }
+
+  private static final class UnionTask extends RecursiveTask<List<Polyline>> {
+    private static final long serialVersionUID = 4708912733140520553L;
+    private final Polyline[] polygons;
+    private final int from;
+    private final int to;
+
+    private UnionTask(Polyline[] polygons, int from, int to) {
+      this.polygons = polygons;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected List<Polyline> compute() {
+      if (to - from <= PARALLEL_THRESHOLD) {
+        return union(polygons, from, to);
+      }
+      int mid = (from + to) >>> 1;
+      UnionTask left = new UnionTask(polygons, from, mid);
+      left.fork();
+      List<Polyline> right = new UnionTask(polygons, mid, to).compute();
+      return PolygonClipping.compute(left.join(), right, Operation.UNION);
+    }
+  }
+
+  private static void addRings(Collection<Polyline> polylines, int owner, List<double[]> xs, List<double[]> ys,
+                               List<Integer> owners) {
+    for (Polyline polyline : polylines) {
+      PackedPolyline packed = PackedPolyline.fromPolyline(polyline);
+      // aufeinander folgende gleiche Punkte entfernen; + 0.0 macht aus -0.0 den Wert 0.0
+      int n = packed.size();
+      double[] x = new double[n];
+      double[] y = new double[n];
+      int size = 0;
+      for (int i = 0; i < n; i++) {
+        double px = packed.xs[i] + .0;
+        double py = packed.ys[i] + .0;
+        if (size == 0 || px != x[size - 1] || py != y[size - 1]) {
+          x[size] = px;
+          y[size++] = py;
+        }
+      }
+      while (size > 1 && x[size - 1] == x[0] && y[size - 1] == y[0]) {
+        size--;
+      }
+      if (size > 1) {
+        xs.add(Arrays.copyOf(x, size));
+        ys.add(Arrays.copyOf(y, size));
+        owners.add(owner);
+      }
+    }
+  }
+
+  /**
+   * The rings of both operands; segment i of a ring leads from its vertex i to its vertex i + 1 (cyclic).
+   */
+  private static final class Rings {
+    private final double[][] xs;
+    private final double[][] ys;
+    private final int[] owners;
+    /**
+     * Die Strecken an gerundeten Schnittpunkten des letzten Durchlaufs; nur sie können sich neu schneiden, da alle
+     * anderen Strecken in den ursprünglichen Strecken enthalten sind. {@code null} im ersten Durchlauf.
+     */
+    private boolean[][] dirty;
+
+    // Teilungspunkte eines Durchlaufs
+    private int splitCount;
+    private boolean[] splitRounded = new boolean[16];
+    private int[] splitRing = new int[16];
+    private int[] splitSegment = new int[16];
+    private double[] splitX = new double[16];
+    private double[] splitY = new double[16];
+
+    private Rings(double[][] xs, double[][] ys, int[] owners) {
+      this.xs = xs;
+      this.ys = ys;
+      this.owners = owners;
+    }
+
+    /**
+     * Splits the segments at all points where they cross or touch another segment.
+     *
+     * @return {@code true}, if any segment was split
+     */
+    private boolean node() {
+      splitCount = 0;
+      Chains chains = new Chains(this, dirty);
+      int[] order = IndexSort.sort(chains.minX, chains.size);
+      // nur Paare mit mindestens einer Kette an gerundeten Schnittpunkten können neue Schnitte haben; im ersten
+      // Durchlauf sind alle Ketten neu
+      ActiveBoxes dirtyChains = new ActiveBoxes(chains.minY, chains.maxY, chains.maxX, chains.size);
+      ActiveBoxes cleanChains = dirty == null ? null : new ActiveBoxes(dirtyChains);
+      for (int c : order) {
+        IntPredicate visitor = a -> {
+          overlap(chains.ring[a], chains.start[a], chains.end[a], chains.ring[c], chains.start[c], chains.end[c]);
+          return true;
+        };
+        dirtyChains.query(c, chains.minX[c], visitor);
+        if (!chains.dirty[c]) {
+          cleanChains.insert(c);
+          continue;
+        }
+        if (cleanChains != null) {
+          cleanChains.query(c, chains.minX[c], visitor);
+        }
+        dirtyChains.insert(c);
+      }
+      if (splitCount == 0) {
+        return false;
+      }
+      split();
+      return true;
+    }
+
+    /**
+     * Examines the segments {@code s0..s1} of ring r and {@code t0..t1} of ring q, both parts of monotone chains.
+     */
+    private void overlap(int r, int s0, int s1, int q, int t0, int t1) {
+      if (!overlaps(r, s0, s1, q, t0, t1)) {
+        return;
+      }
+      if (s0 == s1 && t0 == t1) {
+        intersect(r, s0, q, t0);
+        return;
+      }
+      int sMid = (s0 + s1) >>> 1;
+      int tMid = (t0 + t1) >>> 1;
+      if (s0 < s1) {
+        if (t0 < t1) {
+          overlap(r, s0, sMid, q, t0, tMid);
+          overlap(r, s0, sMid, q, tMid + 1, t1);
+          overlap(r, sMid + 1, s1, q, t0, tMid);
+          overlap(r, sMid + 1, s1, q, tMid + 1, t1);
+        }
+        else {
+          overlap(r, s0, sMid, q, t0, t1);
+          overlap(r, sMid + 1, s1, q, t0, t1);
+        }
+      }
+      else {
+        overlap(r, s0, s1, q, t0, tMid);
+        overlap(r, s0, s1, q, tMid + 1, t1);
+      }
+    }
+
+    private boolean overlaps(int r, int s0, int s1, int q, int t0, int t1) {
+      int sEnd = next(r, s1);
+      int tEnd = next(q, t1);
+      double[] x0 = xs[r];
+      double[] y0 = ys[r];
+      double[] x1 = xs[q];
+      double[] y1 = ys[q];
+      return Math.max(x0[s0], x0[sEnd]) >= Math.min(x1[t0], x1[tEnd]) &&
+             Math.min(x0[s0], x0[sEnd]) <= Math.max(x1[t0], x1[tEnd]) &&
+             Math.max(y0[s0], y0[sEnd]) >= Math.min(y1[t0], y1[tEnd]) &&
+             Math.min(y0[s0], y0[sEnd]) <= Math.max(y1[t0], y1[tEnd]);
+    }
+
+    /**
+     * Records the points where segment s of ring r and segment t of ring q must be split.
+     */
+    private void intersect(int r, int s, int q, int t) {
+      if (dirty != null && !dirty[r][s] && !dirty[q][t]) {
+        return;
+      }
+      int sEnd = next(r, s);
+      int tEnd = next(q, t);
+      double p0x = xs[r][s];
+      double p0y = ys[r][s];
+      double p1x = xs[r][sEnd];
+      double p1y = ys[r][sEnd];
+      double q0x = xs[q][t];
+      double q0y = ys[q][t];
+      double q1x = xs[q][tEnd];
+      double q1y = ys[q][tEnd];
+      int o1 = Predicates.orientation(p0x, p0y, p1x, p1y, q0x, q0y);
+      int o2 = Predicates.orientation(p0x, p0y, p1x, p1y, q1x, q1y);
+      int o3 = Predicates.orientation(q0x, q0y, q1x, q1y, p0x, p0y);
+      int o4 = Predicates.orientation(q0x, q0y, q1x, q1y, p1x, p1y);
+      if (o1 * o2 < 0 && o3 * o4 < 0) {
+        // echter Schnitt: beide Strecken am selben Punkt teilen
+        double[] point = crossing(p0x, p0y, p1x, p1y, q0x, q0y, q1x, q1y);
+        addSplit(r, s, point[0], point[1], true);
+        addSplit(q, t, point[0], point[1], true);
+        return;
+      }
+      // Berührungen und Überlappungen: an den Endpunkten der anderen Strecke teilen
+      if (o1 == 0 && within(p0x, p0y, p1x, p1y, q0x, q0y)) {
+        addSplit(r, s, q0x, q0y, false);
+      }
+      if (o2 == 0 && within(p0x, p0y, p1x, p1y, q1x, q1y)) {
+        addSplit(r, s, q1x, q1y, false);
+      }
+      if (o3 == 0 && within(q0x, q0y, q1x, q1y, p0x, p0y)) {
+        addSplit(q, t, p0x, p0y, false);
+      }
+      if (o4 == 0 && within(q0x, q0y, q1x, q1y, p1x, p1y)) {
+        addSplit(q, t, p1x, p1y, false);
+      }
+    }
+
+    /**
+     * Computes the crossing point of two segments. The result does not depend on the order of the segments and of
+     * their end points, so equal segments are split at equal points.
+     */
+    private static double[] crossing(double p0x, double p0y, double p1x, double p1y,
+                                     double q0x, double q0y, double q1x, double q1y) {
+      if (less(p1x, p1y, p0x, p0y)) {
+        return crossing(p1x, p1y, p0x, p0y, q0x, q0y, q1x, q1y);
+      }
+      if (less(q1x, q1y, q0x, q0y)) {
+        return crossing(p0x, p0y, p1x, p1y, q1x, q1y, q0x, q0y);
+      }
+      if (less(q0x, q0y, p0x, p0y) || (q0x == p0x && q0y == p0y && less(q1x, q1y, p1x, p1y))) {
+        return crossing(q0x, q0y, q1x, q1y, p0x, p0y, p1x, p1y);
+      }
+      double a = Predicates.orient2d(q0x, q0y, q1x, q1y, p0x, p0y);
+      double b = Predicates.orient2d(q0x, q0y, q1x, q1y, p1x, p1y);
+      double u = a / (a - b);
+      double x = p0x + u * (p1x - p0x);
+      double y = p0y + u * (p1y - p0y);
+      return new double[]{
+        clamp(x, Math.max(Math.min(p0x, p1x), Math.min(q0x, q1x)), Math.min(Math.max(p0x, p1x), Math.max(q0x, q1x))),
+        clamp(y, Math.max(Math.min(p0y, p1y), Math.min(q0y, q1y)), Math.min(Math.max(p0y, p1y), Math.max(q0y, q1y)))
+      };
+    }
+
+    private static boolean less(double ax, double ay, double bx, double by) {
+      return ax < bx || (ax == bx && ay < by);
+    }
+
+    private static double clamp(double v, double min, double max) {
+      return v < min ? min : v > max ? max : v;
+    }
+
+    /**
+     * Tests, if the point (x, y) on the line through a and b lies strictly between a and b.
+     */
+    private static boolean within(double ax, double ay, double bx, double by, double x, double y) {
+      if ((x == ax && y == ay) || (x == bx && y == by)) {
+        return false;
+      }
+      return Math.abs(bx - ax) >= Math.abs(by - ay)
+           ? Math.min(ax, bx) < x && x < Math.max(ax, bx)
+           : Math.min(ay, by) < y && y < Math.max(ay, by);
+    }
+
+    private void addSplit(int ring, int segment, double x, double y, boolean rounded) {
+      if (splitCount == splitRing.length) {
+        int capacity = splitCount * 2;
+        splitRounded = Arrays.copyOf(splitRounded, capacity);
+        splitRing = Arrays.copyOf(splitRing, capacity);
+        splitSegment = Arrays.copyOf(splitSegment, capacity);
+        splitX = Arrays.copyOf(splitX, capacity);
+        splitY = Arrays.copyOf(splitY, capacity);
+      }
+      splitRounded[splitCount] = rounded;
+      splitRing[splitCount] = ring;
+      splitSegment[splitCount] = segment;
+      splitX[splitCount] = x;
+      splitY[splitCount++] = y;
+    }
+
+    /**
+     * Inserts the split points into the rings, ordered along their segments.
+     */
+    private void split() {
+      double[] keys = new double[splitCount];
+      for (int i = 0; i < splitCount; i++) {
+        int r = splitRing[i];
+        int s = splitSegment[i];
+        int e = next(r, s);
+        double dx = xs[r][e] - xs[r][s];
+        double dy = ys[r][e] - ys[r][s];
+        keys[i] = (splitX[i] - xs[r][s]) * dx + (splitY[i] - ys[r][s]) * dy;
+      }
+      // nach der Lage auf der Strecke, dann stabil nach Ring und Strecke
+      int[] order = IndexSort.sort(keys, splitCount);
+      for (int i = 0; i < splitCount; i++) {
+        keys[i] = (double) ((long) splitRing[i] << 32 | splitSegment[i]);
+      }
+      IndexSort.sort(order, 0, splitCount, keys);
+
+      dirty = new boolean[xs.length][];
+      int k = 0;
+      for (int r = 0; r < xs.length; r++) {
+        int n = xs[r].length;
+        if (k == splitCount || splitRing[order[k]] != r) {
+          dirty[r] = new boolean[n];
+          continue;
+        }
+        int last = k;
+        while (last < splitCount && splitRing[order[last]] == r) {
+          last++;
+        }
+        double[] x = new double[n + last - k];
+        double[] y = new double[n + last - k];
+        boolean[] rounded = new boolean[n + last - k];
+        int size = 0;
+        for (int s = 0; s < n; s++) {
+          x[size] = xs[r][s];
+          y[size++] = ys[r][s];
+          int e = next(r, s);
+          while (k < splitCount && splitRing[order[k]] == r && splitSegment[order[k]] == s) {
+            int i = order[k++];
+            boolean duplicate = (splitX[i] == x[size - 1] && splitY[i] == y[size - 1]) ||
+                                (splitX[i] == xs[r][e] && splitY[i] == ys[r][e]);
+            if (!duplicate) {
+              rounded[size] = splitRounded[i];
+              x[size] = splitX[i];
+              y[size++] = splitY[i];
+            }
+          }
+        }
+        xs[r] = Arrays.copyOf(x, size);
+        ys[r] = Arrays.copyOf(y, size);
+        dirty[r] = new boolean[size];
+        for (int s = 0; s < size; s++) {
+          dirty[r][s] = rounded[s] || rounded[s + 1 == size ? 0 : s + 1];
+        }
+      }
+    }
+
+    private int next(int ring, int vertex) {
+      return vertex + 1 == xs[ring].length ? 0 : vertex + 1;
+    }
+  }
+
+  /**
+   * The monotone chains of the rings. A chain covers the segments {@code start..end} (inclusive) of its ring.
+   */
+  private static final class Chains {
+    private int size;
+    private int[] ring = new int[16];
+    private int[] start = new int[16];
+    private int[] end = new int[16];
+    private double[] minX = new double[16];
+    private double[] maxX = new double[16];
+    private double[] minY = new double[16];
+    private double[] maxY = new double[16];
+    private boolean[] dirty = new boolean[16];
+
+    private Chains(Rings rings, boolean[][] dirty) {
+      for (int r = 0; r < rings.xs.length; r++) {
+        double[] xs = rings.xs[r];
+        double[] ys = rings.ys[r];
+        int n = xs.length;
+        int first = 0;
+        int quadrant = quadrant(xs, ys, 0);
+        for (int s = 1; s < n; s++) {
+          int q = quadrant(xs, ys, s);
+          if (q != quadrant) {
+            add(r, xs, ys, first, s - 1, dirty);
+            first = s;
+            quadrant = q;
+          }
+        }
+        add(r, xs, ys, first, n - 1, dirty);
+      }
+    }
+
+    private static int quadrant(double[] xs, double[] ys, int segment) {
+      int next = segment + 1 == xs.length ? 0 : segment + 1;
+      double dx = xs[next] - xs[segment];
+      double dy = ys[next] - ys[segment];
+      if (dx >= .0) {
+        return dy >= .0 ? 0 : 3;
+      }
+      return dy >= .0 ? 1 : 2;
+    }
+
+    private void add(int r, double[] xs, double[] ys, int first, int last, boolean[][] dirty) {
+      if (size == ring.length) {
+        int capacity = size * 2;
+        this.dirty = Arrays.copyOf(this.dirty, capacity);
+        ring = Arrays.copyOf(ring, capacity);
+        start = Arrays.copyOf(start, capacity);
+        end = Arrays.copyOf(end, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+      }
+      int lastVertex = last + 1 == xs.length ? 0 : last + 1;
+      ring[size] = r;
+      start[size] = first;
+      end[size] = last;
+      minX[size] = Math.min(xs[first], xs[lastVertex]);
+      maxX[size] = Math.max(xs[first], xs[lastVertex]);
+      minY[size] = Math.min(ys[first], ys[lastVertex]);
+      maxY[size] = Math.max(ys[first], ys[lastVertex]);
+      boolean chainDirty = dirty == null;
+      for (int s = first; s <= last && !chainDirty; s++) {
+        chainDirty = dirty[r][s];
+      }
+      this.dirty[size] = chainDirty;
+      size++;
+    }
+  }
+
+  /**
+   * The planar graph of the noded edges.
+   */
+  private static final class Graph {
+    private final double[] xs;          // Knoten, lexikographisch nach x und y sortiert
+    private final double[] ys;
+    private int edgeCount;
+    private int[] left;                 // kleinerer Knoten einer Kante
+    private int[] right;
+    private int[] parity;               // Bit 0: Anzahl der Kanten des Subjekts ungerade, Bit 1: der Clip-Polygone
+    private int[] winding;              // Änderung der Umlaufzahl des Subjekts von unten nach oben
+    private boolean[] aboveSubject;     // das Gebiet über der Kante liegt im Subjekt
+    private boolean[] aboveClip;
+    private int[] aboveWinding;
+    private int resultCount;
+    private int[] resultFrom;           // Kanten des Ergebnisses, das Ergebnis liegt links
+    private int[] resultTo;
+
+    private Graph(Rings rings) {
+      // Knoten lexikographisch sortieren und numerieren
+      int m = 0;
+      for (double[] x : rings.xs) {
+        m += x.length;
+      }
+      double[] allX = new double[m];
+      double[] allY = new double[m];
+      for (int r = 0, offset = 0; r < rings.xs.length; offset += rings.xs[r++].length) {
+        System.arraycopy(rings.xs[r], 0, allX, offset, rings.xs[r].length);
+        System.arraycopy(rings.ys[r], 0, allY, offset, rings.ys[r].length);
+      }
+      int[] order = IndexSort.sort(allY, m);
+      IndexSort.sort(order, 0, m, allX);
+      int[] ids = new int[m];
+      double[] x = new double[m];
+      double[] y = new double[m];
+      int n = 0;
+      for (int i = 0; i < m; i++) {
+        int p = order[i];
+        if (n == 0 || allX[p] != x[n - 1] || allY[p] != y[n - 1]) {
+          x[n] = allX[p];
+          y[n++] = allY[p];
+        }
+        ids[p] = n - 1;
+      }
+      xs = Arrays.copyOf(x, n);
+      ys = Arrays.copyOf(y, n);
+
+      // Kanten zusammenfassen, die Parität je Operand und die Umlaufzahl bestimmen die Lage der Gebiete
+      long[] keys = new long[m];
+      int k = 0;
+      for (int r = 0, offset = 0; r < rings.xs.length; offset += rings.xs[r++].length) {
+        int size = rings.xs[r].length;
+        for (int i = 0; i < size; i++) {
+          int a = ids[offset + i];
+          int b = ids[offset + (i + 1 == size ? 0 : i + 1)];
+          if (a != b) {
+            // Bit 1: die Kante läuft von rechts nach links
+            keys[k++] = (long) Math.min(a, b) << 32 | (long) Math.max(a, b) << 2 | (a < b ? 0 : 2) | rings.owners[r];
+          }
+        }
+      }
+      Arrays.sort(keys, 0, k);
+      left = new int[k];
+      right = new int[k];
+      parity = new int[k];
+      winding = new int[k];
+      for (int i = 0; i < k; ) {
+        long edge = keys[i] >>> 2;
+        int bits = 0;
+        int delta = 0;
+        for (; i < k && keys[i] >>> 2 == edge; i++) {
+          bits ^= 1 << (keys[i] & 1);
+          if ((keys[i] & 1) == 0) {
+            // links der Kante liegt das Innere des Rings
+            delta += (keys[i] & 2) == 0 ? 1 : -1;
+          }
+        }
+        // Kanten gerader Anzahl ohne Änderung der Umlaufzahl trennen keine Gebiete
+        if (bits != 0 || delta != 0) {
+          left[edgeCount] = (int) (edge >>> 30);
+          right[edgeCount] = (int) (edge & 0x3FFFFFFF);
+          parity[edgeCount] = bits;
+          winding[edgeCount++] = delta;
+        }
+      }
+    }
+
+    /**
+     * Sweeps the edges from left to right and keeps the edges of the result.
+     *
+     * @param positive the subject contains the points with a positive winding number
+     */
+    private void sweep(Operation operation, boolean positive) {
+      // Kanten nach linkem und rechtem Knoten
+      int n = xs.length;
+      int[] leftStart = new int[n + 1];
+      int[] rightStart = new int[n + 1];
+      for (int e = 0; e < edgeCount; e++) {
+        leftStart[left[e] + 1]++;
+        rightStart[right[e] + 1]++;
+      }
+      for (int v = 0; v < n; v++) {
+        leftStart[v + 1] += leftStart[v];
+        rightStart[v + 1] += rightStart[v];
+      }
+      int[] byLeft = new int[edgeCount];
+      int[] byRight = new int[edgeCount];
+      int[] leftFill = Arrays.copyOf(leftStart, n);
+      int[] rightFill = Arrays.copyOf(rightStart, n);
+      for (int e = 0; e < edgeCount; e++) {
+        byLeft[leftFill[left[e]]++] = e;
+        byRight[rightFill[right[e]]++] = e;
+      }
+
+      aboveSubject = new boolean[edgeCount];
+      aboveClip = new boolean[edgeCount];
+      aboveWinding = new int[edgeCount];
+      resultFrom = new int[edgeCount];
+      resultTo = new int[edgeCount];
+      TreeSet<Integer> status = new TreeSet<>(this::compare);
+      Integer[] starting = new Integer[0];
+      for (int v = 0; v < n; v++) {
+        for (int i = rightStart[v]; i < rightStart[v + 1]; i++) {
+          status.remove(byRight[i]);
+        }
+        int count = leftStart[v + 1] - leftStart[v];
+        if (count == 0) {
+          continue;
+        }
+        if (starting.length < count) {
+          starting = new Integer[Math.max(count, 2 * starting.length)];
+        }
+        for (int i = 0; i < count; i++) {
+          starting[i] = byLeft[leftStart[v] + i];
+        }
+        Arrays.sort(starting, 0, count, this::compare);
+        for (int i = 0; i < count; i++) {
+          status.add(starting[i]);
+        }
+        // von unten nach oben: das Gebiet unter einer Kante ist das Gebiet über ihrem unteren Nachbarn
+        Integer below = status.lower(starting[0]);
+        boolean subject = below != null && aboveSubject[below];
+        boolean clip = below != null && aboveClip[below];
+        int wind = below != null ? aboveWinding[below] : 0;
+        for (int i = 0; i < count; i++) {
+          int e = starting[i];
+          boolean inBelow = operation.inside(positive ? wind > 0 : subject, clip);
+          subject ^= (parity[e] & 1) != 0;
+          clip ^= (parity[e] & 2) != 0;
+          wind += winding[e];
+          aboveSubject[e] = subject;
+          aboveClip[e] = clip;
+          aboveWinding[e] = wind;
+          boolean inAbove = operation.inside(positive ? wind > 0 : subject, clip);
+          if (inBelow != inAbove) {
+            // über der Kante liegt links von (left, right)
+            resultFrom[resultCount] = inAbove ? left[e] : right[e];
+            resultTo[resultCount++] = inAbove ? right[e] : left[e];
+          }
+        }
+      }
+    }
+
+    /**
+     * Compares two active edges by their vertical order at the sweep line. Active edges don't cross.
+     */
+    private int compare(int a, int b) {
+      if (a == b) {
+        return 0;
+      }
+      int la = left[a];
+      int lb = left[b];
+      if (la == lb) {
+        int o = orientation(la, right[a], right[b]);
+        return o != 0 ? -o : Integer.compare(a, b);
+      }
+      if (la < lb) {
+        // a ist älter: liegt der Anfang von b über a?
+        int o = orientation(la, right[a], lb);
+        if (o == 0) {
+          o = orientation(la, right[a], right[b]);
+        }
+        return o != 0 ? -o : Integer.compare(a, b);
+      }
+      int o = orientation(lb, right[b], la);
+      if (o == 0) {
+        o = orientation(lb, right[b], right[a]);
+      }
+      return o != 0 ? o : Integer.compare(a, b);
+    }
+
+    private int orientation(int a, int b, int c) {
+      return Predicates.orientation(xs[a], ys[a], xs[b], ys[b], xs[c], ys[c]);
+    }
+
+    /**
+     * Links the edges of the result to rings.
+     */
+    private List<Polyline> rings() {
+      int n = xs.length;
+      int[] outStart = new int[n + 1];
+      for (int e = 0; e < resultCount; e++) {
+        outStart[resultFrom[e] + 1]++;
+      }
+      for (int v = 0; v < n; v++) {
+        outStart[v + 1] += outStart[v];
+      }
+      int[] out = new int[resultCount];
+      int[] fill = Arrays.copyOf(outStart, n);
+      for (int e = 0; e < resultCount; e++) {
+        out[fill[resultFrom[e]]++] = e;
+      }
+      double[] angles = new double[resultCount];
+      for (int e = 0; e < resultCount; e++) {
+        angles[e] = Math.atan2(ys[resultTo[e]] - ys[resultFrom[e]], xs[resultTo[e]] - xs[resultFrom[e]]);
+      }
+
+      boolean[] used = new boolean[resultCount];
+      List<Polyline> rings = new ArrayList<>();
+      int[] ring = new int[16];
+      for (int first = 0; first < resultCount; first++) {
+        if (used[first]) {
+          continue;
+        }
+        int size = 0;
+        int e = first;
+        do {
+          used[e] = true;
+          if (size == ring.length) {
+            ring = Arrays.copyOf(ring, size * 2);
+          }
+          ring[size++] = resultFrom[e];
+          // die nächste ausgehende Kante im Uhrzeigersinn nach der Rückrichtung
+          int v = resultTo[e];
+          double back = angles[e] + Math.PI;
+          int next = -1;
+          double bestTurn = Double.POSITIVE_INFINITY;
+          for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+            int candidate = out[i];
+            if (used[candidate] && candidate != first) {
+              continue;
+            }
+            double turn = back - angles[candidate];
+            turn -= 2 * Math.PI * Math.floor(turn / (2 * Math.PI));
+            if (turn == 0) {
+              turn = 2 * Math.PI;
+            }
+            if (turn < bestTurn) {
+              bestTurn = turn;
+              next = candidate;
+            }
+          }
+          e = next;
+        } while (e != first && e != -1);
+        Polyline polyline = polyline(ring, size, outStart);
+        if (polyline != null) {
+          rings.add(polyline);
+        }
+      }
+      return rings;
+    }
+
+    /**
+     * Creates the closed polyline of the ring. Collinear vertices are omitted, unless other rings touch them.
+     *
+     * @return the polyline or {@code null}, if less than three vertices remain
+     */
+    private Polyline polyline(int[] ring, int size, int[] outStart) {
+      List<Vector> vectors = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        int v = ring[i];
+        boolean shared = outStart[v + 1] - outStart[v] > 1;
+        if (shared || orientation(ring[i == 0 ? size - 1 : i - 1], v, ring[i + 1 == size ? 0 : i + 1]) != 0) {
+          vectors.add(Vector.create(xs[v], ys[v]));
+        }
+      }
+      return vectors.size() < 3 ? null : new Polyline(true, vectors);
+    }
+  }
+}
@@ -2,21 +2,45 @@ package de.penetti.math.geom;
 
 import java.io.Serializable;
 import java.util.*;
-import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class is immutable
+ * <p>
+ * Derived properties (see {@link #metrics()}, {@link #cumulativeLengths()}, {@link #vertexIndex()} and
+ * {@link #segmentIndex()}) are computed lazily, at most once per instance, and cached thread safe. Callers with
+ * tight memory can opt out with {@link #uncached()}.
+ * </p>
  *
  * @author Enrico
  */
 public class Polyline implements Serializable {
   private static final long serialVersionUID = 5085818176600234063L;
+  /**
+   * Ab dieser Anzahl von Punkten berechnet {@link #distances(double[], double[], double[])} die Abstände über einen
+   * {@link SegmentIndex}.
+   */
+  static final int DISTANCE_INDEX_THRESHOLD = 64;
+  /**
+   * Ab dieser Anzahl von Punkten suchen {@link #containsVector(Vector)} und {@link #indexOf(Vector)} über den
+   * {@link VertexIndex}, sonst linear.
+   */
+  static final int VERTEX_INDEX_THRESHOLD = 32;
 
   // TODO: statt nur Points evtl. Points und bulges und closed?
   // TODO: evtl. auch QuadCurve und CubicCurve
-  private final List<Vector> vectors = new ArrayList<>();
+  private final List<Vector> vectors; // wird nie verändert und kann daher zwischen Polylines geteilt werden
   private final boolean closed;
+  private final boolean uncached;
+  // schützt nur die Zwischenspeicher dieser Polyline; Kopien und Sichten teilen die Punkte, aber nicht die Sperre
+  private final transient Object lock = new Object();
+  private transient volatile PolylineMetrics metrics;
+  private transient volatile double[] cumulativeLengths;
+  private transient volatile VertexIndex vertexIndex;
+  private transient volatile SegmentIndex segmentIndex;
 
   Polyline(List<Vector> vectors) {
     this(false, vectors);
@@ -28,8 +52,9 @@ public class Polyline implements Serializable {
     if (vectors.size() < 2) {
       throw new IllegalArgumentException("A polyline requires a minimum of two points.");
     }
-    vectors.forEach(p -> this.vectors.add(new Vector(p)));
+    this.vectors = new ArrayList<>(vectors);
     this.closed = closed;
+    this.uncached = false;
   }
 
   Polyline(Vector p1, Vector p2, Vector... px) {
@@ -41,15 +66,66 @@ public class Polyline implements Serializable {
     Objects.requireNonNull(p2);
     Objects.requireNonNull(px);
     Arrays.stream(px).forEach(p -> Objects.requireNonNull(p));
-    vectors.add(new Vector(p1));
-    vectors.add(new Vector(p2));
-    Arrays.stream(px).forEach(p -> vectors.add(new Vector(p)));
+    vectors = new ArrayList<>(px.length + 2);
+    vectors.add(p1);
+    vectors.add(p2);
+    vectors.addAll(Arrays.asList(px));
     this.closed = closed;
+    this.uncached = false;
   }
 
   Polyline(boolean closed, Polyline polyline) {
-    vectors.addAll(new ArrayList<>(polyline.vectors));
+    this(polyline.vectors, closed, polyline.uncached);
+  }
+
+  /**
+   * Creates a polyline which shares the given list. The list must not be modified afterwards.
+   */
+  private Polyline(List<Vector> vectors, boolean closed, boolean uncached) {
+    this.vectors = vectors;
     this.closed = closed;
+    this.uncached = uncached;
+  }
+
+  /**
+   * Erzeugt eine Polyline, die die gegebene, nicht leere Liste ohne Kopie und ohne Prüfung verwendet. Die Liste darf
+   * danach nicht mehr verändert werden.
+   */
+  static Polyline wrap(List<Vector> vectors, boolean closed, boolean uncached) {
+    return new Polyline(vectors, closed, uncached);
+  }
+
+  /**
+   * Verbindet die Punkte der gegebenen Polylines in ihrer Reihenfolge zu einer Polyline. Die Punkte werden nicht
+   * kopiert, sondern gemeinsam verwendet, so dass der Aufwand nur von der Anzahl der Polylines abhängt. Gleiche
+   * Punkte am Übergang zweier Polylines bleiben erhalten.
+   *
+   * @param closed
+   * @param polylines
+   * @return
+   */
+  public static Polyline concat(boolean closed, Polyline... polylines) {
+    Objects.requireNonNull(polylines);
+    List<List<Vector>> lists = new ArrayList<>(polylines.length);
+    for (Polyline polyline : polylines) {
+      lists.add(polyline.vectors);
+    }
+    List<Vector> vectors = VectorLists.concat(lists);
+    if (vectors.size() < 2) {
+      throw new IllegalArgumentException("A polyline requires a minimum of two points.");
+    }
+    return new Polyline(vectors, closed, false);
+  }
+
+  /**
+   * Vereinigt alle Polygone. Benachbarte Polygone werden zuerst vereinigt, große Mengen parallel.
+   *
+   * @param polygons die Polygone, jeweils als geschlossen betrachtet
+   * @return die Ringe der Vereinigung, äußere Ränder gegen den Uhrzeigersinn, Löcher im Uhrzeigersinn
+   * @see PolygonClipping#unionAll(Collection)
+   */
+  public static List<Polyline> unionAll(Collection<Polyline> polygons) {
+    return PolygonClipping.unionAll(polygons);
   }
 
   public static Builder.MoveToOrDirection startAt(Vector v) {
@@ -57,20 +133,26 @@ public class Polyline implements Serializable {
   }
 
   /**
-   * Entfernt überflüssige Ecken der Polyline.
-   * Eine Ecke ist dann überflüssig, wenn der Winkel der zugehörigen Kanten kleiner als {@code tolerance} ist.
+   * Entfernt überflüssige Ecken der Polyline nach Douglas-Peucker.
+   * Eine Ecke ist dann überflüssig, wenn ihr Abstand zur vereinfachten Polyline nicht größer als {@code tolerance}
+   * ist.
    *
-   * @param tolerance [rad]
+   * @param tolerance maximaler Abstand einer entfernten Ecke
    * @return
+   * @see DouglasPeucker
    */
-  public static Polyline eleminateNonCorners(double tolerance) {
-    return null; // TODO
+  public Polyline eleminateNonCorners(double tolerance) {
+    return DouglasPeucker.simplify(this, tolerance);
   }
 
   public int size() {
     return vectors.size();
   }
 
+  public boolean isClosed() {
+    return closed;
+  }
+
   public Stream<Vector> stream() {
     return vectors.stream();
   }
@@ -90,7 +172,7 @@ public class Polyline implements Serializable {
     int n = size();
     for (int i = 0; i < n; i++) {
       Vector a = vectors.get(i);
-      Vector b = vectors.get((i + 1) % n);
+      Vector b = vectors.get(i + 1 == n ? 0 : i + 1);
       t = t * KreuzProdTest(v, a, b);
       if (t == 0) {
         break; // v liegt direkt auf einer Kante bzw. einem Eckpunkt des Polygons
@@ -109,19 +191,135 @@ public class Polyline implements Serializable {
         v.getY() > b.getY()) {
       return 1;
     }
-    double delta = (a.getX() - v.getX()) * (b.getY() - v.getY())
-                 - (a.getY() - v.getY()) * (b.getX() - v.getX());
-    if (delta > .0) {
-      return 1;
+    return Predicates.orientation(a, b, v);
+  }
+
+  /**
+   * Bereitet die Polyline für viele Punkt-in-Polygon-Tests vor.
+   *
+   * @return
+   * @see PreparedPolygon
+   */
+  public PreparedPolygon prepare() {
+    return PreparedPolygon.of(this);
+  }
+
+  public boolean containsVector(Vector v) {
+    return indexOf(v) >= 0;
+  }
+
+  /**
+   * Ermittelt den Index des ersten Punktes, der gleich dem gegebenen Punkt ist. Große Polylines suchen über den
+   * {@link #vertexIndex() Punkt-Index}.
+   *
+   * @param v
+   * @return der Index oder -1, wenn die Polyline den Punkt nicht enthält
+   */
+  public int indexOf(Vector v) {
+    if (size() >= VERTEX_INDEX_THRESHOLD && !uncached) {
+      return vertexIndex().indexOf(v);
+    }
+    return vectors.indexOf(v);
+  }
+
+  /**
+   * Prüft, ob ein Punkt mehrfach in der Polyline vorkommt.
+   *
+   * @return
+   * @see VertexIndex#duplicates()
+   */
+  public boolean hasDuplicateVertices() {
+    return vertexIndex().hasDuplicates();
+  }
+
+  /**
+   * Liefert den Hash-Index über die Punkte der Polyline. Er wird beim ersten Aufruf erzeugt und zwischengespeichert,
+   * außer bei {@link #uncached()}.
+   *
+   * @return
+   */
+  public VertexIndex vertexIndex() {
+    if (uncached) {
+      return VertexIndex.of(this);
     }
-    else if (delta < .0) {
-      return -1;
+    VertexIndex index = vertexIndex;
+    if (index == null) {
+      synchronized (lock) {
+        index = vertexIndex;
+        if (index == null) {
+          vertexIndex = index = VertexIndex.of(this);
+        }
+      }
     }
-    return 0;
+    return index;
   }
 
-  public boolean containsVector(Vector v) {
-    return vectors.parallelStream().anyMatch(p -> p.equals(v));
+  /**
+   * Ermittelt den Punkt der Polyline, der dem gegebenen Punkt am nächsten ist. Die Strecken werden linear
+   * durchsucht; für viele Abfragen an eine große Polyline ist {@link SegmentIndex#closestPoint(Vector)} schneller.
+   *
+   * @param v
+   * @return der nächste Punkt
+   */
+  public Vector closestPoint(Vector v) {
+    int s = nearestSegment(v.getX(), v.getY());
+    return segment(s).closestPoint(v);
+  }
+
+  /**
+   * Ermittelt den Abstand des gegebenen Punktes zur Polyline.
+   *
+   * @param v
+   * @return der Abstand
+   * @see #closestPoint(Vector)
+   */
+  public double distance(Vector v) {
+    return distance(v.getX(), v.getY());
+  }
+
+  private double distance(double x, double y) {
+    int s = nearestSegment(x, y);
+    Vector a = vectors.get(s);
+    Vector b = vectors.get(s + 1 == size() ? 0 : s + 1);
+    return Math.sqrt(SegmentIndex.segmentDistanceSq(x, y, a.getX(), a.getY(), b.getX(), b.getY()));
+  }
+
+  /**
+   * Ermittelt die Abstände vieler Punkte zur Polyline, parallel. Ab {@link #DISTANCE_INDEX_THRESHOLD} Punkten wird
+   * dazu ein {@link SegmentIndex} aufgebaut.
+   *
+   * @param xs  x-Koordinaten der Punkte
+   * @param ys  y-Koordinaten der Punkte
+   * @param out erhält die Abstände
+   * @throws IllegalArgumentException wenn die Arrays unterschiedlich lang sind
+   */
+  public void distances(double[] xs, double[] ys, double[] out) {
+    if (size() >= DISTANCE_INDEX_THRESHOLD) {
+      segmentIndex().distances(xs, ys, out, true);
+      return;
+    }
+    if (xs.length != ys.length || xs.length != out.length) {
+      throw new IllegalArgumentException("The arrays must have the same length.");
+    }
+    IntStream.range(0, xs.length).parallel().forEach(i -> out[i] = distance(xs[i], ys[i]));
+  }
+
+  private int nearestSegment(double x, double y) {
+    int n = size();
+    int segments = closed ? n : n - 1;
+    double best = Double.POSITIVE_INFINITY;
+    int bestSegment = 0;
+    Vector a = vectors.get(0);
+    for (int i = 0; i < segments; i++) {
+      Vector b = vectors.get(i + 1 == n ? 0 : i + 1);
+      double d = SegmentIndex.segmentDistanceSq(x, y, a.getX(), a.getY(), b.getX(), b.getY());
+      if (d < best) {
+        best = d;
+        bestSegment = i;
+      }
+      a = b;
+    }
+    return bestSegment;
   }
 
   /**
@@ -130,7 +328,7 @@ public class Polyline implements Serializable {
    * @return
    */
   public double length() {
-    return runThroughSum(closed ? size() : size() - 1, (a, b) -> a.length(b));
+    return metrics().getLength();
   }
 
   /**
@@ -140,7 +338,7 @@ public class Polyline implements Serializable {
    * @return
    */
   public double area() {
-    return Math.abs(runThroughSum(size(), (a, b) -> (a.getY() + b.getY()) * (a.getX() - b.getX())) / 2);
+    return metrics().getArea();
   }
 
   /**
@@ -150,17 +348,78 @@ public class Polyline implements Serializable {
    * @return true if this polyline counter clock wise, false otherwise (clock wise)
    */
   public boolean isCCW() {
-    return runThroughSum(size(), (a, b) -> (b.getX() - a.getX()) * (b.getY() + a.getY())) <= .0;
+    return metrics().isCCW();
   }
 
-  private double runThroughSum(int n, BiFunction<Vector, Vector, Double> function) {
-    double result = .0;
-    for (int i = 0; i < n; i++) {
+  /**
+   * Ermittelt Länge, Fläche, Orientierung, Schwerpunkte und Bounding-Box in einem Durchlauf.
+   * Das Ergebnis wird beim ersten Aufruf berechnet und gemerkt, außer die Polyline ist {@link #uncached()}.
+   *
+   * @return
+   */
+  public PolylineMetrics metrics() {
+    if (uncached) {
+      return PolylineMetrics.of(this);
+    }
+    PolylineMetrics m = metrics;
+    if (m == null) {
+      synchronized (lock) {
+        m = metrics;
+        if (m == null) {
+          metrics = m = PolylineMetrics.of(this);
+        }
+      }
+    }
+    return m;
+  }
+
+  /**
+   * Ermittelt die kumulierten Längen der Strecken: Element {@code i} ist die Länge der Polyline vom ersten Punkt bis
+   * zum Punkt {@code i}; bei einer geschlossenen Polyline ist das letzte Element die Gesamtlänge einschließlich der
+   * schließenden Strecke.
+   *
+   * @return Kopie der kumulierten Längen
+   */
+  public double[] cumulativeLengths() {
+    if (uncached) {
+      return computeCumulativeLengths();
+    }
+    double[] c = cumulativeLengths;
+    if (c == null) {
+      synchronized (lock) {
+        c = cumulativeLengths;
+        if (c == null) {
+          cumulativeLengths = c = computeCumulativeLengths();
+        }
+      }
+    }
+    return c.clone();
+  }
+
+  private double[] computeCumulativeLengths() {
+    int n = size();
+    int segments = closed ? n : n - 1;
+    double[] c = new double[segments + 1];
+    for (int i = 0; i < segments; i++) {
       Vector a = vectors.get(i);
-      Vector b = vectors.get((i + 1) % size());
-      result += function.apply(a, b);
+      Vector b = vectors.get(i + 1 == n ? 0 : i + 1);
+      c[i + 1] = c[i] + a.length(b);
     }
-    return result;
+    return c;
+  }
+
+  /**
+   * Liefert eine Kopie der Polyline, die ihre abgeleiteten Eigenschaften nicht zwischenspeichert, sondern bei jedem
+   * Aufruf neu berechnet.
+   *
+   * @return
+   */
+  public Polyline uncached() {
+    return uncached ? this : new Polyline(vectors, closed, true);
+  }
+
+  public boolean isUncached() {
+    return uncached;
   }
 
   /**
@@ -187,10 +446,49 @@ public class Polyline implements Serializable {
     }
   }
 
-  private Polyline reverse() {
-    List<Vector> reverse = new ArrayList<>(vectors);
-    Collections.reverse(reverse);
-    return new Polyline(closed, reverse);
+  /**
+   * Liefert die Polyline mit umgekehrter Reihenfolge der Punkte.
+   * Die Punkte werden nicht kopiert; die umgekehrte Polyline ist eine Sicht auf diese Polyline.
+   *
+   * @return
+   */
+  public Polyline reverse() {
+    return new Polyline(VectorLists.reversed(vectors), closed, uncached);
+  }
+
+  /**
+   * Liefert die offene Polyline aus den Punkten {@code from} (inklusive) bis {@code to} (exklusive).
+   * Die Punkte werden nicht kopiert; der Ausschnitt ist eine Sicht auf diese Polyline.
+   *
+   * @param from Index des ersten Punkts
+   * @param to   Index nach dem letzten Punkt
+   * @return
+   * @throws IndexOutOfBoundsException if the range is out of bounds
+   * @throws IllegalArgumentException  if the range contains less than two points
+   */
+  public Polyline slice(int from, int to) {
+    List<Vector> slice = vectors.subList(from, to);
+    if (slice.size() < 2) {
+      throw new IllegalArgumentException("A polyline requires a minimum of two points.");
+    }
+    return new Polyline(slice, false, uncached);
+  }
+
+  /**
+   * Views are serialized as plain copies.
+   */
+  private Object writeReplace() {
+    if (vectors instanceof ArrayList) {
+      return this;
+    }
+    return new Polyline(new ArrayList<>(vectors), closed, uncached);
+  }
+
+  /**
+   * Deserialized polylines get their own lock.
+   */
+  private Object readResolve() {
+    return new Polyline(vectors, closed, uncached);
   }
 
   /**
@@ -202,6 +500,34 @@ public class Polyline implements Serializable {
     return CentroidHolder.ALGORITHM.centroid(this);
   }
 
+  /**
+   * Berechnet den flächengewichteten Schwerpunkt der geschlossenen Polyline, also des Polygons.
+   * Ist die Fläche 0, sind beide Koordinaten NaN.
+   *
+   * @return
+   */
+  public Vector centerOfGravity() {
+    return CentroidHolder.CENTER_OF_GRAVITY.centroid(this);
+  }
+
+  /**
+   * Gets the vertex {@code i}.
+   */
+  Vector vector(int i) {
+    return vectors.get(i);
+  }
+
+  /**
+   * Ermittelt die konvexe Hülle der Punkte der Polyline.
+   * Die Hülle ist geschlossen und gegen den Uhrzeigersinn orientiert.
+   *
+   * @return
+   * @see ConvexHull
+   */
+  public Polyline convexHull() {
+    return ConvexHull.of(this);
+  }
+
   /**
    * Ermittelt die Schnittpunkte der Polyline mit einer Line
    *
@@ -209,39 +535,270 @@ public class Polyline implements Serializable {
    * @return
    */
   public Collection<LineIntersection> intersection(Line line) {
-    return intersection(line, null);
+    Collection<LineIntersection> intersections = new ArrayList<>();
+    LineIntersector.Result result = new LineIntersector.Result();
+    for (int i = 0; i < segments(); i++) {
+      intersect(i, line, result);
+      intersections.add(new LineIntersection(segment(i), line, result.getIntersection(), result.getLineStatus(), this));
+    }
+    return intersections;
+  }
+
+  /**
+   * Liefert lazy die echten Schnittpunkte ({@link Line.LineStatus#SEGMENT_INTERSECTS}) der Strecken der Polyline mit
+   * einer Line, in der Reihenfolge der Strecken.
+   *
+   * @param line
+   * @return
+   * @see #intersections(Line, Set)
+   */
+  public Stream<LineIntersection> intersections(Line line) {
+    return intersections(line, EnumSet.of(Line.LineStatus.SEGMENT_INTERSECTS));
+  }
+
+  /**
+   * Liefert lazy die Schnittpunkte der Strecken der Polyline mit einer Line, deren Status in {@code statuses}
+   * enthalten ist, in der Reihenfolge der Strecken. Ein Ergebnis wird erst erzeugt, wenn der Stream es anfordert,
+   * und nur für die gesuchten Status; Operationen wie {@code findFirst()} brechen die Suche ab.
+   * Der Stream ist sequentiell.
+   *
+   * @param line
+   * @param statuses die gesuchten Status
+   * @return
+   */
+  public Stream<LineIntersection> intersections(Line line, Set<Line.LineStatus> statuses) {
+    Objects.requireNonNull(line);
+    Set<Line.LineStatus> wanted = statuses.isEmpty() ? EnumSet.noneOf(Line.LineStatus.class) : EnumSet.copyOf(statuses);
+    int segments = segments();
+    Spliterator<LineIntersection> spliterator =
+      new Spliterators.AbstractSpliterator<LineIntersection>(segments, Spliterator.ORDERED | Spliterator.NONNULL) {
+        private final LineIntersector.Result result = new LineIntersector.Result();
+        private int segment;
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LineIntersection> action) {
+          while (segment < segments) {
+            int i = segment++;
+            if (wanted.contains(intersect(i, line, result))) {
+              action.accept(new LineIntersection(segment(i), line, result.getIntersection(), result.getLineStatus(),
+                                                 Polyline.this));
+              return true;
+            }
+          }
+          return false;
+        }
+      };
+    return StreamSupport.stream(spliterator, false);
+  }
+
+  /**
+   * Prüft, ob eine Strecke der Polyline die Line schneidet ({@link Line.LineStatus#SEGMENT_INTERSECTS}).
+   * Die Suche bricht beim ersten Schnittpunkt ab und erzeugt keine Objekte.
+   *
+   * @param line
+   * @return
+   */
+  public boolean anyIntersection(Line line) {
+    LineIntersector.Result result = new LineIntersector.Result();
+    for (int i = 0; i < segments(); i++) {
+      if (intersect(i, line, result) == Line.LineStatus.SEGMENT_INTERSECTS) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Ermittelt den echten Schnittpunkt ({@link Line.LineStatus#SEGMENT_INTERSECTS}) der ersten Strecke der Polyline,
+   * die die Line schneidet.
+   *
+   * @param line
+   * @return
+   */
+  public Optional<LineIntersection> firstIntersection(Line line) {
+    return intersections(line).findFirst();
+  }
+
+  private int segments() {
+    return closed ? size() : size() - 1;
+  }
+
+  private Line.LineStatus intersect(int i, Line line, LineIntersector.Result result) {
+    Vector a = vectors.get(i);
+    Vector b = vectors.get(i + 1 == size() ? 0 : i + 1);
+    return LineIntersector.intersect(a.getX(), a.getY(), b.getX(), b.getY(),
+                                     line.getOrigin().getX(), line.getOrigin().getY(),
+                                     line.getDestination().getX(), line.getDestination().getY(), result);
   }
 
   /**
-   * Ermittelt die Schnittpunkte der Polyline mit der gegebenen Polyline
+   * Ermittelt die Schnittpunkte der Polyline mit der gegebenen Polyline.
+   * Es werden nur echte Schnittpunkte der Strecken ({@link Line.LineStatus#SEGMENT_INTERSECTS}) geliefert,
+   * sortiert nach den Strecken dieser Polyline. Die Strecken werden mit einem Sweep über monotone Ketten ermittelt,
+   * so dass nur Strecken mit sich überlappenden Bounding-Boxen verglichen werden.
    *
    * @param polyline
    * @return
    */
   public Collection<PolylineIntersection> intersection(Polyline polyline) {
-    Collection<PolylineIntersection> intersections = new ArrayList<>();
-    for (int i = 0; i < (closed ? size() : size() - 1); i++) {
-      Vector a = vectors.get(i);
-      Vector b = vectors.get((i + 1) % size());
-      Line pLine = new Line(a, b);
-      Collection<PolylineIntersection> intersection = polyline.intersection(pLine, this);
-      intersections.addAll(intersection);
-    }
-    return intersections;
+    SortedMap<Long, PolylineIntersection> intersections = new TreeMap<>();
+    SegmentSweep.intersections(PackedPolyline.fromPolyline(this), PackedPolyline.fromPolyline(polyline), (s, t, x, y) -> {
+      intersections.put(((long) s << 32) | t,
+                        new PolylineIntersection(segment(s), polyline.segment(t), new Vector(x, y),
+                                                 Line.LineStatus.SEGMENT_INTERSECTS, this, polyline));
+      return true;
+    });
+    return new ArrayList<>(intersections.values());
   }
 
-  private <T extends Line.AbstractIntersection> Collection<T> intersection(Line line, Polyline polyline) {
-    Collection<T> intersections = new ArrayList<>();
-    for (int i = 0; i < (closed ? size() : size() - 1); i++) {
-      Vector a = vectors.get(i);
-      Vector b = vectors.get((i + 1) % size());
-      Line pLine = new Line(a, b);
-      T intersection = polyline == null
-                     ? (T) new LineIntersection(pLine.intersection(line), this)
-                     : (T) new PolylineIntersection(line.intersection(pLine), polyline, this);
-      intersections.add(intersection);
+  /**
+   * Zerlegt die geschlossene Polyline, also das Polygon, in Dreiecke. Das Polygon muss einfach sein.
+   *
+   * @return Indizes der Punkte der Dreiecke, je drei gegen den Uhrzeigersinn
+   * @see Triangulation
+   */
+  public int[] triangulate() {
+    return Triangulation.triangulate(this);
+  }
+
+  /**
+   * Vereinigt das Polygon mit dem gegebenen Polygon. Beide Polylines werden als geschlossen betrachtet.
+   *
+   * @param polyline
+   * @return die Ringe des Ergebnisses, äußere Ränder gegen den Uhrzeigersinn, Löcher im Uhrzeigersinn
+   * @see PolygonClipping
+   */
+  public List<Polyline> union(Polyline polyline) {
+    return PolygonClipping.union(this, polyline);
+  }
+
+  /**
+   * Zieht das gegebene Polygon von diesem Polygon ab.
+   *
+   * @param polyline
+   * @return die Ringe des Ergebnisses
+   * @see #union(Polyline)
+   */
+  public List<Polyline> difference(Polyline polyline) {
+    return PolygonClipping.difference(this, polyline);
+  }
+
+  /**
+   * Ermittelt die Gebiete, die in genau einem der beiden Polygone liegen.
+   *
+   * @param polyline
+   * @return die Ringe des Ergebnisses
+   * @see #union(Polyline)
+   */
+  public List<Polyline> xor(Polyline polyline) {
+    return PolygonClipping.xor(this, polyline);
+  }
+
+  /**
+   * Verknüpft das Polygon mit dem gegebenen Polygon. Für die Schnittmenge ist dies die einzige Methode, da
+   * {@link #intersection(Polyline)} die Schnittpunkte der Strecken liefert.
+   *
+   * @param polyline
+   * @param operation
+   * @return die Ringe des Ergebnisses
+   * @see #union(Polyline)
+   */
+  public List<Polyline> clip(Polyline polyline, PolygonClipping.Operation operation) {
+    return PolygonClipping.compute(List.of(this), List.of(polyline), operation);
+  }
+
+  /**
+   * Ermittelt das Polygon, dessen Rand den gegebenen Abstand zu diesem Polygon hat. Die Polyline wird als
+   * geschlossen betrachtet; ihre Orientierung spielt keine Rolle. Runde Ecken werden durch Strecken angenähert.
+   *
+   * @param distance positiv vergrößert, negativ verkleinert das Polygon
+   * @param join     die Form der äußeren Ecken
+   * @return die Ringe des Ergebnisses, äußere Ränder gegen den Uhrzeigersinn, Löcher im Uhrzeigersinn
+   * @see PolylineOffset
+   */
+  public List<Polyline> offset(double distance, PolylineOffset.JoinStyle join) {
+    return PolylineOffset.offset(List.of(ccw()), distance, join);
+  }
+
+  /**
+   * Ermittelt das Gebiet der Punkte, die höchstens den gegebenen Abstand zur Polyline haben. Die Polyline wird als
+   * offen betrachtet; ihre Enden sind bei {@link PolylineOffset.JoinStyle#ROUND} rund, sonst gerade.
+   *
+   * @param distance mindestens 0
+   * @param join     die Form der äußeren Ecken und der Enden
+   * @return die Ringe des Ergebnisses, äußere Ränder gegen den Uhrzeigersinn, Löcher im Uhrzeigersinn
+   * @see PolylineOffset
+   */
+  public List<Polyline> buffer(double distance, PolylineOffset.JoinStyle join) {
+    return PolylineOffset.buffer(this, distance, join);
+  }
+
+  /**
+   * Prüft, ob die Polyline einfach ist, sich also weder schneidet noch berührt. Benachbarte Strecken dürfen sich nur
+   * in ihrem gemeinsamen Punkt berühren. Bei einer geschlossenen Polyline wird die schließende Strecke berücksichtigt,
+   * außer der letzte Punkt wiederholt den ersten.
+   * Nur für einfache geschlossene Polylines liefert {@link #area()} die Fläche des Polygons.
+   *
+   * @return
+   * @see #selfIntersections()
+   */
+  public boolean isSimple() {
+    boolean[] simple = {true};
+    SegmentSweep.selfIntersections(PackedPolyline.fromPolyline(this), (s, t, x, y) -> {
+      simple[0] = false;
+      return false;
+    });
+    return simple[0];
+  }
+
+  /**
+   * Ermittelt die Schnittpunkte der Polyline mit sich selbst, sortiert nach den Strecken. Benachbarte Strecken
+   * schneiden sich nur, wenn sie sich überlappen; für kollineare, sich überlappende Strecken wird ein Punkt der
+   * Überlappung geliefert. Wie bei {@link #intersection(Polyline)} werden nur Strecken mit sich überlappenden
+   * Bounding-Boxen verglichen, anders als bei {@code intersection(this)} aber keine benachbarten Strecken.
+   *
+   * @return
+   */
+  public Collection<PolylineIntersection> selfIntersections() {
+    SortedMap<Long, PolylineIntersection> intersections = new TreeMap<>();
+    SegmentSweep.selfIntersections(PackedPolyline.fromPolyline(this), (s, t, x, y) -> {
+      intersections.put(((long) s << 32) | t,
+                        new PolylineIntersection(segment(s), segment(t), new Vector(x, y),
+                                                 Line.LineStatus.SEGMENT_INTERSECTS, this, this));
+      return true;
+    });
+    return new ArrayList<>(intersections.values());
+  }
+
+  /**
+   * Liefert einen Index über die Strecken der Polyline, mit dem Fenster-, Schnitt- und Nächste-Strecke-Anfragen in
+   * logarithmischer Zeit beantwortet werden. Lohnt sich, wenn viele Anfragen gegen dieselbe Polyline gestellt werden.
+   * Er wird beim ersten Aufruf erzeugt und zwischengespeichert, außer bei {@link #uncached()}.
+   *
+   * @return
+   */
+  public SegmentIndex segmentIndex() {
+    if (uncached) {
+      return SegmentIndex.of(this);
     }
-    return intersections;
+    SegmentIndex index = segmentIndex;
+    if (index == null) {
+      synchronized (lock) {
+        index = segmentIndex;
+        if (index == null) {
+          segmentIndex = index = SegmentIndex.of(this);
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Gets the segment {@code i}, which starts at vertex {@code i}.
+   */
+  Line segment(int i) {
+    int n = size();
+    return new Line(vectors.get(i), vectors.get(i + 1 == n ? 0 : i + 1));
   }
 
   @Override
@@ -270,9 +827,8 @@ public class Polyline implements Serializable {
   public static final class LineIntersection extends Line.AbstractIntersection {
     private final Polyline polyline;
 
-    private LineIntersection(Line.Intersection lIntersetion, Polyline polyline) {
-      super(lIntersetion.getLine1(), lIntersetion.getLine2(),
-            lIntersetion.getIntersection().orElse(null), lIntersetion.getLineStatus());
+    LineIntersection(Line line1, Line line2, Vector intersection, Line.LineStatus lineStatus, Polyline polyline) {
+      super(line1, line2, intersection, lineStatus);
       this.polyline = polyline;
     }
 
@@ -296,9 +852,9 @@ public class Polyline implements Serializable {
     private final Polyline polyline1;
     private final Polyline polyline2;
 
-    private PolylineIntersection(Line.Intersection lIntersetion, Polyline polyline1, Polyline polyline2) {
-      super(lIntersetion.getLine1(), lIntersetion.getLine2(),
-            lIntersetion.getIntersection().orElse(null), lIntersetion.getLineStatus());
+    private PolylineIntersection(Line line1, Line line2, Vector intersection, Line.LineStatus lineStatus,
+                                 Polyline polyline1, Polyline polyline2) {
+      super(line1, line2, intersection, lineStatus);
       this.polyline1 = polyline1;
       this.polyline2 = polyline2;
     }
@@ -326,6 +882,7 @@ public class Polyline implements Serializable {
 
   private static final class CentroidHolder {
     private static final CentroidAlgorithm ALGORITHM = new CentroidSimple();
+    private static final CentroidAlgorithm CENTER_OF_GRAVITY = new CentroidCenterOfGravity();
   }
 
   /**
@@ -334,36 +891,18 @@ public class Polyline implements Serializable {
   private static class CentroidSimple implements CentroidAlgorithm {
     @Override
     public Vector centroid(Polyline polyline) {
-      double centroidX = 0;
-      double centroidY = 0;
-      for (Vector v : polyline.vectors) {
-        centroidX += v.getX();
-        centroidY += v.getY();
-      }
-      int n = polyline.size();
-      return new Vector(centroidX / n, centroidY / n);
+      return polyline.metrics().getVertexCentroid();
     }
   }
 
   /**
    * Algorithmus nach https://de.wikipedia.org/wiki/Geometrischer_Schwerpunkt#Polygon
-   * Die Fläche des Polygons muss hierbei ungleich 0 sein.
+   * Die Fläche des Polygons muss hierbei ungleich 0 sein. Die vorzeichenbehaftete Fläche wird verwendet, damit
+   * der Schwerpunkt auch für Polygone im Uhrzeigersinn stimmt.
    */
   private static class CentroidCenterOfGravity implements CentroidAlgorithm {
     public Vector centroid(Polyline polyline) {
-      double area = polyline.area();
-      double centroidX = 0;
-      double centroidY = 0;
-      int n = polyline.size();
-      for (int i = 0; i < n; i++) {
-        Vector a = polyline.vectors.get(i);
-        Vector b = polyline.vectors.get((i + 1) % n);
-        centroidX += (a.getX() + b.getX()) * (a.getX() * b.getY() - b.getX() * a.getY());
-        centroidY += (a.getY() + b.getY()) * (a.getX() * b.getY() - b.getX() * a.getY());
-      }
-      Vector centroid = new Vector(centroidX, centroidY);
-      centroid = centroid.mul(1. / (6. * area));
-      return centroid;
+      return polyline.metrics().getCentroid();
     }
   }
 
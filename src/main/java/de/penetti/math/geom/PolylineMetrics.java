@@ -0,0 +1,188 @@
+package de.penetti.math.geom;
+
+/**
+ * Metrics of a polyline, computed in one pass over its vertices.
+ * <p>
+ * As with {@link Polyline#area()} and {@link Polyline#isCCW()} the area, the orientation and the centroid regard the
+ * polyline as closed; the length contains the closing segment only if the polyline is closed.
+ * </p>
+ * <p>
+ * This class is immutable.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class PolylineMetrics {
+  private final double length;
+  private final double signedArea;
+  private final double centroidX;
+  private final double centroidY;
+  private final double vertexCentroidX;
+  private final double vertexCentroidY;
+  private final double minX;
+  private final double minY;
+  private final double maxX;
+  private final double maxY;
+
+  private PolylineMetrics(Pass pass, int n) {
+    this.length = pass.length;
+    this.signedArea = pass.area2 / 2;
+    this.centroidX = pass.centroidX / (3 * pass.area2);
+    this.centroidY = pass.centroidY / (3 * pass.area2);
+    this.vertexCentroidX = pass.sumX / n;
+    this.vertexCentroidY = pass.sumY / n;
+    this.minX = pass.minX;
+    this.minY = pass.minY;
+    this.maxX = pass.maxX;
+    this.maxY = pass.maxY;
+  }
+
+  public static PolylineMetrics of(Polyline polyline) {
+    int n = polyline.size();
+    Pass pass = new Pass();
+    Vector a = polyline.vector(0);
+    for (int i = 0; i < n; i++) {
+      Vector b = polyline.vector(i + 1 == n ? 0 : i + 1);
+      pass.segment(a.getX(), a.getY(), b.getX(), b.getY(), i + 1 < n || polyline.isClosed());
+      a = b;
+    }
+    return new PolylineMetrics(pass, n);
+  }
+
+  public static PolylineMetrics of(PackedPolyline polyline) {
+    double[] xs = polyline.xs;
+    double[] ys = polyline.ys;
+    int n = xs.length;
+    Pass pass = new Pass();
+    for (int i = 0; i < n; i++) {
+      int j = i + 1 == n ? 0 : i + 1;
+      pass.segment(xs[i], ys[i], xs[j], ys[j], i + 1 < n || polyline.isClosed());
+    }
+    return new PolylineMetrics(pass, n);
+  }
+
+  /**
+   * @see Polyline#length()
+   */
+  public double getLength() {
+    return length;
+  }
+
+  /**
+   * Gets the area after the shoelace formula; it is positive if the polyline is counter clockwise.
+   *
+   * @return the signed area
+   */
+  public double getSignedArea() {
+    return signedArea;
+  }
+
+  /**
+   * @see Polyline#area()
+   */
+  public double getArea() {
+    return Math.abs(signedArea);
+  }
+
+  /**
+   * @see Polyline#isCCW()
+   */
+  public boolean isCCW() {
+    return signedArea >= .0;
+  }
+
+  /**
+   * Gets the area-weighted centroid (centre of gravity) of the polygon.
+   * If the area is zero, both coordinates are NaN.
+   *
+   * @return the centroid
+   * @see Polyline#centerOfGravity()
+   */
+  public Vector getCentroid() {
+    return new Vector(centroidX, centroidY);
+  }
+
+  /**
+   * Gets the average of the vertices.
+   *
+   * @return the vertex centroid
+   * @see Polyline#centroid()
+   */
+  public Vector getVertexCentroid() {
+    return new Vector(vertexCentroidX, vertexCentroidY);
+  }
+
+  public double getMinX() {
+    return minX;
+  }
+
+  public double getMinY() {
+    return minY;
+  }
+
+  public double getMaxX() {
+    return maxX;
+  }
+
+  public double getMaxY() {
+    return maxY;
+  }
+
+  /**
+   * @return width of the bounding box
+   */
+  public double getWidth() {
+    return maxX - minX;
+  }
+
+  /**
+   * @return height of the bounding box
+   */
+  public double getHeight() {
+    return maxY - minY;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PolylineMetrics(length=%f; area=%f; centroid=%s; bounds=[%f:%f, %f:%f])",
+                         length, signedArea, getCentroid(), minX, minY, maxX, maxY);
+  }
+
+  /**
+   * Sums of one pass.
+   */
+  private static final class Pass {
+    private double length;
+    private double area2;       // doppelte, vorzeichenbehaftete Fläche
+    private double centroidX;
+    private double centroidY;
+    private double sumX;
+    private double sumY;
+    private double minX = Double.POSITIVE_INFINITY;
+    private double minY = Double.POSITIVE_INFINITY;
+    private double maxX = Double.NEGATIVE_INFINITY;
+    private double maxY = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds the vertex a and the segment (a, b) to the next vertex. The terms are summed in the same order as in
+     * {@link Polyline#area()} and {@link Polyline#isCCW()}, so area and orientation are identical.
+     */
+    private void segment(double ax, double ay, double bx, double by, boolean counts) {
+      if (counts) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        length += Math.sqrt(dx * dx + dy * dy);
+      }
+      area2 += (ay + by) * (ax - bx);
+      double cross = ax * by - bx * ay;
+      centroidX += (ax + bx) * cross;
+      centroidY += (ay + by) * cross;
+      sumX += ax;
+      sumY += ay;
+      minX = Math.min(minX, ax);
+      minY = Math.min(minY, ay);
+      maxX = Math.max(maxX, ax);
+      maxY = Math.max(maxY, ay);
+    }
+  }
+}
@@ -0,0 +1,483 @@
+package de.penetti.math.geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Offset curves of polygons and buffers of polylines.
+ * <p>
+ * The offset is computed in two steps. First each ring is offset segment by segment: every segment is moved by the
+ * distance along its normal, and at the vertices the moved segments are joined. On the outer side of a vertex the
+ * join is round, mitered or beveled. On the inner side the moved segments are cut at their intersection, if it lies
+ * within the first half of both segments; otherwise they are connected through the vertex itself. This raw offset
+ * contains loops where the moved segments overlap; they run in the opposite direction of the ring.
+ * Then the loops are removed by keeping the region with a positive winding number, computed with the sweep of
+ * {@link PolygonClipping}. Thus the cleanup needs O((n + k) log n) time for k intersections, not O(n²).
+ * </p>
+ * <p>
+ * A positive distance enlarges counter clockwise rings and shrinks clockwise rings, i.e. holes. An open polyline is
+ * buffered by offsetting the ring, which runs along the polyline and back; its ends get round caps for
+ * {@link JoinStyle#ROUND} and flat caps otherwise.
+ * </p>
+ * <p>
+ * The round joins of the raw offset are circular arcs, which are kept as bulges by {@link #offsetPaths}. For the
+ * cleanup they are flattened: the segments of the flattened arc deviate at most by the tolerance from the arc.
+ * </p>
+ * <p>
+ * Before the offset, the input is simplified after {@link DouglasPeucker} within the tolerance; for round joins half
+ * of the tolerance is used for the simplification and half for the flattening. This removes the vertices of smooth
+ * curves and of small noise, which would each add a detour through the vertex on the inner side. Such a detour has
+ * the length of the distance, so if the distance is much larger than the segments, it crosses the offsets of many
+ * neighbouring segments: for n concave vertices with segments of length l the cleanup may have to handle
+ * O(n (d / l)²) intersections. Inputs with noise above the tolerance should be smoothed or simplified before large
+ * offsets.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class PolylineOffset {
+  /**
+   * Standardwert für das Verhältnis von Gehrungslänge zu Abstand, ab dem eine Gehrung abgeschrägt wird.
+   */
+  public static final double DEFAULT_MITER_LIMIT = 2;
+  /**
+   * Standardwert für die Toleranz beim Annähern der Bögen, bezogen auf den Abstand.
+   */
+  public static final double DEFAULT_TOLERANCE = 1e-3;
+
+  /**
+   * The joins on the outer side of a vertex.
+   */
+  public enum JoinStyle {
+    /**
+     * A circular arc around the vertex.
+     */
+    ROUND,
+    /**
+     * The moved segments are extended to their intersection. If the intersection is farther away from the vertex than
+     * the miter limit times the distance, the join is beveled.
+     */
+    MITER,
+    /**
+     * The ends of the moved segments are connected straight.
+     */
+    BEVEL
+  }
+
+  private PolylineOffset() {
+  }
+
+  /**
+   * Offsets the rings by the distance.
+   *
+   * @param rings    the rings, outer boundaries counter clockwise, holes clockwise
+   * @param distance the distance; positive enlarges the polygon, negative shrinks it
+   * @param join     the join on the outer side of the vertices
+   * @return the rings of the offset polygon, outer boundaries counter clockwise, holes clockwise
+   * @see #offset(Collection, double, JoinStyle, double, double)
+   */
+  public static List<Polyline> offset(Collection<Polyline> rings, double distance, JoinStyle join) {
+    return offset(rings, distance, join, DEFAULT_MITER_LIMIT, Math.abs(distance) * DEFAULT_TOLERANCE);
+  }
+
+  /**
+   * Offsets the rings by the distance. For the distance 0 the rings are only cleaned up, i.e. the region with a
+   * positive winding number is returned.
+   *
+   * @param rings      the rings, outer boundaries counter clockwise, holes clockwise
+   * @param distance   the distance; positive enlarges the polygon, negative shrinks it
+   * @param join       the join on the outer side of the vertices
+   * @param miterLimit the maximal ratio of the miter length to the distance
+   * @param tolerance  the maximal deviation of the result from the exact offset
+   * @return the rings of the offset polygon, outer boundaries counter clockwise, holes clockwise
+   */
+  public static List<Polyline> offset(Collection<Polyline> rings, double distance, JoinStyle join, double miterLimit,
+                                      double tolerance) {
+    Objects.requireNonNull(rings);
+    check(distance, join, miterLimit);
+    if (distance == 0) {
+      return PolygonClipping.positive(rings);
+    }
+    checkTolerance(join, distance, tolerance);
+    double simplify = simplifyTolerance(join, tolerance);
+    List<Polyline> raw = new ArrayList<>(rings.size());
+    for (Polyline ring : rings) {
+      double[] xy = simplify(vertices(ring, true), true, simplify);
+      if (xy.length > 0) {
+        // ein Ring aus einem Punkt hat für MITER, BEVEL und negative Abstände keinen Rand
+        offset(xy, distance, join, miterLimit).flatten(tolerance - simplify).ifPresent(raw::add);
+      }
+    }
+    return PolygonClipping.positive(raw);
+  }
+
+  /**
+   * Buffers the open polyline by the distance, i.e. gets the region of the points within the distance.
+   *
+   * @param polyline the polyline, regarded as open
+   * @param distance the distance, at least 0
+   * @param join     the join on the outer side of the vertices and the style of the ends
+   * @return the rings of the buffer, outer boundaries counter clockwise, holes clockwise
+   * @see #buffer(Polyline, double, JoinStyle, double, double)
+   */
+  public static List<Polyline> buffer(Polyline polyline, double distance, JoinStyle join) {
+    return buffer(polyline, distance, join, DEFAULT_MITER_LIMIT, distance * DEFAULT_TOLERANCE);
+  }
+
+  /**
+   * Buffers the open polyline by the distance, i.e. gets the region of the points within the distance. For the
+   * distance 0 this region has no area, so the result is empty.
+   *
+   * @param polyline   the polyline, regarded as open
+   * @param distance   the distance, at least 0
+   * @param join       the join on the outer side of the vertices and the style of the ends
+   * @param miterLimit the maximal ratio of the miter length to the distance
+   * @param tolerance  the maximal deviation of the result from the exact buffer
+   * @return the rings of the buffer, outer boundaries counter clockwise, holes clockwise
+   */
+  public static List<Polyline> buffer(Polyline polyline, double distance, JoinStyle join, double miterLimit,
+                                      double tolerance) {
+    Objects.requireNonNull(polyline);
+    checkBuffer(distance, join, miterLimit);
+    if (distance == 0) {
+      return new ArrayList<>();
+    }
+    checkTolerance(join, distance, tolerance);
+    double simplify = simplifyTolerance(join, tolerance);
+    Path path = bufferPath(simplify(vertices(polyline, false), false, simplify), distance, join, miterLimit);
+    return path.flatten(tolerance - simplify)
+               .map(ring -> PolygonClipping.positive(List.of(ring)))
+               .orElseGet(ArrayList::new);
+  }
+
+  /**
+   * Gets the raw offsets of the rings, with the round joins as arcs. The paths still contain the loops, which
+   * {@link #offset(Collection, double, JoinStyle, double, double)} removes.
+   *
+   * @param rings      the rings, outer boundaries counter clockwise, holes clockwise
+   * @param distance   the distance; positive enlarges the polygon, negative shrinks it
+   * @param join       the join on the outer side of the vertices
+   * @param miterLimit the maximal ratio of the miter length to the distance
+   * @return one closed path per ring with at least one point; the path of a single point may be empty
+   */
+  public static List<Path> offsetPaths(Collection<Polyline> rings, double distance, JoinStyle join,
+                                       double miterLimit) {
+    Objects.requireNonNull(rings);
+    check(distance, join, miterLimit);
+    List<Path> paths = new ArrayList<>(rings.size());
+    for (Polyline ring : rings) {
+      double[] xy = vertices(ring, true);
+      if (xy.length > 0) {
+        paths.add(offset(xy, distance, join, miterLimit));
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * Gets the raw outline of the buffer of the open polyline, with the round joins and ends as arcs.
+   *
+   * @param polyline   the polyline, regarded as open
+   * @param distance   the distance, at least 0
+   * @param join       the join on the outer side of the vertices and the style of the ends
+   * @param miterLimit the maximal ratio of the miter length to the distance
+   * @return the closed path; empty for an empty polyline
+   */
+  public static Path bufferPath(Polyline polyline, double distance, JoinStyle join, double miterLimit) {
+    checkBuffer(distance, join, miterLimit);
+    return bufferPath(vertices(polyline, false), distance, join, miterLimit);
+  }
+
+  /**
+   * Gets the raw outline of the buffer of the open polyline given by x, y pairs.
+   */
+  private static Path bufferPath(double[] xy, double distance, JoinStyle join, double miterLimit) {
+    int n = xy.length / 2;
+    if (n < 2) {
+      return offset(xy, distance, join, miterLimit);
+    }
+    // hin und zurück: an den Enden kehrt der Ring um
+    double[] ring = Arrays.copyOf(xy, 4 * n - 4);
+    for (int i = n - 2, j = 2 * n; i > 0; i--) {
+      ring[j++] = xy[2 * i];
+      ring[j++] = xy[2 * i + 1];
+    }
+    return offset(ring, distance, join, miterLimit);
+  }
+
+  private static void check(double distance, JoinStyle join, double miterLimit) {
+    Objects.requireNonNull(join);
+    if (!Double.isFinite(distance)) {
+      throw new IllegalArgumentException("The distance must be finite.");
+    }
+    if (!(miterLimit >= 1)) {
+      throw new IllegalArgumentException("The miter limit must be at least 1.");
+    }
+  }
+
+  private static void checkBuffer(double distance, JoinStyle join, double miterLimit) {
+    check(distance, join, miterLimit);
+    if (distance < 0) {
+      throw new IllegalArgumentException("The distance must not be negative.");
+    }
+  }
+
+  private static void checkTolerance(JoinStyle join, double distance, double tolerance) {
+    if (join == JoinStyle.ROUND && distance != 0 && !(tolerance > 0)) {
+      throw new IllegalArgumentException("The tolerance must be positive.");
+    }
+  }
+
+  /**
+   * Gets the vertices as x, y pairs without consecutive duplicates.
+   *
+   * @param closed also the last vertex must differ from the first one
+   */
+  private static double[] vertices(Polyline polyline, boolean closed) {
+    int n = polyline.size();
+    double[] xy = new double[2 * n];
+    int size = 0;
+    for (int i = 0; i < n; i++) {
+      Vector v = polyline.vector(i);
+      double x = v.getX() + .0;
+      double y = v.getY() + .0;
+      if (size == 0 || x != xy[size - 2] || y != xy[size - 1]) {
+        xy[size++] = x;
+        xy[size++] = y;
+      }
+    }
+    while (closed && size > 2 && xy[size - 2] == xy[0] && xy[size - 1] == xy[1]) {
+      size -= 2;
+    }
+    return Arrays.copyOf(xy, size);
+  }
+
+  /**
+   * Gets the tolerance for the simplification of the input: for round joins half of the tolerance, the other half is
+   * left for the flattening of the arcs.
+   */
+  private static double simplifyTolerance(JoinStyle join, double tolerance) {
+    return join == JoinStyle.ROUND ? tolerance / 2 : Math.max(tolerance, 0);
+  }
+
+  /**
+   * Simplifies the vertices given by x, y pairs after Douglas–Peucker.
+   *
+   * @param closed the vertices form a ring
+   */
+  private static double[] simplify(double[] xy, boolean closed, double tolerance) {
+    int n = xy.length / 2;
+    if (!(tolerance > 0) || n < 3) {
+      return xy;
+    }
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = xy[2 * i];
+      ys[i] = xy[2 * i + 1];
+    }
+    PackedPolyline simplified = DouglasPeucker.simplify(PackedPolyline.wrap(closed, xs, ys), tolerance);
+    if (simplified.size() == n) {
+      return xy;
+    }
+    double[] result = new double[2 * simplified.size()];
+    for (int i = 0; i < simplified.size(); i++) {
+      result[2 * i] = simplified.xs[i];
+      result[2 * i + 1] = simplified.ys[i];
+    }
+    return result;
+  }
+
+  /**
+   * Offsets the closed ring given by x, y pairs to the right of its segments.
+   */
+  private static Path offset(double[] ring, double distance, JoinStyle join, double miterLimit) {
+    int n = ring.length / 2;
+    Path path = new Path(2 * n + 2);
+    if (n == 1) {
+      // ein einzelner Punkt: ein Kreis aus zwei Halbkreisen
+      if (join == JoinStyle.ROUND && distance > 0) {
+        path.add(ring[0] + distance, ring[1], 1);
+        path.add(ring[0] - distance, ring[1], 1);
+      }
+      return path;
+    }
+    // Normalen der Strecken, nach rechts
+    double[] normals = new double[2 * n];
+    double[] lengths = new double[n];
+    for (int i = 0; i < n; i++) {
+      int j = i + 1 == n ? 0 : i + 1;
+      double dx = ring[2 * j] - ring[2 * i];
+      double dy = ring[2 * j + 1] - ring[2 * i + 1];
+      lengths[i] = Math.hypot(dx, dy);
+      normals[2 * i] = dy / lengths[i];
+      normals[2 * i + 1] = -dx / lengths[i];
+    }
+    for (int i = 0; i < n; i++) {
+      int h = i == 0 ? n - 1 : i - 1;
+      join(path, ring[2 * i], ring[2 * i + 1], normals[2 * h], normals[2 * h + 1], normals[2 * i],
+           normals[2 * i + 1], Math.min(lengths[h], lengths[i]), distance, join, miterLimit);
+    }
+    return path;
+  }
+
+  /**
+   * Adds the join at the vertex (x, y) from the segment with normal n0 to the segment with normal n1.
+   *
+   * @param length the length of the shorter segment
+   */
+  private static void join(Path path, double x, double y, double n0x, double n0y, double n1x, double n1y,
+                           double length, double distance, JoinStyle join, double miterLimit) {
+    if (distance == 0) {
+      path.add(x, y, 0);
+      return;
+    }
+    double sin = n0x * n1y - n0y * n1x;
+    double cos = n0x * n1x + n0y * n1y;
+    if (cos > 0 && Math.abs(sin) < 1e-12) {
+      // fast gerade weiter
+      path.add(x + distance * n1x, y + distance * n1y, 0);
+      return;
+    }
+    if (sin * distance < 0) {
+      // innen: der Schnittpunkt der versetzten Strecken, wenn er höchstens in ihrer Mitte liegt
+      if (cos > 0 && 2 * Math.abs(distance * sin) <= length * (1 + cos)) {
+        double scale = distance / (1 + cos);
+        path.add(x + (n0x + n1x) * scale, y + (n0y + n1y) * scale, 0);
+        return;
+      }
+      // sonst über den Punkt selbst, die Schleife entfernt die Bereinigung
+      path.add(x + distance * n0x, y + distance * n0y, 0);
+      path.add(x, y, 0);
+      path.add(x + distance * n1x, y + distance * n1y, 0);
+      return;
+    }
+    switch (join) {
+      case ROUND:
+        // Umkehr (sin = 0): der Bogen läuft außen um den Punkt
+        double angle = sin != 0 ? Math.atan2(sin, cos) : Math.copySign(Math.PI, distance);
+        path.add(x + distance * n0x, y + distance * n0y, Math.tan(angle / 4));
+        break;
+      case MITER:
+        // Länge der Gehrung bezogen auf den Abstand: 1 / cos(Winkel / 2)
+        if (miterLimit * miterLimit * (1 + cos) >= 2) {
+          double scale = distance / (1 + cos);
+          path.add(x + (n0x + n1x) * scale, y + (n0y + n1y) * scale, 0);
+          return;
+        }
+        path.add(x + distance * n0x, y + distance * n0y, 0);
+        break;
+      default:
+        path.add(x + distance * n0x, y + distance * n0y, 0);
+    }
+    path.add(x + distance * n1x, y + distance * n1y, 0);
+  }
+
+  /**
+   * A closed path of line segments and circular arcs. Segment i leads from vertex i to vertex i + 1 (cyclic); its
+   * bulge is the tangent of a quarter of its included angle, positive for counter clockwise arcs and 0 for lines.
+   *
+   * @see Arc#Arc(Vector, Vector, double)
+   */
+  public static final class Path {
+    private double[] xs;
+    private double[] ys;
+    private double[] bulges;
+    private int size;
+
+    private Path(int capacity) {
+      xs = new double[capacity];
+      ys = new double[capacity];
+      bulges = new double[capacity];
+    }
+
+    private void add(double x, double y, double bulge) {
+      if (size == xs.length) {
+        xs = Arrays.copyOf(xs, 2 * size);
+        ys = Arrays.copyOf(ys, 2 * size);
+        bulges = Arrays.copyOf(bulges, 2 * size);
+      }
+      xs[size] = x;
+      ys[size] = y;
+      bulges[size++] = bulge;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public Vector vector(int i) {
+      Objects.checkIndex(i, size);
+      return Vector.create(xs[i], ys[i]);
+    }
+
+    /**
+     * Gets the bulge of the segment from vertex i to vertex i + 1.
+     */
+    public double bulge(int i) {
+      Objects.checkIndex(i, size);
+      return bulges[i];
+    }
+
+    /**
+     * Gets the arcs of the path, in the order of the segments.
+     */
+    public List<Arc> arcs() {
+      List<Arc> arcs = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        if (bulges[i] != 0) {
+          arcs.add(new Arc(vector(i), vector(i + 1 == size ? 0 : i + 1), bulges[i]));
+        }
+      }
+      return arcs;
+    }
+
+    /**
+     * Approximates the arcs by line segments.
+     *
+     * @param tolerance the maximal deviation of the segments from the arcs
+     * @return the closed polyline, or empty, if the path is empty
+     */
+    public Optional<Polyline> flatten(double tolerance) {
+      if (size == 0) {
+        return Optional.empty();
+      }
+      List<Vector> vectors = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        vectors.add(Vector.create(xs[i], ys[i]));
+        double bulge = bulges[i];
+        if (bulge == 0) {
+          continue;
+        }
+        int j = i + 1 == size ? 0 : i + 1;
+        // Mittelpunkt nach cvtbulge, wie in Arc
+        double cot = (1 / bulge - bulge) / 2;
+        double cx = (xs[i] + xs[j] - (ys[j] - ys[i]) * cot) / 2;
+        double cy = (ys[i] + ys[j] + (xs[j] - xs[i]) * cot) / 2;
+        double rx = xs[i] - cx;
+        double ry = ys[i] - cy;
+        double radius = Math.hypot(rx, ry);
+        double angle = 4 * Math.atan(bulge);
+        // größter Winkelschritt, bei dem die Sehne höchstens um die Toleranz vom Bogen abweicht
+        double step = 2 * Math.acos(Math.max(-1, 1 - tolerance / radius));
+        int count = (int) Math.min(Math.ceil(Math.abs(angle) / step), 1 << 16);
+        for (int k = 1; k < count; k++) {
+          double a = angle * k / count;
+          double cos = Math.cos(a);
+          double sin = Math.sin(a);
+          vectors.add(Vector.create(cx + rx * cos - ry * sin, cy + rx * sin + ry * cos));
+        }
+      }
+      return Optional.of(new Polyline(true, vectors));
+    }
+
+    @Override
+    public String toString() {
+      return String.format("Path(%d Vertices)", size);
+    }
+  }
+}
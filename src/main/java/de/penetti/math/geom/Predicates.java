@@ -0,0 +1,270 @@
+package de.penetti.math.geom;
+
+/**
+ * Robust geometric predicates after Shewchuk, "Adaptive Precision Floating-Point Arithmetic and Fast Robust
+ * Geometric Predicates" (1997).
+ * <p>
+ * Each predicate first evaluates its determinant in plain floating-point arithmetic. If the absolute value of the
+ * result exceeds the forward error bound, its sign is certain and it is returned at once; this holds for all but
+ * (nearly) degenerate inputs. Else the determinant is evaluated exactly as floating-point expansion, i.e. as sum of
+ * non-overlapping doubles, and the sign of the exact value is returned. Overflow and underflow are not regarded.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class Predicates {
+  /**
+   * Half an ulp of 1, the relative rounding error of one operation.
+   */
+  private static final double EPSILON = 0x1p-53;
+  private static final double ORIENT_ERROR_BOUND = (3 + 16 * EPSILON) * EPSILON;
+  private static final double INCIRCLE_ERROR_BOUND = (10 + 96 * EPSILON) * EPSILON;
+
+  private Predicates() {
+  }
+
+  /**
+   * Evaluates the orientation of the points a, b and c, i.e. twice the signed area of the triangle (a, b, c).
+   *
+   * @return a positive value, if c lies left of the directed line (a, b) (counter clockwise), a negative value, if it
+   * lies right (clockwise) and zero, if the points are collinear. The sign is exact, the value an approximation.
+   */
+  public static double orient2d(double ax, double ay, double bx, double by, double cx, double cy) {
+    double left = (ax - cx) * (by - cy);
+    double right = (ay - cy) * (bx - cx);
+    double det = left - right;
+    double sum;
+    if (left > 0) {
+      if (right <= 0) {
+        return det;
+      }
+      sum = left + right;
+    }
+    else if (left < 0) {
+      if (right >= 0) {
+        return det;
+      }
+      sum = -left - right;
+    }
+    else {
+      return det;
+    }
+    double bound = ORIENT_ERROR_BOUND * sum;
+    if (det >= bound || -det >= bound) {
+      return det;
+    }
+    return orient2dExact(ax, ay, bx, by, cx, cy);
+  }
+
+  /**
+   * @return 1, if c lies left of the directed line (a, b), -1, if it lies right and 0, if the points are collinear
+   * @see #orient2d(double, double, double, double, double, double)
+   */
+  public static int orientation(double ax, double ay, double bx, double by, double cx, double cy) {
+    return (int) Math.signum(orient2d(ax, ay, bx, by, cx, cy));
+  }
+
+  /**
+   * @see #orientation(double, double, double, double, double, double)
+   */
+  public static int orientation(Vector a, Vector b, Vector c) {
+    return orientation(a.getX(), a.getY(), b.getX(), b.getY(), c.getX(), c.getY());
+  }
+
+  /**
+   * Evaluates, whether the point d lies inside the circle through a, b and c.
+   *
+   * @return a positive value, if d lies inside the circle and the points a, b, c are counter clockwise, a negative
+   * value, if d lies outside, and zero, if the four points are cocircular. The sign is inverted, if a, b, c are
+   * clockwise. The sign is exact, the value an approximation.
+   */
+  public static double incircle(double ax, double ay, double bx, double by, double cx, double cy,
+                                double dx, double dy) {
+    double adx = ax - dx;
+    double bdx = bx - dx;
+    double cdx = cx - dx;
+    double ady = ay - dy;
+    double bdy = by - dy;
+    double cdy = cy - dy;
+
+    double bdxcdy = bdx * cdy;
+    double cdxbdy = cdx * bdy;
+    double alift = adx * adx + ady * ady;
+    double cdxady = cdx * ady;
+    double adxcdy = adx * cdy;
+    double blift = bdx * bdx + bdy * bdy;
+    double adxbdy = adx * bdy;
+    double bdxady = bdx * ady;
+    double clift = cdx * cdx + cdy * cdy;
+
+    double det = alift * (bdxcdy - cdxbdy) + blift * (cdxady - adxcdy) + clift * (adxbdy - bdxady);
+    double permanent = (Math.abs(bdxcdy) + Math.abs(cdxbdy)) * alift
+                     + (Math.abs(cdxady) + Math.abs(adxcdy)) * blift
+                     + (Math.abs(adxbdy) + Math.abs(bdxady)) * clift;
+    double bound = INCIRCLE_ERROR_BOUND * permanent;
+    if (det > bound || -det > bound) {
+      return det;
+    }
+    return incircleExact(ax, ay, bx, by, cx, cy, dx, dy);
+  }
+
+  /**
+   * @return 1, if d lies inside the circle through the counter clockwise points a, b, c, -1, if it lies outside and 0,
+   * if the points are cocircular
+   * @see #incircle(double, double, double, double, double, double, double, double)
+   */
+  public static int inCircle(double ax, double ay, double bx, double by, double cx, double cy, double dx, double dy) {
+    return (int) Math.signum(incircle(ax, ay, bx, by, cx, cy, dx, dy));
+  }
+
+  static double orient2dExact(double ax, double ay, double bx, double by, double cx, double cy) {
+    double[] acx = difference(ax, cx);
+    double[] bcy = difference(by, cy);
+    double[] acy = difference(ay, cy);
+    double[] bcx = difference(bx, cx);
+    double[] det = sum(product(acx, bcy), negate(product(acy, bcx)));
+    return mostSignificant(det);
+  }
+
+  static double incircleExact(double ax, double ay, double bx, double by, double cx, double cy,
+                              double dx, double dy) {
+    double[] adx = difference(ax, dx);
+    double[] bdx = difference(bx, dx);
+    double[] cdx = difference(cx, dx);
+    double[] ady = difference(ay, dy);
+    double[] bdy = difference(by, dy);
+    double[] cdy = difference(cy, dy);
+
+    double[] alift = sum(product(adx, adx), product(ady, ady));
+    double[] blift = sum(product(bdx, bdx), product(bdy, bdy));
+    double[] clift = sum(product(cdx, cdx), product(cdy, cdy));
+    double[] bc = sum(product(bdx, cdy), negate(product(cdx, bdy)));
+    double[] ca = sum(product(cdx, ady), negate(product(adx, cdy)));
+    double[] ab = sum(product(adx, bdy), negate(product(bdx, ady)));
+    double[] det = sum(sum(product(alift, bc), product(blift, ca)), product(clift, ab));
+    return mostSignificant(det);
+  }
+
+  // Arithmetik auf Expansionen: Summen nicht überlappender doubles, aufsteigend nach Betrag, ohne Nullen
+
+  /**
+   * Computes a - b exactly.
+   */
+  private static double[] difference(double a, double b) {
+    double x = a - b;
+    double bVirtual = a - x;
+    double aVirtual = x + bVirtual;
+    double y = (a - aVirtual) + (bVirtual - b);
+    return y == 0 ? (x == 0 ? new double[0] : new double[]{x}) : new double[]{y, x};
+  }
+
+  private static double[] negate(double[] e) {
+    double[] h = new double[e.length];
+    for (int i = 0; i < e.length; i++) {
+      h[i] = -e[i];
+    }
+    return h;
+  }
+
+  /**
+   * Computes e + f exactly (linear expansion sum).
+   */
+  private static double[] sum(double[] e, double[] f) {
+    double[] h = e;
+    for (double b : f) {
+      h = grow(h, b);
+    }
+    return h;
+  }
+
+  /**
+   * Computes e + b exactly (Grow-Expansion with zero elimination).
+   */
+  private static double[] grow(double[] e, double b) {
+    double[] h = new double[e.length + 1];
+    int n = 0;
+    double q = b;
+    for (double ei : e) {
+      double x = q + ei;
+      double bVirtual = x - q;
+      double aVirtual = x - bVirtual;
+      double y = (q - aVirtual) + (ei - bVirtual);
+      q = x;
+      if (y != 0) {
+        h[n++] = y;
+      }
+    }
+    if (q != 0 || n == 0) {
+      h[n++] = q;
+    }
+    return trim(h, n);
+  }
+
+  /**
+   * Computes e * b exactly (Scale-Expansion with zero elimination).
+   */
+  private static double[] scale(double[] e, double b) {
+    if (e.length == 0 || b == 0) {
+      return new double[0];
+    }
+    double[] h = new double[2 * e.length];
+    int n = 0;
+    double q = e[0] * b;
+    double y = Math.fma(e[0], b, -q);
+    if (y != 0) {
+      h[n++] = y;
+    }
+    for (int i = 1; i < e.length; i++) {
+      double product = e[i] * b;
+      double productError = Math.fma(e[i], b, -product);
+      // q + productError
+      double sum = q + productError;
+      double bVirtual = sum - q;
+      double aVirtual = sum - bVirtual;
+      y = (q - aVirtual) + (productError - bVirtual);
+      if (y != 0) {
+        h[n++] = y;
+      }
+      // product + sum, |product| >= |sum|
+      q = product + sum;
+      y = sum - (q - product);
+      if (y != 0) {
+        h[n++] = y;
+      }
+    }
+    if (q != 0 || n == 0) {
+      h[n++] = q;
+    }
+    return trim(h, n);
+  }
+
+  /**
+   * Computes e * f exactly.
+   */
+  private static double[] product(double[] e, double[] f) {
+    double[] h = new double[0];
+    for (double b : f) {
+      h = sum(h, scale(e, b));
+    }
+    return h;
+  }
+
+  private static double[] trim(double[] h, int n) {
+    if (n == 1 && h[0] == 0) {
+      return new double[0];
+    }
+    if (n == h.length) {
+      return h;
+    }
+    double[] trimmed = new double[n];
+    System.arraycopy(h, 0, trimmed, 0, n);
+    return trimmed;
+  }
+
+  /**
+   * Gets the component with the largest magnitude, which determines the sign of the expansion.
+   */
+  private static double mostSignificant(double[] e) {
+    return e.length == 0 ? 0 : e[e.length - 1];
+  }
+}
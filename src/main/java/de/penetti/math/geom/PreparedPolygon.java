@@ -0,0 +1,195 @@
+package de.penetti.math.geom;
+
+import java.util.Objects;
+
+/**
+ * A polygon prepared for fast point-in-polygon queries.
+ * <p>
+ * The bounding box of the polygon is divided into horizontal bands of equal height. Each band stores the edges
+ * whose y range overlaps the band (compressed in one array). A query computes its band directly from the y coordinate
+ * and runs the crossing test of {@link Polyline#contains(Vector)} only over the edges of this band, which are only a
+ * few for typical polygons. Points outside the bounding box are rejected without examining any edge.
+ * </p>
+ * <p>
+ * There are as many bands as edges, but at most so many, that the edges are stored at most about 2n times: long edges
+ * spanning many bands reduce the number of bands, so memory and build time stay O(n).
+ * </p>
+ * <p>
+ * As with {@link Polyline#contains(Vector)} the polyline is regarded as closed. This class is immutable and can be
+ * used by any number of threads.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class PreparedPolygon {
+  private final Polyline polyline;
+  private final double minX;
+  private final double minY;
+  private final double maxX;
+  private final double maxY;
+  private final double scale;       // bands per unit of y
+  private final int bands;
+  private final int[] bandStart;    // edges of band b: bandEdges[bandStart[b]..bandStart[b + 1] - 1]
+  private final int[] bandEdges;
+  private final double[] ax;        // edges with ay <= by
+  private final double[] ay;
+  private final double[] bx;
+  private final double[] by;
+
+  private PreparedPolygon(Polyline polyline) {
+    this.polyline = polyline;
+    PackedPolyline packed = PackedPolyline.fromPolyline(polyline);
+    double[] xs = packed.xs;
+    double[] ys = packed.ys;
+    int n = xs.length;
+    ax = new double[n];
+    ay = new double[n];
+    bx = new double[n];
+    by = new double[n];
+    double x0 = Double.POSITIVE_INFINITY;
+    double y0 = Double.POSITIVE_INFINITY;
+    double x1 = Double.NEGATIVE_INFINITY;
+    double y1 = Double.NEGATIVE_INFINITY;
+    double height = 0;
+    for (int i = 0, j = n - 1; i < n; j = i++) {
+      boolean swap = ys[j] > ys[i];
+      ax[i] = swap ? xs[i] : xs[j];
+      ay[i] = swap ? ys[i] : ys[j];
+      bx[i] = swap ? xs[j] : xs[i];
+      by[i] = swap ? ys[j] : ys[i];
+      x0 = Math.min(x0, xs[i]);
+      y0 = Math.min(y0, ys[i]);
+      x1 = Math.max(x1, xs[i]);
+      y1 = Math.max(y1, ys[i]);
+      height += by[i] - ay[i];
+    }
+    minX = x0;
+    minY = y0;
+    maxX = x1;
+    maxY = y1;
+    // jede Kante liegt in höhe * scale + 1 Streifen: höchstens n Einträge für die Höhe aller Kanten
+    bands = height > 0 ? (int) Math.max(1, Math.min(n, n * (y1 - y0) / height)) : 1;
+    scale = y1 > y0 ? bands / (y1 - y0) : .0;
+
+    bandStart = new int[bands + 1];
+    for (int e = 0; e < n; e++) {
+      for (int b = band(ay[e]), last = band(by[e]); b <= last; b++) {
+        bandStart[b + 1]++;
+      }
+    }
+    for (int b = 0; b < bands; b++) {
+      bandStart[b + 1] += bandStart[b];
+    }
+    bandEdges = new int[bandStart[bands]];
+    int[] fill = new int[bands];
+    for (int e = 0; e < n; e++) {
+      for (int b = band(ay[e]), last = band(by[e]); b <= last; b++) {
+        bandEdges[bandStart[b] + fill[b]++] = e;
+      }
+    }
+  }
+
+  /**
+   * Prepares the given polyline for point-in-polygon queries.
+   *
+   * @param polyline
+   * @return the prepared polygon
+   */
+  public static PreparedPolygon of(Polyline polyline) {
+    Objects.requireNonNull(polyline);
+    return new PreparedPolygon(polyline);
+  }
+
+  private int band(double y) {
+    int b = (int) ((y - minY) * scale);
+    return b < bands ? b : bands - 1;
+  }
+
+  public Polyline getPolyline() {
+    return polyline;
+  }
+
+  /**
+   * Locates the given point relative to the polygon.
+   *
+   * @param v
+   * @return the location
+   */
+  public Location locate(Vector v) {
+    return locate(v.getX(), v.getY());
+  }
+
+  /**
+   * @see #locate(Vector)
+   */
+  public Location locate(double x, double y) {
+    if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) {
+      return Location.OUTSIDE;
+    }
+    boolean inside = false;
+    int b = band(y);
+    for (int i = bandStart[b], end = bandStart[b + 1]; i < end; i++) {
+      int e = bandEdges[i];
+      double ay = this.ay[e];
+      double by = this.by[e];
+      if (y < ay || y > by) {
+        continue;
+      }
+      double ax = this.ax[e];
+      double bx = this.bx[e];
+      int orientation = Predicates.orientation(ax, ay, bx, by, x, y);
+      if (orientation == 0 && x >= Math.min(ax, bx) && x <= Math.max(ax, bx)) {
+        return Location.BOUNDARY;
+      }
+      if (y > ay && orientation < 0) {
+        inside = !inside;
+      }
+    }
+    return inside ? Location.INSIDE : Location.OUTSIDE;
+  }
+
+  /**
+   * Same as {@link Polyline#contains(Vector)}: the point is also contained, if it lies on the boundary.
+   *
+   * @param v
+   * @return
+   */
+  public boolean contains(Vector v) {
+    return locate(v.getX(), v.getY()) != Location.OUTSIDE;
+  }
+
+  /**
+   * @see #contains(Vector)
+   */
+  public boolean contains(double x, double y) {
+    return locate(x, y) != Location.OUTSIDE;
+  }
+
+  /**
+   * Tests a batch of points.
+   *
+   * @param xs  x coordinates of the points
+   * @param ys  y coordinates of the points
+   * @param out receives for each point, whether it is contained
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public void contains(double[] xs, double[] ys, boolean[] out) {
+    if (xs.length != ys.length || xs.length != out.length) {
+      throw new IllegalArgumentException("The arrays must have the same length.");
+    }
+    for (int i = 0; i < xs.length; i++) {
+      out[i] = locate(xs[i], ys[i]) != Location.OUTSIDE;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PreparedPolygon(%s; %d Bands)", polyline, bands);
+  }
+
+  public enum Location {
+    INSIDE,     // Der Punkt liegt innerhalb des Polygons
+    BOUNDARY,   // Der Punkt liegt auf einer Kante bzw. einem Eckpunkt des Polygons
+    OUTSIDE     // Der Punkt liegt außerhalb des Polygons
+  }
+}
@@ -0,0 +1,521 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.geom.Line.LineStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Indexed view of the segments of a {@link Polyline}.
+ * <p>
+ * The segments are stored in an R-tree, which is bulk loaded with the Sort-Tile-Recursive (STR) algorithm: the
+ * entries of a level are sorted by x, cut into vertical slices, each slice is sorted by y and packed into nodes of
+ * {@value #NODE_CAPACITY} entries. The tree is stored in primitive arrays; window, intersection and nearest segment
+ * queries visit only the nodes whose bounding boxes are relevant, i.e. O(log n) nodes for small queries.
+ * </p>
+ * <p>
+ * The segment {@code i} starts at vertex {@code i} of the polyline. This class is immutable and can be used by any
+ * number of threads.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class SegmentIndex {
+  static final int NODE_CAPACITY = 16;
+  private final Polyline polyline;
+  private final PackedPolyline packed;
+  private final int[] items;        // segments in leaf order
+  private final double[] minX;      // bounding boxes of the nodes
+  private final double[] minY;
+  private final double[] maxX;
+  private final double[] maxY;
+  private final int[] first;        // first child (node or item position)
+  private final int[] last;         // last child (exclusive)
+  private final int leaves;         // the nodes 0..leaves-1 are leaves
+  private final int root;
+
+  private SegmentIndex(Polyline polyline) {
+    this.polyline = polyline;
+    this.packed = PackedPolyline.fromPolyline(polyline);
+    int segments = packed.segments();
+    double[] xs = packed.xs;
+    double[] ys = packed.ys;
+    int n = xs.length;
+
+    // Ebene 0: Bounding-Boxen der Strecken
+    double[] eMinX = new double[segments];
+    double[] eMinY = new double[segments];
+    double[] eMaxX = new double[segments];
+    double[] eMaxY = new double[segments];
+    for (int s = 0; s < segments; s++) {
+      int e = s + 1 == n ? 0 : s + 1;
+      eMinX[s] = Math.min(xs[s], xs[e]);
+      eMaxX[s] = Math.max(xs[s], xs[e]);
+      eMinY[s] = Math.min(ys[s], ys[e]);
+      eMaxY[s] = Math.max(ys[s], ys[e]);
+    }
+    items = str(eMinX, eMinY, eMaxX, eMaxY, segments);
+
+    int capacity = nodeCount(segments);
+    minX = new double[capacity];
+    minY = new double[capacity];
+    maxX = new double[capacity];
+    maxY = new double[capacity];
+    first = new int[capacity];
+    last = new int[capacity];
+
+    int count = 0;
+    for (int i = 0; i < segments; i += NODE_CAPACITY) {
+      count = addNode(count, i, Math.min(i + NODE_CAPACITY, segments), items, eMinX, eMinY, eMaxX, eMaxY);
+    }
+    leaves = count;
+
+    int levelStart = 0;
+    while (count - levelStart > 1) {
+      int levelSize = count - levelStart;
+      // Knoten der Ebene nach STR umsortieren, damit Geschwister zusammenhängend liegen
+      double[] lMinX = Arrays.copyOfRange(minX, levelStart, count);
+      double[] lMinY = Arrays.copyOfRange(minY, levelStart, count);
+      double[] lMaxX = Arrays.copyOfRange(maxX, levelStart, count);
+      double[] lMaxY = Arrays.copyOfRange(maxY, levelStart, count);
+      int[] lFirst = Arrays.copyOfRange(first, levelStart, count);
+      int[] lLast = Arrays.copyOfRange(last, levelStart, count);
+      int[] order = str(lMinX, lMinY, lMaxX, lMaxY, levelSize);
+      for (int i = 0; i < levelSize; i++) {
+        int o = order[i];
+        minX[levelStart + i] = lMinX[o];
+        minY[levelStart + i] = lMinY[o];
+        maxX[levelStart + i] = lMaxX[o];
+        maxY[levelStart + i] = lMaxY[o];
+        first[levelStart + i] = lFirst[o];
+        last[levelStart + i] = lLast[o];
+      }
+      int nextLevel = count;
+      for (int i = levelStart; i < nextLevel; i += NODE_CAPACITY) {
+        count = addNode(count, i, Math.min(i + NODE_CAPACITY, nextLevel), null, minX, minY, maxX, maxY);
+      }
+      levelStart = nextLevel;
+    }
+    root = count - 1;
+  }
+
+  /**
+   * Creates the index of the segments of the given polyline.
+   *
+   * @param polyline
+   * @return the index
+   */
+  public static SegmentIndex of(Polyline polyline) {
+    Objects.requireNonNull(polyline);
+    return new SegmentIndex(polyline);
+  }
+
+  private static int nodeCount(int entries) {
+    int count = 0;
+    do {
+      entries = (entries + NODE_CAPACITY - 1) / NODE_CAPACITY;
+      count += entries;
+    }
+    while (entries > 1);
+    return count;
+  }
+
+  private int addNode(int node, int from, int to, int[] indices,
+                      double[] eMinX, double[] eMinY, double[] eMaxX, double[] eMaxY) {
+    double nMinX = Double.POSITIVE_INFINITY;
+    double nMinY = Double.POSITIVE_INFINITY;
+    double nMaxX = Double.NEGATIVE_INFINITY;
+    double nMaxY = Double.NEGATIVE_INFINITY;
+    for (int i = from; i < to; i++) {
+      int e = indices == null ? i : indices[i];
+      nMinX = Math.min(nMinX, eMinX[e]);
+      nMinY = Math.min(nMinY, eMinY[e]);
+      nMaxX = Math.max(nMaxX, eMaxX[e]);
+      nMaxY = Math.max(nMaxY, eMaxY[e]);
+    }
+    minX[node] = nMinX;
+    minY[node] = nMinY;
+    maxX[node] = nMaxX;
+    maxY[node] = nMaxY;
+    first[node] = from;
+    last[node] = to;
+    return node + 1;
+  }
+
+  /**
+   * Orders the entries after Sort-Tile-Recursive.
+   */
+  private static int[] str(double[] eMinX, double[] eMinY, double[] eMaxX, double[] eMaxY, int n) {
+    double[] centerX = new double[n];
+    double[] centerY = new double[n];
+    for (int i = 0; i < n; i++) {
+      centerX[i] = (eMinX[i] + eMaxX[i]) * .5;
+      centerY[i] = (eMinY[i] + eMaxY[i]) * .5;
+    }
+    int[] order = IndexSort.sort(centerX, n);
+    int nodes = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    int sliceSize = (int) Math.ceil(Math.sqrt(nodes)) * NODE_CAPACITY;
+    for (int from = 0; from < n; from += sliceSize) {
+      IndexSort.sort(order, from, Math.min(from + sliceSize, n), centerY);
+    }
+    return order;
+  }
+
+  public Polyline getPolyline() {
+    return polyline;
+  }
+
+  /**
+   * @return number of indexed segments
+   */
+  public int size() {
+    return items.length;
+  }
+
+  /**
+   * Reports each segment whose bounding box intersects the given window.
+   *
+   * @param consumer receives the indices of the segments
+   */
+  public void window(double minX, double minY, double maxX, double maxY, IntConsumer consumer) {
+    search(minX, minY, maxX, maxY, s -> {
+      consumer.accept(s);
+      return true;
+    });
+  }
+
+  /**
+   * Reports the segments whose bounding box intersects the given window, until the visitor returns {@code false}.
+   *
+   * @return {@code false}, if the visitor stopped the query
+   */
+  private boolean search(double minX, double minY, double maxX, double maxY, IntPredicate visitor) {
+    int[] stack = new int[64];
+    int top = 0;
+    stack[top++] = root;
+    while (top > 0) {
+      int node = stack[--top];
+      if (this.minX[node] > maxX || this.maxX[node] < minX || this.minY[node] > maxY || this.maxY[node] < minY) {
+        continue;
+      }
+      if (node < leaves) {
+        for (int i = first[node]; i < last[node]; i++) {
+          int s = items[i];
+          int e = next(s);
+          if (Math.min(packed.xs[s], packed.xs[e]) <= maxX && Math.max(packed.xs[s], packed.xs[e]) >= minX &&
+              Math.min(packed.ys[s], packed.ys[e]) <= maxY && Math.max(packed.ys[s], packed.ys[e]) >= minY &&
+              !visitor.test(s)) {
+            return false;
+          }
+        }
+      }
+      else {
+        for (int child = first[node]; child < last[node]; child++) {
+          if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+          }
+          stack[top++] = child;
+        }
+      }
+    }
+    return true;
+  }
+
+  private int next(int vertex) {
+    return vertex + 1 == packed.size() ? 0 : vertex + 1;
+  }
+
+  /**
+   * Determines the segments which intersect the given line segment.
+   * Unlike {@link Polyline#intersection(Line)} only real intersections ({@link LineStatus#SEGMENT_INTERSECTS}) are
+   * returned.
+   *
+   * @param line
+   * @return the intersections, sorted by the segments
+   */
+  public Collection<Polyline.LineIntersection> intersection(Line line) {
+    double cx = line.getOrigin().getX();
+    double cy = line.getOrigin().getY();
+    double dx = line.getDestination().getX();
+    double dy = line.getDestination().getY();
+    int[][] hits = {new int[8]};
+    int[] count = {0};
+    LineIntersector.Result result = new LineIntersector.Result();
+    window(Math.min(cx, dx), Math.min(cy, dy), Math.max(cx, dx), Math.max(cy, dy), s -> {
+      int e = next(s);
+      if (LineIntersector.intersect(packed.xs[s], packed.ys[s], packed.xs[e], packed.ys[e], cx, cy, dx, dy, result)
+          == LineStatus.SEGMENT_INTERSECTS) {
+        if (count[0] == hits[0].length) {
+          hits[0] = Arrays.copyOf(hits[0], count[0] * 2);
+        }
+        hits[0][count[0]++] = s;
+      }
+    });
+    Arrays.sort(hits[0], 0, count[0]);
+    Collection<Polyline.LineIntersection> intersections = new ArrayList<>(count[0]);
+    for (int i = 0; i < count[0]; i++) {
+      int s = hits[0][i];
+      int e = next(s);
+      LineIntersector.intersect(packed.xs[s], packed.ys[s], packed.xs[e], packed.ys[e], cx, cy, dx, dy, result);
+      intersections.add(new Polyline.LineIntersection(polyline.segment(s), line, result.getIntersection(),
+                                                      LineStatus.SEGMENT_INTERSECTS, polyline));
+    }
+    return intersections;
+  }
+
+  /**
+   * Tests, if any segment intersects the given line segment.
+   *
+   * @param line
+   * @return true if there is a {@link LineStatus#SEGMENT_INTERSECTS} intersection
+   */
+  public boolean intersects(Line line) {
+    double cx = line.getOrigin().getX();
+    double cy = line.getOrigin().getY();
+    double dx = line.getDestination().getX();
+    double dy = line.getDestination().getY();
+    // die Suche endet beim ersten Schnittpunkt
+    return !search(Math.min(cx, dx), Math.min(cy, dy), Math.max(cx, dx), Math.max(cy, dy), s -> {
+      int e = next(s);
+      return LineIntersector.intersect(packed.xs[s], packed.ys[s], packed.xs[e], packed.ys[e], cx, cy, dx, dy, null)
+             != LineStatus.SEGMENT_INTERSECTS;
+    });
+  }
+
+  /**
+   * Same as {@link Polyline#contains(Vector)}, but only the segments left of the point at its height are examined.
+   * Like there, the polyline is regarded as closed: the closing segment of an open polyline, which is not indexed, is
+   * always tested.
+   *
+   * @param v
+   * @return
+   */
+  public boolean contains(Vector v) {
+    double x = v.getX();
+    double y = v.getY();
+    int[] t = {-1};
+    window(Double.NEGATIVE_INFINITY, y, x, y, s -> {
+      if (t[0] != 0) {
+        int e = next(s);
+        t[0] *= crossingTest(x, y, packed.xs[s], packed.ys[s], packed.xs[e], packed.ys[e]);
+      }
+    });
+    if (!packed.isClosed() && t[0] != 0) {
+      int last = packed.size() - 1;
+      t[0] *= crossingTest(x, y, packed.xs[last], packed.ys[last], packed.xs[0], packed.ys[0]);
+    }
+    return t[0] >= 0;
+  }
+
+  private static int crossingTest(double x, double y, double ax, double ay, double bx, double by) {
+    if (ay > by) {
+      double tmp = ax;
+      ax = bx;
+      bx = tmp;
+      tmp = ay;
+      ay = by;
+      by = tmp;
+    }
+    if (y <= ay || y > by) {
+      return 1;
+    }
+    return Predicates.orientation(ax, ay, bx, by, x, y);
+  }
+
+  /**
+   * Determines the segment which is nearest to the given point.
+   * The nodes are visited best first, ordered by the distance of their bounding boxes.
+   *
+   * @param v
+   * @return index of the nearest segment
+   */
+  public int nearestSegment(Vector v) {
+    return nearestSegment(v.getX(), v.getY());
+  }
+
+  /**
+   * @see #nearestSegment(Vector)
+   */
+  public int nearestSegment(double x, double y) {
+    // binärer Heap über (Distanz², Knoten)
+    double[] keys = new double[64];
+    int[] nodes = new int[64];
+    int size = 0;
+    keys[size] = boxDistanceSq(root, x, y);
+    nodes[size++] = root;
+    double best = Double.POSITIVE_INFINITY;
+    int bestSegment = -1;
+    while (size > 0) {
+      double key = keys[0];
+      int node = nodes[0];
+      size--;
+      keys[0] = keys[size];
+      nodes[0] = nodes[size];
+      siftDown(keys, nodes, size);
+      if (key > best) {
+        break;
+      }
+      if (node < leaves) {
+        for (int i = first[node]; i < last[node]; i++) {
+          int s = items[i];
+          int e = next(s);
+          double d = segmentDistanceSq(x, y, packed.xs[s], packed.ys[s], packed.xs[e], packed.ys[e]);
+          if (d < best || (d == best && s < bestSegment)) {
+            best = d;
+            bestSegment = s;
+          }
+        }
+      }
+      else {
+        for (int child = first[node]; child < last[node]; child++) {
+          double d = boxDistanceSq(child, x, y);
+          if (d <= best) {
+            if (size == keys.length) {
+              keys = Arrays.copyOf(keys, size * 2);
+              nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            keys[size] = d;
+            nodes[size] = child;
+            siftUp(keys, nodes, size++);
+          }
+        }
+      }
+    }
+    return bestSegment;
+  }
+
+  private static void siftUp(double[] keys, int[] nodes, int i) {
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (keys[parent] <= keys[i]) {
+        return;
+      }
+      swap(keys, nodes, i, parent);
+      i = parent;
+    }
+  }
+
+  private static void siftDown(double[] keys, int[] nodes, int size) {
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) {
+        return;
+      }
+      if (child + 1 < size && keys[child + 1] < keys[child]) {
+        child++;
+      }
+      if (keys[i] <= keys[child]) {
+        return;
+      }
+      swap(keys, nodes, i, child);
+      i = child;
+    }
+  }
+
+  private static void swap(double[] keys, int[] nodes, int i, int j) {
+    double k = keys[i];
+    keys[i] = keys[j];
+    keys[j] = k;
+    int n = nodes[i];
+    nodes[i] = nodes[j];
+    nodes[j] = n;
+  }
+
+  private double boxDistanceSq(int node, double x, double y) {
+    double dx = Math.max(Math.max(minX[node] - x, x - maxX[node]), .0);
+    double dy = Math.max(Math.max(minY[node] - y, y - maxY[node]), .0);
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * Computes the squared distance of the point (x, y) to the segment (a, b).
+   */
+  static double segmentDistanceSq(double x, double y, double ax, double ay, double bx, double by) {
+    double dx = bx - ax;
+    double dy = by - ay;
+    double t = segmentParameter(x, y, ax, ay, bx, by);
+    double px = ax + t * dx - x;
+    double py = ay + t * dy - y;
+    return px * px + py * py;
+  }
+
+  /**
+   * Gets the parameter t in [0, 1] of the point a + t (b - a) of the segment (a, b) which is closest to (x, y).
+   */
+  static double segmentParameter(double x, double y, double ax, double ay, double bx, double by) {
+    double dx = bx - ax;
+    double dy = by - ay;
+    double l = dx * dx + dy * dy;
+    double t = l == .0 ? .0 : ((x - ax) * dx + (y - ay) * dy) / l;
+    if (t < .0) {
+      return .0;
+    }
+    return t > 1. ? 1. : t;
+  }
+
+  /**
+   * Gets the point of the polyline which is closest to the given point.
+   *
+   * @param v
+   * @return the closest point
+   * @see Polyline#closestPoint(Vector)
+   */
+  public Vector closestPoint(Vector v) {
+    double x = v.getX();
+    double y = v.getY();
+    int s = nearestSegment(x, y);
+    int e = next(s);
+    double ax = packed.xs[s];
+    double ay = packed.ys[s];
+    double t = segmentParameter(x, y, ax, ay, packed.xs[e], packed.ys[e]);
+    return new Vector(ax + t * (packed.xs[e] - ax), ay + t * (packed.ys[e] - ay));
+  }
+
+  /**
+   * Gets the distance of the given point to the polyline.
+   *
+   * @param v
+   * @return the distance
+   * @see Polyline#distance(Vector)
+   */
+  public double distance(Vector v) {
+    return distance(v.getX(), v.getY());
+  }
+
+  /**
+   * @see #distance(Vector)
+   */
+  public double distance(double x, double y) {
+    int s = nearestSegment(x, y);
+    int e = next(s);
+    return Math.sqrt(segmentDistanceSq(x, y, packed.xs[s], packed.ys[s], packed.xs[e], packed.ys[e]));
+  }
+
+  /**
+   * Computes the distances of a batch of points to the polyline.
+   *
+   * @param xs       x coordinates of the points
+   * @param ys       y coordinates of the points
+   * @param out      receives the distance of each point
+   * @param parallel whether the points are processed in parallel
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public void distances(double[] xs, double[] ys, double[] out, boolean parallel) {
+    if (xs.length != ys.length || xs.length != out.length) {
+      throw new IllegalArgumentException("The arrays must have the same length.");
+    }
+    IntStream indices = IntStream.range(0, xs.length);
+    (parallel ? indices.parallel() : indices).forEach(i -> out[i] = distance(xs[i], ys[i]));
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SegmentIndex(%s; %d Segments)", polyline, size());
+  }
+}
@@ -0,0 +1,319 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.geom.Line.LineStatus;
+
+import java.util.Arrays;
+
+/**
+ * Output sensitive segment intersection of two polylines, or of one polyline with itself.
+ * <p>
+ * The segments of each polyline are grouped into monotone chains, i.e. runs of consecutive segments whose
+ * directions lie in the same quadrant. The bounding box of a monotone chain (or of any part of it) is given by
+ * its first and last vertex. The chains are swept in x direction; the active chains are kept in an
+ * {@link ActiveBoxes} index over their y intervals, so only chains whose bounding boxes overlap are met. They are
+ * examined by bisecting both chains until single segments remain. Therefore only segment pairs with overlapping
+ * bounding boxes are tested and only real intersections ({@link LineStatus#SEGMENT_INTERSECTS}) are reported.
+ * </p>
+ * <p>
+ * With p pairs of chains whose bounding boxes overlap, the sweep needs O((n + p) log n) time plus the bisection of
+ * these pairs. For typical polylines p is proportional to n + k for k intersections. In the worst case, e.g. many
+ * long chains sharing their bounding boxes without crossing, p is quadratic in n.
+ * </p>
+ * <p>
+ * When a polyline is intersected with itself, the segments of one monotone chain cannot cross each other, so only
+ * pairs of different chains are examined. Adjacent segments share a vertex, which is no intersection; they are
+ * reported only if they overlap, i.e. the polyline turns back on itself. Non-adjacent collinear segments are
+ * reported, if they overlap. If the last vertex of a closed polyline repeats the first one, the closing segment has
+ * length 0 and is skipped, so the segments at the repeated vertex are adjacent.
+ * </p>
+ *
+ * @author Enrico
+ */
+final class SegmentSweep {
+  private final double[][] xs;
+  private final double[][] ys;
+  private final int[] vertices;
+  private final Visitor visitor;
+  private final boolean self;
+  private final boolean closed;
+  private final int segments;
+  private final LineIntersector.Result result = new LineIntersector.Result();
+  private boolean stopped;
+
+  private SegmentSweep(PackedPolyline polyline1, PackedPolyline polyline2, Visitor visitor) {
+    this.xs = new double[][]{polyline1.xs, polyline2.xs};
+    this.ys = new double[][]{polyline1.ys, polyline2.ys};
+    this.visitor = visitor;
+    this.self = polyline1 == polyline2;
+    this.closed = polyline1.isClosed();
+    int n = polyline1.size();
+    if (self && closed && n > 2 && xs[0][n - 1] == xs[0][0] && ys[0][n - 1] == ys[0][0]) {
+      // die schließende Strecke hat die Länge 0
+      n--;
+    }
+    this.vertices = new int[]{n, self ? n : polyline2.size()};
+    this.segments = closed ? n : n - 1;
+  }
+
+  /**
+   * Reports each intersection of a segment of {@code polyline1} with a segment of {@code polyline2} to the visitor.
+   * The order of the reported intersections is undefined.
+   *
+   * @param polyline1
+   * @param polyline2
+   * @param visitor   receives the intersections
+   */
+  static void intersections(PackedPolyline polyline1, PackedPolyline polyline2, Visitor visitor) {
+    SegmentSweep sweep = new SegmentSweep(polyline1, polyline2, visitor);
+    sweep.sweep(new Chains(polyline1, sweep.vertices[0], polyline1.segments(), 0),
+                new Chains(polyline2, sweep.vertices[1], polyline2.segments(), 1));
+  }
+
+  /**
+   * Reports each intersection of two segments of the polyline to the visitor, with {@code segment1 < segment2}.
+   * The order of the reported intersections is undefined.
+   *
+   * @param polyline
+   * @param visitor  receives the intersections
+   */
+  static void selfIntersections(PackedPolyline polyline, Visitor visitor) {
+    SegmentSweep sweep = new SegmentSweep(polyline, polyline, visitor);
+    sweep.sweep(new Chains(polyline, sweep.vertices[0], sweep.segments, 0), new Chains(0));
+  }
+
+  private void sweep(Chains chains1, Chains chains2) {
+    Chains chains = Chains.merge(chains1, chains2);
+    int[] order = chains.sortedByMinX();
+    // die aktiven Ketten je Polyline; beim Schnitt mit sich selbst nur eine
+    ActiveBoxes[] active = new ActiveBoxes[self ? 1 : 2];
+    active[0] = new ActiveBoxes(chains.minY, chains.maxY, chains.maxX, chains.size);
+    if (!self) {
+      active[1] = new ActiveBoxes(active[0]);
+    }
+    for (int c : order) {
+      int owner = chains.owner[c];
+      boolean go = active[self ? 0 : 1 - owner].query(c, chains.minX[c], a -> {
+        if (owner == 0) {
+          overlap(chains.start[c], chains.end[c], chains.start[a], chains.end[a]);
+        }
+        else {
+          overlap(chains.start[a], chains.end[a], chains.start[c], chains.end[c]);
+        }
+        return !stopped;
+      });
+      if (!go) {
+        return;
+      }
+      active[self ? 0 : owner].insert(c);
+    }
+  }
+
+  /**
+   * Examines the segments {@code s0..s1} of the first and {@code t0..t1} of the second polyline; both ranges are parts
+   * of monotone chains.
+   */
+  private void overlap(int s0, int s1, int t0, int t1) {
+    if (stopped || !overlaps(s0, s1, t0, t1)) {
+      return;
+    }
+    if (s0 == s1 && t0 == t1) {
+      intersect(s0, t0);
+      return;
+    }
+    int sMid = (s0 + s1) >>> 1;
+    int tMid = (t0 + t1) >>> 1;
+    if (s0 < s1) {
+      if (t0 < t1) {
+        overlap(s0, sMid, t0, tMid);
+        overlap(s0, sMid, tMid + 1, t1);
+        overlap(sMid + 1, s1, t0, tMid);
+        overlap(sMid + 1, s1, tMid + 1, t1);
+      }
+      else {
+        overlap(s0, sMid, t0, t1);
+        overlap(sMid + 1, s1, t0, t1);
+      }
+    }
+    else {
+      overlap(s0, s1, t0, tMid);
+      overlap(s0, s1, tMid + 1, t1);
+    }
+  }
+
+  private boolean overlaps(int s0, int s1, int t0, int t1) {
+    int sEnd = next(0, s1);
+    int tEnd = next(1, t1);
+    double[] x0 = xs[0];
+    double[] y0 = ys[0];
+    double[] x1 = xs[1];
+    double[] y1 = ys[1];
+    return Math.max(x0[s0], x0[sEnd]) >= Math.min(x1[t0], x1[tEnd]) &&
+           Math.min(x0[s0], x0[sEnd]) <= Math.max(x1[t0], x1[tEnd]) &&
+           Math.max(y0[s0], y0[sEnd]) >= Math.min(y1[t0], y1[tEnd]) &&
+           Math.min(y0[s0], y0[sEnd]) <= Math.max(y1[t0], y1[tEnd]);
+  }
+
+  private void intersect(int s, int t) {
+    if (self) {
+      selfIntersect(Math.min(s, t), Math.max(s, t));
+      return;
+    }
+    int sEnd = next(0, s);
+    int tEnd = next(1, t);
+    LineStatus status = LineIntersector.intersect(xs[0][s], ys[0][s], xs[0][sEnd], ys[0][sEnd],
+                                                  xs[1][t], ys[1][t], xs[1][tEnd], ys[1][tEnd], result);
+    if (status == LineStatus.SEGMENT_INTERSECTS) {
+      stopped = !visitor.intersection(s, t, result.getX(), result.getY());
+    }
+  }
+
+  private void selfIntersect(int s, int t) {
+    double[] x = xs[0];
+    double[] y = ys[0];
+    int sEnd = next(0, s);
+    int tEnd = next(0, t);
+    if (t == s + 1 || (closed && s == 0 && t == segments - 1)) {
+      // benachbarte Strecken: nur ein Zurücklaufen auf der Strecke ist ein Schnitt
+      int shared = t == s + 1 ? sEnd : s;
+      int from = t == s + 1 ? s : t;
+      int to = t == s + 1 ? tEnd : sEnd;
+      if (Predicates.orientation(x[from], y[from], x[shared], y[shared], x[to], y[to]) == 0 &&
+          (x[from] - x[shared]) * (x[to] - x[shared]) + (y[from] - y[shared]) * (y[to] - y[shared]) > 0) {
+        stopped = !visitor.intersection(s, t, x[shared], y[shared]);
+      }
+      return;
+    }
+    LineStatus status = LineIntersector.intersect(x[s], y[s], x[sEnd], y[sEnd], x[t], y[t], x[tEnd], y[tEnd], result);
+    if (status == LineStatus.SEGMENT_INTERSECTS) {
+      stopped = !visitor.intersection(s, t, result.getX(), result.getY());
+    }
+    else if (status == LineStatus.IDENTICAL) {
+      // kollineare Strecken schneiden sich, wenn sich ihre Projektionen überlappen
+      boolean byX = Math.abs(x[sEnd] - x[s]) >= Math.abs(y[sEnd] - y[s]);
+      double[] k = byX ? x : y;
+      double lo = Math.max(Math.min(k[s], k[sEnd]), Math.min(k[t], k[tEnd]));
+      double hi = Math.min(Math.max(k[s], k[sEnd]), Math.max(k[t], k[tEnd]));
+      if (lo <= hi) {
+        int p = k[t] >= Math.min(k[s], k[sEnd]) && k[t] <= Math.max(k[s], k[sEnd]) ? t
+              : k[tEnd] >= Math.min(k[s], k[sEnd]) && k[tEnd] <= Math.max(k[s], k[sEnd]) ? tEnd
+              : s;
+        stopped = !visitor.intersection(s, t, x[p], y[p]);
+      }
+    }
+  }
+
+  private int next(int polyline, int vertex) {
+    return vertex + 1 == vertices[polyline] ? 0 : vertex + 1;
+  }
+
+  /**
+   * Receives the intersections found by a {@link SegmentSweep}.
+   * The segment {@code i} of a polyline starts at its vertex {@code i}.
+   */
+  interface Visitor {
+    /**
+     * @return {@code false} to stop the sweep
+     */
+    boolean intersection(int segment1, int segment2, double x, double y);
+  }
+
+  /**
+   * The monotone chains of one or more polylines. A chain covers the segments {@code start..end} (inclusive).
+   */
+  private static final class Chains {
+    private int size;
+    private int[] start;
+    private int[] end;
+    private int[] owner;
+    private double[] minX;
+    private double[] maxX;
+    private double[] minY;
+    private double[] maxY;
+
+    private Chains(int capacity) {
+      start = new int[capacity];
+      end = new int[capacity];
+      owner = new int[capacity];
+      minX = new double[capacity];
+      maxX = new double[capacity];
+      minY = new double[capacity];
+      maxY = new double[capacity];
+    }
+
+    /**
+     * @param n        the number of vertices to use
+     * @param segments the number of segments to use
+     */
+    private Chains(PackedPolyline polyline, int n, int segments, int owner) {
+      this(8);
+      double[] xs = polyline.xs;
+      double[] ys = polyline.ys;
+      int first = 0;
+      int quadrant = quadrant(xs, ys, 0, n);
+      for (int s = 1; s < segments; s++) {
+        int q = quadrant(xs, ys, s, n);
+        if (q != quadrant) {
+          add(xs, ys, first, s - 1, n, owner);
+          first = s;
+          quadrant = q;
+        }
+      }
+      add(xs, ys, first, segments - 1, n, owner);
+    }
+
+    private static int quadrant(double[] xs, double[] ys, int segment, int n) {
+      int next = segment + 1 == n ? 0 : segment + 1;
+      double dx = xs[next] - xs[segment];
+      double dy = ys[next] - ys[segment];
+      if (dx >= .0) {
+        return dy >= .0 ? 0 : 3;
+      }
+      return dy >= .0 ? 1 : 2;
+    }
+
+    private void add(double[] xs, double[] ys, int first, int last, int n, int owner) {
+      int lastVertex = last + 1 == n ? 0 : last + 1;
+      add(first, last, owner,
+          Math.min(xs[first], xs[lastVertex]), Math.max(xs[first], xs[lastVertex]),
+          Math.min(ys[first], ys[lastVertex]), Math.max(ys[first], ys[lastVertex]));
+    }
+
+    private void add(int first, int last, int owner, double minX, double maxX, double minY, double maxY) {
+      if (size == start.length) {
+        int capacity = size * 2;
+        start = Arrays.copyOf(start, capacity);
+        end = Arrays.copyOf(end, capacity);
+        this.owner = Arrays.copyOf(this.owner, capacity);
+        this.minX = Arrays.copyOf(this.minX, capacity);
+        this.maxX = Arrays.copyOf(this.maxX, capacity);
+        this.minY = Arrays.copyOf(this.minY, capacity);
+        this.maxY = Arrays.copyOf(this.maxY, capacity);
+      }
+      start[size] = first;
+      end[size] = last;
+      this.owner[size] = owner;
+      this.minX[size] = minX;
+      this.maxX[size] = maxX;
+      this.minY[size] = minY;
+      this.maxY[size] = maxY;
+      size++;
+    }
+
+    private static Chains merge(Chains chains1, Chains chains2) {
+      Chains chains = new Chains(chains1.size + chains2.size);
+      for (Chains c : new Chains[]{chains1, chains2}) {
+        for (int i = 0; i < c.size; i++) {
+          chains.add(c.start[i], c.end[i], c.owner[i], c.minX[i], c.maxX[i], c.minY[i], c.maxY[i]);
+        }
+      }
+      return chains;
+    }
+
+    /**
+     * Sorts the chain indices by the minimum x coordinate of the chains.
+     */
+    private int[] sortedByMinX() {
+      return IndexSort.sort(minX, size);
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package de.penetti.math.geom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Affine transformation of the plane, stored as 2x3 matrix.
+ * <pre>
+ *   | x' |   | m00 m01 m02 |   | x |
+ *   | y' | = | m10 m11 m12 | * | y |
+ *                              | 1 |
+ * </pre>
+ * Translations, rotations, scalings and shearings are composed into one matrix with {@link #then(Transform2D)} or
+ * the fluent methods, so sine and cosine are computed once per transformation and not once per point. Geometries are
+ * transformed in one pass; for very large inputs the points can be transformed in parallel.
+ * <p>
+ * This class is immutable.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class Transform2D {
+  private static final Transform2D IDENTITY = new Transform2D(1, 0, 0, 0, 1, 0);
+  private final double m00;
+  private final double m01;
+  private final double m02;
+  private final double m10;
+  private final double m11;
+  private final double m12;
+
+  private Transform2D(double m00, double m01, double m02, double m10, double m11, double m12) {
+    this.m00 = m00;
+    this.m01 = m01;
+    this.m02 = m02;
+    this.m10 = m10;
+    this.m11 = m11;
+    this.m12 = m12;
+  }
+
+  /**
+   * Creates the transformation from the given matrix elements.
+   */
+  public static Transform2D of(double m00, double m01, double m02, double m10, double m11, double m12) {
+    return new Transform2D(m00, m01, m02, m10, m11, m12);
+  }
+
+  public static Transform2D identity() {
+    return IDENTITY;
+  }
+
+  public static Transform2D translation(double tx, double ty) {
+    return new Transform2D(1, 0, tx, 0, 1, ty);
+  }
+
+  public static Transform2D translation(Vector t) {
+    return translation(t.getX(), t.getY());
+  }
+
+  /**
+   * Rotation around the coordinate origin.
+   *
+   * @param angle in radians
+   * @see Vector#rotate(double)
+   */
+  public static Transform2D rotation(double angle) {
+    double ca = Math.cos(angle);
+    double sa = Math.sin(angle);
+    return new Transform2D(ca, -sa, 0, sa, ca, 0);
+  }
+
+  /**
+   * Rotation around the given origin.
+   *
+   * @param origin vector around which to rotate
+   * @param angle  in radians
+   * @see Vector#rotate(Vector, double)
+   */
+  public static Transform2D rotation(Vector origin, double angle) {
+    double ca = Math.cos(angle);
+    double sa = Math.sin(angle);
+    double ox = origin.getX();
+    double oy = origin.getY();
+    return new Transform2D(ca, -sa, ox - ox * ca + oy * sa,
+                           sa, ca, oy - ox * sa - oy * ca);
+  }
+
+  public static Transform2D scaling(double s) {
+    return scaling(s, s);
+  }
+
+  public static Transform2D scaling(double sx, double sy) {
+    return new Transform2D(sx, 0, 0, 0, sy, 0);
+  }
+
+  /**
+   * Shearing with x' = x + shx * y and y' = y + shy * x.
+   */
+  public static Transform2D shearing(double shx, double shy) {
+    return new Transform2D(1, shx, 0, shy, 1, 0);
+  }
+
+  /**
+   * Composes this transformation with the given one: the result applies this transformation first and
+   * {@code next} afterwards.
+   *
+   * @param next the transformation to apply after this one
+   * @return the composed transformation
+   */
+  public Transform2D then(Transform2D next) {
+    return new Transform2D(next.m00 * m00 + next.m01 * m10,
+                           next.m00 * m01 + next.m01 * m11,
+                           next.m00 * m02 + next.m01 * m12 + next.m02,
+                           next.m10 * m00 + next.m11 * m10,
+                           next.m10 * m01 + next.m11 * m11,
+                           next.m10 * m02 + next.m11 * m12 + next.m12);
+  }
+
+  public Transform2D translate(double tx, double ty) {
+    return then(translation(tx, ty));
+  }
+
+  public Transform2D rotate(double angle) {
+    return then(rotation(angle));
+  }
+
+  public Transform2D rotate(Vector origin, double angle) {
+    return then(rotation(origin, angle));
+  }
+
+  public Transform2D scale(double sx, double sy) {
+    return then(scaling(sx, sy));
+  }
+
+  public Transform2D shear(double shx, double shy) {
+    return then(shearing(shx, shy));
+  }
+
+  /**
+   * Computes the determinant of the linear part. The transformation is invertible, if it is not zero.
+   */
+  public double determinant() {
+    return m00 * m11 - m01 * m10;
+  }
+
+  public double transformX(double x, double y) {
+    return m00 * x + m01 * y + m02;
+  }
+
+  public double transformY(double x, double y) {
+    return m10 * x + m11 * y + m12;
+  }
+
+  public Vector apply(Vector v) {
+    double x = v.getX();
+    double y = v.getY();
+    return new Vector(m00 * x + m01 * y + m02, m10 * x + m11 * y + m12);
+  }
+
+  /**
+   * Transforms the given vector in place.
+   *
+   * @return v
+   */
+  public MutableVector apply(MutableVector v) {
+    double x = v.getX();
+    double y = v.getY();
+    return v.set(m00 * x + m01 * y + m02, m10 * x + m11 * y + m12);
+  }
+
+  public Line apply(Line line) {
+    return new Line(apply(line.getOrigin()), apply(line.getDestination()));
+  }
+
+  public Polyline apply(Polyline polyline) {
+    return apply(polyline, false);
+  }
+
+  /**
+   * Transforms all vectors of the polyline.
+   *
+   * @param polyline
+   * @param parallel whether the vectors are transformed in parallel; worthwhile for very large polylines only
+   * @return the transformed polyline, uncached like the given one
+   */
+  public Polyline apply(Polyline polyline, boolean parallel) {
+    List<Vector> vectors = (parallel ? polyline.stream().parallel() : polyline.stream())
+      .map(this::apply)
+      .collect(Collectors.toCollection(() -> new ArrayList<>(polyline.size())));
+    return Polyline.wrap(vectors, polyline.isClosed(), polyline.isUncached());
+  }
+
+  public PackedPolyline apply(PackedPolyline polyline) {
+    return apply(polyline, false);
+  }
+
+  /**
+   * @see #apply(Polyline, boolean)
+   */
+  public PackedPolyline apply(PackedPolyline polyline, boolean parallel) {
+    // direkt in die Arrays der neuen Polyline transformieren
+    double[] xs = new double[polyline.size()];
+    double[] ys = new double[polyline.size()];
+    apply(polyline.xs, polyline.ys, xs, ys, parallel);
+    return PackedPolyline.wrap(polyline.isClosed(), xs, ys);
+  }
+
+  /**
+   * Transforms the centre of the arc. Radii and angles are kept, i.e. the arc is transformed correctly by
+   * translations only.
+   *
+   * @param arc
+   * @return the arc with the transformed centre
+   */
+  public Arc applyToCenter(Arc arc) {
+    return new Arc(apply(arc.getCenter()), arc.getXRadius(), arc.getYRadius(), arc.getStartAngle(), arc.getEndAngle());
+  }
+
+  /**
+   * Transforms the given coordinates in place.
+   *
+   * @param xs x coordinates
+   * @param ys y coordinates
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public void apply(double[] xs, double[] ys) {
+    apply(xs, ys, false);
+  }
+
+  /**
+   * Transforms the given coordinates in place.
+   *
+   * @param xs       x coordinates
+   * @param ys       y coordinates
+   * @param parallel whether the coordinates are transformed in parallel; worthwhile for very large arrays only
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public void apply(double[] xs, double[] ys, boolean parallel) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    apply(xs, ys, xs, ys, parallel);
+  }
+
+  /**
+   * Transforms the coordinates into the target arrays, which may be the source arrays.
+   */
+  private void apply(double[] xs, double[] ys, double[] toXs, double[] toYs, boolean parallel) {
+    if (parallel) {
+      IntStream.range(0, xs.length).parallel().forEach(i -> apply(xs, ys, toXs, toYs, i));
+    }
+    else {
+      for (int i = 0; i < xs.length; i++) {
+        apply(xs, ys, toXs, toYs, i);
+      }
+    }
+  }
+
+  private void apply(double[] xs, double[] ys, double[] toXs, double[] toYs, int i) {
+    double x = xs[i];
+    double y = ys[i];
+    toXs[i] = m00 * x + m01 * y + m02;
+    toYs[i] = m10 * x + m11 * y + m12;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Transform2D that = (Transform2D) o;
+    return Double.compare(that.m00, m00) == 0 &&
+           Double.compare(that.m01, m01) == 0 &&
+           Double.compare(that.m02, m02) == 0 &&
+           Double.compare(that.m10, m10) == 0 &&
+           Double.compare(that.m11, m11) == 0 &&
+           Double.compare(that.m12, m12) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(m00, m01, m02, m10, m11, m12);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Transform2D[[%f, %f, %f], [%f, %f, %f]]", m00, m01, m02, m10, m11, m12);
+  }
+}
@@ -0,0 +1,460 @@
+package de.penetti.math.geom;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Triangulation of simple polygons by partitioning into y-monotone pieces, after de Berg et al., "Computational
+ * Geometry", chapter 3.
+ * <p>
+ * A sweep from top to bottom inserts diagonals at split and merge vertices, so that the polygon falls apart into
+ * y-monotone pieces; each piece is triangulated in linear time by a stack of its vertices. The whole triangulation
+ * takes O(n log n). A vertex is above another one, if its y coordinate is greater, or for equal y, if its x coordinate
+ * is smaller; thus horizontal edges need no special treatment.
+ * </p>
+ * <p>
+ * The result is an index buffer: the triangle {@code t} consists of the vertices {@code result[3t]},
+ * {@code result[3t+1]} and {@code result[3t+2]} of the polygon, in counter clockwise order. A polygon of n vertices
+ * yields n - 2 triangles. If the last vertex of the polygon repeats the first one, it only closes the ring and is
+ * dropped: it does not occur in the result, which has n - 3 triangles. The polygon must be simple (see
+ * {@link Polyline#isSimple()}); this is not checked.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class Triangulation {
+  private final double[] xs;          // Punkte gegen den Uhrzeigersinn
+  private final double[] ys;
+  private final int n;
+  private final int[] triangles;
+  private int triangleCount;
+
+  // Diagonalen (da[i], db[i])
+  private int[] da;
+  private int[] db;
+  private int diagonals;
+
+  private Triangulation(double[] xs, double[] ys) {
+    this.xs = xs;
+    this.ys = ys;
+    this.n = xs.length;
+    this.triangles = new int[3 * (n - 2)];
+    this.da = new int[8];
+    this.db = new int[8];
+  }
+
+  /**
+   * Triangulates the closed polyline; its property {@code closed} is not regarded.
+   *
+   * @param polygon simple polygon of at least three vertices
+   * @return indices of the vertices of the triangles
+   * @throws IllegalArgumentException if the polygon has less than three vertices
+   */
+  public static int[] triangulate(Polyline polygon) {
+    PackedPolyline packed = PackedPolyline.fromPolyline(polygon);
+    return triangulate(packed.xs, packed.ys);
+  }
+
+  /**
+   * Triangulates the polygon given by its coordinates.
+   *
+   * @param xs x coordinates
+   * @param ys y coordinates
+   * @return indices of the vertices of the triangles
+   * @throws IllegalArgumentException if the arrays differ in length or the polygon has less than three vertices
+   * @see #triangulate(Polyline)
+   */
+  public static int[] triangulate(double[] xs, double[] ys) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    int n = xs.length;
+    if (n > 1 && xs[n - 1] == xs[0] && ys[n - 1] == ys[0]) {
+      n--; // der wiederholte Anfangspunkt schließt nur den Ring
+    }
+    if (n < 3) {
+      throw new IllegalArgumentException("A polygon requires a minimum of three points.");
+    }
+    double area2 = 0;
+    for (int i = 0, j = n - 1; i < n; j = i++) {
+      area2 += (xs[j] - xs[i]) * (ys[j] + ys[i]);
+    }
+    boolean ccw = area2 >= 0;
+    double[] cxs = n == xs.length ? xs : Arrays.copyOf(xs, n);
+    double[] cys = n == ys.length ? ys : Arrays.copyOf(ys, n);
+    if (!ccw) {
+      cxs = new double[n];
+      cys = new double[n];
+      for (int i = 0; i < n; i++) {
+        cxs[i] = xs[n - 1 - i];
+        cys[i] = ys[n - 1 - i];
+      }
+    }
+    Triangulation triangulation = new Triangulation(cxs, cys);
+    triangulation.partition();
+    triangulation.triangulatePieces();
+    int[] result = triangulation.triangles;
+    if (!ccw) {
+      for (int i = 0; i < result.length; i++) {
+        result[i] = n - 1 - result[i];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Triangulates the polygons in parallel.
+   *
+   * @param polygons simple polygons
+   * @return the index buffers in the order of the polygons
+   * @see #triangulate(Polyline)
+   */
+  public static List<int[]> triangulateAll(Collection<Polyline> polygons) {
+    return polygons.parallelStream().map(Triangulation::triangulate).collect(Collectors.toList());
+  }
+
+  // Zerlegung in y-monotone Teile
+
+  /**
+   * Tests, if vertex a is above vertex b.
+   */
+  private boolean above(int a, int b) {
+    return ys[a] > ys[b] || (ys[a] == ys[b] && xs[a] < xs[b]);
+  }
+
+  private int next(int i) {
+    return i + 1 == n ? 0 : i + 1;
+  }
+
+  private int prev(int i) {
+    return i == 0 ? n - 1 : i - 1;
+  }
+
+  private void partition() {
+    // Ereignisse von oben nach unten: stabil nach x, dann nach -y sortiert
+    double[] negY = new double[n];
+    int[] events = new int[n];
+    for (int i = 0; i < n; i++) {
+      negY[i] = -ys[i];
+      events[i] = i;
+    }
+    IndexSort.sort(events, 0, n, xs);
+    IndexSort.sort(events, 0, n, negY);
+
+    Sweep sweep = new Sweep();
+    TreeSet<Integer> status = new TreeSet<>(sweep);
+    int[] helper = new int[n];
+    boolean[] merge = new boolean[n];
+    for (int v : events) {
+      sweep.x = xs[v];
+      sweep.y = ys[v];
+      int p = prev(v);
+      int q = next(v);
+      boolean convex = Predicates.orientation(xs[p], ys[p], xs[v], ys[v], xs[q], ys[q]) > 0;
+      if (above(v, p) && above(v, q)) {
+        if (!convex) {
+          // Split-Knoten
+          int e = left(status);
+          diagonal(v, helper[e]);
+          helper[e] = v;
+        }
+        status.add(v);
+        helper[v] = v;
+      }
+      else if (above(p, v) && above(q, v)) {
+        if (merge[helper[p]]) {
+          diagonal(v, helper[p]);
+        }
+        status.remove(p);
+        if (!convex) {
+          // Merge-Knoten
+          merge[v] = true;
+          int e = left(status);
+          if (merge[helper[e]]) {
+            diagonal(v, helper[e]);
+          }
+          helper[e] = v;
+        }
+      }
+      else if (above(p, v)) {
+        // das Innere liegt rechts von v
+        if (merge[helper[p]]) {
+          diagonal(v, helper[p]);
+        }
+        status.remove(p);
+        status.add(v);
+        helper[v] = v;
+      }
+      else {
+        int e = left(status);
+        if (merge[helper[e]]) {
+          diagonal(v, helper[e]);
+        }
+        helper[e] = v;
+      }
+    }
+  }
+
+  /**
+   * Finds the edge of the status directly left of the current vertex.
+   */
+  private static int left(TreeSet<Integer> status) {
+    Integer e = status.lower(-1);
+    if (e == null) {
+      throw new IllegalArgumentException("The polygon is not simple.");
+    }
+    return e;
+  }
+
+  private void diagonal(int a, int b) {
+    if (diagonals == da.length) {
+      da = Arrays.copyOf(da, diagonals * 2);
+      db = Arrays.copyOf(db, diagonals * 2);
+    }
+    da[diagonals] = a;
+    db[diagonals++] = b;
+  }
+
+  /**
+   * Orders the edges of the status by their x coordinate at the height of the sweep; the edge {@code i} runs from
+   * vertex {@code i} to the next vertex. The key -1 stands for the current vertex.
+   */
+  private final class Sweep implements Comparator<Integer> {
+    private double x;
+    private double y;
+
+    @Override
+    public int compare(Integer e, Integer f) {
+      if (e.equals(f)) {
+        return 0;
+      }
+      double xe = xAt(e);
+      double xf = xAt(f);
+      int c = Double.compare(xe, xf);
+      if (c != 0) {
+        return c;
+      }
+      if (e == -1) {
+        return 1;  // Kanten durch den Punkt liegen links davon
+      }
+      if (f == -1) {
+        return -1;
+      }
+      // gemeinsamer oberer Punkt: die Kante, die unterhalb weiter links verläuft, ist kleiner
+      double below = Math.max(Math.min(ys[e], ys[next(e)]), Math.min(ys[f], ys[next(f)]));
+      c = Double.compare(xAt(e, below), xAt(f, below));
+      return c != 0 ? c : Integer.compare(e, f);
+    }
+
+    private double xAt(int e) {
+      return e == -1 ? x : xAt(e, y);
+    }
+
+    private double xAt(int e, double y) {
+      int f = next(e);
+      double ax = xs[e];
+      double ay = ys[e];
+      double bx = xs[f];
+      double by = ys[f];
+      if (ay == by) {
+        // waagerechte Kanten liegen nur bei Ereignissen an ihren Endpunkten im Status
+        return Math.max(Math.min(ax, bx), Math.min(Math.max(ax, bx), x));
+      }
+      if (y == ay) {
+        return ax;
+      }
+      if (y == by) {
+        return bx;
+      }
+      return ax + (y - ay) * (bx - ax) / (by - ay);
+    }
+  }
+
+  // Triangulierung der monotonen Teile
+
+  private void triangulatePieces() {
+    // Nachbarn jedes Punktes: Kanten des Polygons und Diagonalen, nach Winkel sortiert
+    int[] offsets = new int[n + 1];
+    for (int i = 0; i < n; i++) {
+      offsets[i + 1] = 2;
+    }
+    for (int d = 0; d < diagonals; d++) {
+      offsets[da[d] + 1]++;
+      offsets[db[d] + 1]++;
+    }
+    for (int i = 0; i < n; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    int[] neighbours = new int[offsets[n]];
+    int[] fill = Arrays.copyOf(offsets, n);
+    for (int i = 0; i < n; i++) {
+      neighbours[fill[i]++] = next(i);
+      neighbours[fill[i]++] = prev(i);
+    }
+    for (int d = 0; d < diagonals; d++) {
+      neighbours[fill[da[d]]++] = db[d];
+      neighbours[fill[db[d]]++] = da[d];
+    }
+    double[] angles = new double[offsets[n]];
+    for (int v = 0; v < n; v++) {
+      for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+        int w = neighbours[k];
+        angles[k] = Math.atan2(ys[w] - ys[v], xs[w] - xs[v]);
+      }
+      int count = offsets[v + 1] - offsets[v];
+      if (count > 2) {
+        sortByAngle(neighbours, angles, offsets[v], offsets[v + 1]);
+      }
+      else if (angles[offsets[v]] > angles[offsets[v] + 1]) {
+        swap(neighbours, angles, offsets[v], offsets[v] + 1);
+      }
+    }
+
+    boolean[] visited = new boolean[offsets[n]];
+    int[] face = new int[n];
+    // das Innere liegt links der Kanten (i, i+1) und beider Richtungen der Diagonalen
+    for (int start = 0; start < n + 2 * diagonals; start++) {
+      int u;
+      int v;
+      if (start < n) {
+        u = start;
+        v = next(start);
+      }
+      else {
+        int d = (start - n) >> 1;
+        u = (start & 1) == 0 ? da[d] : db[d];
+        v = (start & 1) == 0 ? db[d] : da[d];
+      }
+      if (visited[slot(neighbours, offsets, u, v)]) {
+        continue;
+      }
+      int size = 0;
+      int a = u;
+      int b = v;
+      do {
+        visited[slot(neighbours, offsets, a, b)] = true;
+        face[size++] = a;
+        // nächste Kante: im Uhrzeigersinn nach der Kante zurück zu a
+        int k = slot(neighbours, offsets, b, a);
+        int c = neighbours[k == offsets[b] ? offsets[b + 1] - 1 : k - 1];
+        a = b;
+        b = c;
+      } while (a != u || b != v);
+      monotone(face, size);
+    }
+  }
+
+  private static int slot(int[] neighbours, int[] offsets, int v, int w) {
+    for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+      if (neighbours[k] == w) {
+        return k;
+      }
+    }
+    throw new IllegalStateException();
+  }
+
+  private static void sortByAngle(int[] neighbours, double[] angles, int from, int to) {
+    // Einfügesortierung; die Zahl der Diagonalen je Punkt ist klein
+    for (int i = from + 1; i < to; i++) {
+      for (int j = i; j > from && angles[j - 1] > angles[j]; j--) {
+        swap(neighbours, angles, j - 1, j);
+      }
+    }
+  }
+
+  private static void swap(int[] neighbours, double[] angles, int i, int j) {
+    int w = neighbours[i];
+    neighbours[i] = neighbours[j];
+    neighbours[j] = w;
+    double a = angles[i];
+    angles[i] = angles[j];
+    angles[j] = a;
+  }
+
+  /**
+   * Triangulates the y-monotone piece {@code face[0..k-1]}, given counter clockwise.
+   */
+  private void monotone(int[] face, int k) {
+    if (k == 3) {
+      emit(face[0], face[1], face[2]);
+      return;
+    }
+    int top = 0;
+    int bottom = 0;
+    for (int i = 1; i < k; i++) {
+      if (above(face[i], face[top])) {
+        top = i;
+      }
+      if (above(face[bottom], face[i])) {
+        bottom = i;
+      }
+    }
+    // linke Kette: gegen den Uhrzeigersinn von oben nach unten; rechte Kette: im Uhrzeigersinn
+    int[] u = new int[k];
+    boolean[] left = new boolean[k];
+    u[0] = face[top];
+    int l = top + 1 == k ? 0 : top + 1;
+    int r = top == 0 ? k - 1 : top - 1;
+    for (int j = 1; j < k - 1; j++) {
+      if (r == bottom || (l != bottom && above(face[l], face[r]))) {
+        u[j] = face[l];
+        left[j] = true;
+        l = l + 1 == k ? 0 : l + 1;
+      }
+      else {
+        u[j] = face[r];
+        r = r == 0 ? k - 1 : r - 1;
+      }
+    }
+    u[k - 1] = face[bottom];
+
+    int[] stack = new int[k];
+    stack[0] = 0;
+    stack[1] = 1;
+    int sp = 2;
+    for (int j = 2; j < k - 1; j++) {
+      if (left[j] != left[stack[sp - 1]]) {
+        while (sp > 1) {
+          emit(u[j], u[stack[sp - 1]], u[stack[sp - 2]]);
+          sp--;
+        }
+        stack[0] = j - 1;
+        stack[1] = j;
+        sp = 2;
+      }
+      else {
+        int last = stack[--sp];
+        while (sp > 0) {
+          int s = stack[sp - 1];
+          int o = Predicates.orientation(xs[u[s]], ys[u[s]], xs[u[j]], ys[u[j]], xs[u[last]], ys[u[last]]);
+          if (left[j] ? o >= 0 : o <= 0) {
+            break;
+          }
+          emit(u[j], u[last], u[s]);
+          last = stack[--sp];
+        }
+        stack[sp++] = last;
+        stack[sp++] = j;
+      }
+    }
+    while (sp > 1) {
+      emit(u[k - 1], u[stack[sp - 1]], u[stack[sp - 2]]);
+      sp--;
+    }
+  }
+
+  private void emit(int a, int b, int c) {
+    if (Predicates.orientation(xs[a], ys[a], xs[b], ys[b], xs[c], ys[c]) < 0) {
+      int t = b;
+      b = c;
+      c = t;
+    }
+    triangles[triangleCount++] = a;
+    triangles[triangleCount++] = b;
+    triangles[triangleCount++] = c;
+  }
+}
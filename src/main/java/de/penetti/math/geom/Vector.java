@@ -1,13 +1,11 @@
 package de.penetti.math.geom;
 
+import de.penetti.math.RandomSource;
+
 import java.io.Serializable;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import java.time.LocalDateTime;
 import java.util.Objects;
 
 import static de.penetti.math.MathUtil.TWO_PI;
-import static java.time.ZoneOffset.UTC;
 
 /**
  * This class is immutable.
@@ -34,8 +32,15 @@ public final class Vector implements Serializable {
     this.y = vector.y;
   }
 
+  /**
+   * Creates a random vector with the {@link RandomSource#getDefault() default random source}.
+   */
   public static Vector random() {
-    return create(magic(), magic());
+    return random(RandomSource.getDefault());
+  }
+
+  public static Vector random(RandomSource source) {
+    return create(source.nextDouble(), source.nextDouble());
   }
 
   public static Vector random(double min, double max) {
@@ -43,16 +48,16 @@ public final class Vector implements Serializable {
   }
 
   public static Vector random(double xMin, double xMax, double yMin, double yMax) {
-    return create((magic() * ((xMax - xMin) + 1d)) + xMin,
-                  (magic() * ((yMax - yMin) + 1d)) + yMin);
+    return random(xMin, xMax, yMin, yMax, RandomSource.getDefault());
   }
 
-  public static Vector create(double x, double y) {
-    return new Vector(x, y);
+  public static Vector random(double xMin, double xMax, double yMin, double yMax, RandomSource source) {
+    return create((source.nextDouble() * ((xMax - xMin) + 1d)) + xMin,
+                  (source.nextDouble() * ((yMax - yMin) + 1d)) + yMin);
   }
 
-  private static double magic() {
-    return SecureRandomHolder.random.nextDouble();
+  public static Vector create(double x, double y) {
+    return new Vector(x, y);
   }
 
   public double getX() {
@@ -92,12 +97,15 @@ public final class Vector implements Serializable {
    * @param origin vector around which to rotate
    * @param angle  angle in radians
    * @return the new rotated vector
+   * @see MutableVector#rotate(Vector, double)
    */
   public Vector rotate(Vector origin, double angle) {
-    Vector vec = sub(origin);
-    vec = vec.rotate(angle);
-    vec = vec.add(origin);
-    return vec;
+    double ca = Math.cos(angle);
+    double sa = Math.sin(angle);
+    double dx = x - origin.x;
+    double dy = y - origin.y;
+    return create((dx * ca - dy * sa) + origin.x,
+                  (dx * sa + dy * ca) + origin.y);
   }
 
   /**
@@ -261,17 +269,4 @@ public final class Vector implements Serializable {
   public String toString() {
     return String.format("Vector(%.3f:%.3f)", x, y);
   }
-
-  private static class SecureRandomHolder {
-    private static SecureRandom random;
-
-    static {
-      try {
-        random = SecureRandom.getInstanceStrong();
-      }
-      catch (NoSuchAlgorithmException e) {
-        random = new SecureRandom(("" + LocalDateTime.now().toEpochSecond(UTC)).getBytes());
-      }
-    }
-  }
 }
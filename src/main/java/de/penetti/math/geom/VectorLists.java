@@ -0,0 +1,93 @@
+package de.penetti.math.geom;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only views of vector lists, which share the vectors of the underlying lists.
+ * The underlying lists must not be modified, which holds for the lists of a {@link Polyline}.
+ *
+ * @author Enrico
+ */
+final class VectorLists {
+  private VectorLists() {
+  }
+
+  /**
+   * Views the list in reverse order. Reversing a reversed view returns the original list.
+   */
+  static List<Vector> reversed(List<Vector> vectors) {
+    if (vectors instanceof Reversed) {
+      return ((Reversed) vectors).vectors;
+    }
+    return new Reversed(vectors);
+  }
+
+  /**
+   * Views the lists one after another.
+   */
+  static List<Vector> concat(List<List<Vector>> lists) {
+    List<List<Vector>> parts = new ArrayList<>();
+    for (List<Vector> list : lists) {
+      if (list instanceof Concat) {
+        parts.addAll(((Concat) list).parts);
+      }
+      else if (!list.isEmpty()) {
+        parts.add(list);
+      }
+    }
+    return parts.size() == 1 ? parts.get(0) : new Concat(parts);
+  }
+
+  private static final class Reversed extends AbstractList<Vector> implements RandomAccess {
+    private final List<Vector> vectors;
+
+    private Reversed(List<Vector> vectors) {
+      this.vectors = vectors;
+    }
+
+    @Override
+    public Vector get(int index) {
+      return vectors.get(vectors.size() - 1 - index);
+    }
+
+    @Override
+    public int size() {
+      return vectors.size();
+    }
+  }
+
+  private static final class Concat extends AbstractList<Vector> implements RandomAccess {
+    private final List<List<Vector>> parts;
+    private final int[] offsets;  // offsets[i] ist der Index des ersten Elements von parts[i]
+
+    private Concat(List<List<Vector>> parts) {
+      this.parts = List.copyOf(parts);
+      this.offsets = new int[this.parts.size() + 1];
+      for (int i = 0; i < this.parts.size(); i++) {
+        offsets[i + 1] = offsets[i] + this.parts.get(i).size();
+      }
+    }
+
+    @Override
+    public Vector get(int index) {
+      if (index < 0 || index >= size()) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+      }
+      // die Offsets steigen streng, da leere Teile nicht aufgenommen werden
+      int part = Arrays.binarySearch(offsets, index);
+      if (part < 0) {
+        part = -part - 2;
+      }
+      return parts.get(part).get(index - offsets[part]);
+    }
+
+    @Override
+    public int size() {
+      return offsets[parts.size()];
+    }
+  }
+}
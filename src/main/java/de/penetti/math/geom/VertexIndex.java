@@ -0,0 +1,143 @@
+package de.penetti.math.geom;
+
+import java.util.Arrays;
+
+/**
+ * Hash index over the vertices of a polyline or a set of points.
+ * <p>
+ * The vertices are stored in an open-addressing hash table with linear probing, keyed by the raw bits of their
+ * coordinates ({@link Double#doubleToLongBits(double)}). Thus two vertices are equal exactly if they are equal after
+ * {@link Vector#equals(Object)}: 0.0 and -0.0 differ, NaN equals NaN. Each key is stored once, with the index of its
+ * first occurrence; later occurrences are recorded as duplicates.
+ * </p>
+ * <p>
+ * This class is immutable; any number of threads can query it concurrently.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class VertexIndex {
+  private final long[] xBits;
+  private final long[] yBits;
+  private final int[] table;      // Index + 1 des ersten Vorkommens, 0 für leere Plätze
+  private final int mask;
+  private final int[] duplicates;
+
+  private VertexIndex(double[] xs, double[] ys) {
+    int n = xs.length;
+    xBits = new long[n];
+    yBits = new long[n];
+    // Füllgrad höchstens 1/2
+    int capacity = Integer.highestOneBit(Math.max(2 * n - 1, 1)) << 1;
+    table = new int[capacity];
+    mask = capacity - 1;
+    int[] duplicates = new int[8];
+    int duplicateCount = 0;
+    for (int i = 0; i < n; i++) {
+      long x = Double.doubleToLongBits(xs[i]);
+      long y = Double.doubleToLongBits(ys[i]);
+      xBits[i] = x;
+      yBits[i] = y;
+      int slot = hash(x, y) & mask;
+      while (table[slot] != 0 && !(xBits[table[slot] - 1] == x && yBits[table[slot] - 1] == y)) {
+        slot = (slot + 1) & mask;
+      }
+      if (table[slot] == 0) {
+        table[slot] = i + 1;
+      }
+      else {
+        if (duplicateCount == duplicates.length) {
+          duplicates = Arrays.copyOf(duplicates, duplicateCount * 2);
+        }
+        duplicates[duplicateCount++] = i;
+      }
+    }
+    this.duplicates = Arrays.copyOf(duplicates, duplicateCount);
+  }
+
+  /**
+   * Builds the index over the vertices of the polyline; the indices are the indices of the vertices.
+   */
+  public static VertexIndex of(Polyline polyline) {
+    PackedPolyline packed = PackedPolyline.fromPolyline(polyline);
+    return new VertexIndex(packed.xs, packed.ys);
+  }
+
+  /**
+   * Builds the index over the given coordinates.
+   *
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public static VertexIndex of(double[] xs, double[] ys) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException("The coordinate arrays must have the same length.");
+    }
+    return new VertexIndex(xs, ys);
+  }
+
+  private static int hash(long x, long y) {
+    long h = x * 0x9E3779B97F4A7C15L + y;
+    h *= 0xC2B2AE3D27D4EB4FL;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  public int size() {
+    return xBits.length;
+  }
+
+  public boolean contains(Vector v) {
+    return indexOf(v) >= 0;
+  }
+
+  public boolean contains(double x, double y) {
+    return indexOf(x, y) >= 0;
+  }
+
+  /**
+   * Gets the index of the first vertex which equals the given vector.
+   *
+   * @return the index or -1, if there is no such vertex
+   */
+  public int indexOf(Vector v) {
+    return indexOf(v.getX(), v.getY());
+  }
+
+  /**
+   * @see #indexOf(Vector)
+   */
+  public int indexOf(double x, double y) {
+    long xb = Double.doubleToLongBits(x);
+    long yb = Double.doubleToLongBits(y);
+    int slot = hash(xb, yb) & mask;
+    int entry;
+    while ((entry = table[slot]) != 0) {
+      if (xBits[entry - 1] == xb && yBits[entry - 1] == yb) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Tests, if a vertex occurs more than once.
+   */
+  public boolean hasDuplicates() {
+    return duplicates.length > 0;
+  }
+
+  /**
+   * Gets the indices of the vertices which equal a preceding vertex, in ascending order.
+   * {@link #indexOf(double, double)} yields the index of the first occurrence.
+   *
+   * @return the indices
+   */
+  public int[] duplicates() {
+    return duplicates.clone();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("VertexIndex(%d Vertices; %d Duplicates)", size(), duplicates.length);
+  }
+}
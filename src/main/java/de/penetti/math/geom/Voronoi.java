@@ -0,0 +1,185 @@
+package de.penetti.math.geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Voronoi diagram of a point set, derived from its {@link Delaunay} triangulation and clipped to a rectangle.
+ * <p>
+ * The vertices of the diagram are the circumcentres of the Delaunay triangles, which are computed once. The cell of a
+ * point is the rectangle clipped to the half-planes of the points nearer to it than to its Delaunay neighbours. Unlike
+ * the polygon of the circumcentres around the point, this stays exact for nearly collinear points, whose flat
+ * triangles have circumcentres far away or at infinity, and needs no special case for the unbounded cells on the
+ * convex hull.
+ * </p>
+ * <p>
+ * This class is immutable; any number of threads can query it concurrently.
+ * </p>
+ *
+ * @author Enrico
+ */
+public final class Voronoi {
+  private final Delaunay delaunay;
+  private final double minX;
+  private final double minY;
+  private final double maxX;
+  private final double maxY;
+  private final double[] circumcenters; // x und y je Dreieck
+
+  Voronoi(Delaunay delaunay, double minX, double minY, double maxX, double maxY) {
+    Objects.requireNonNull(delaunay);
+    if (!(minX < maxX && minY < maxY)) {
+      throw new IllegalArgumentException("The rectangle must not be empty.");
+    }
+    this.delaunay = delaunay;
+    this.minX = minX;
+    this.minY = minY;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    int[] triangles = delaunay.getTriangles();
+    circumcenters = new double[triangles.length / 3 * 2];
+    for (int t = 0; t < triangles.length / 3; t++) {
+      int a = triangles[3 * t];
+      int b = triangles[3 * t + 1];
+      int c = triangles[3 * t + 2];
+      double ax = delaunay.getX(a);
+      double ay = delaunay.getY(a);
+      double dx = delaunay.getX(b) - ax;
+      double dy = delaunay.getY(b) - ay;
+      double ex = delaunay.getX(c) - ax;
+      double ey = delaunay.getY(c) - ay;
+      double bl = dx * dx + dy * dy;
+      double cl = ex * ex + ey * ey;
+      double d = .5 / (dx * ey - dy * ex);
+      circumcenters[2 * t] = ax + (ey * bl - dy * cl) * d;
+      circumcenters[2 * t + 1] = ay + (dx * cl - ex * bl) * d;
+    }
+  }
+
+  public Delaunay getDelaunay() {
+    return delaunay;
+  }
+
+  /**
+   * Gets the circumcentre of the triangle, a vertex of the diagram.
+   */
+  public Vector circumcenter(int triangle) {
+    return Vector.create(circumcenters[2 * triangle], circumcenters[2 * triangle + 1]);
+  }
+
+  /**
+   * Gets the cell of the point, clipped to the rectangle, as closed counter clockwise polyline.
+   *
+   * @param point
+   * @return the cell or empty, if the cell does not intersect the rectangle or the point is a duplicate
+   */
+  public Optional<Polyline> cell(int point) {
+    double[] polygon = clip(point);
+    if (polygon.length < 6) {
+      return Optional.empty();
+    }
+    List<Vector> vectors = new ArrayList<>(polygon.length / 2);
+    for (int i = 0; i < polygon.length; i += 2) {
+      vectors.add(Vector.create(polygon[i], polygon[i + 1]));
+    }
+    return Optional.of(new Polyline(true, vectors));
+  }
+
+  /**
+   * Gets the cells of all points with a non-empty cell, in the order of the points.
+   *
+   * @see #cell(int)
+   */
+  public List<Polyline> cells() {
+    List<Polyline> cells = new ArrayList<>(delaunay.size());
+    for (int i = 0; i < delaunay.size(); i++) {
+      cell(i).ifPresent(cells::add);
+    }
+    return cells;
+  }
+
+  /**
+   * @return the cell as x, y pairs, counter clockwise
+   */
+  private double[] clip(int point) {
+    if (delaunay.inedge(point) == -1 && (delaunay.triangleCount() > 0 || isDuplicate(point))) {
+      return new double[0];
+    }
+    // Schnitt des Rechtecks mit den Halbebenen zu den Delaunay-Nachbarn
+    double[][] polygon = {{minX, minY, maxX, minY, maxX, maxY, minX, maxY}};
+    delaunay.neighbours(point, neighbour -> polygon[0] = clipBisector(polygon[0], point, neighbour));
+    return polygon[0];
+  }
+
+  /**
+   * Tests, if the point is missing in the hull of collinear points.
+   */
+  private boolean isDuplicate(int point) {
+    for (int p : delaunay.getHull()) {
+      if (p == point) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Clips the polygon to the half-plane of the points nearer to the point than to the neighbour.
+   */
+  private double[] clipBisector(double[] polygon, int point, int neighbour) {
+    double px = delaunay.getX(point);
+    double py = delaunay.getY(point);
+    double qx = delaunay.getX(neighbour);
+    double qy = delaunay.getY(neighbour);
+    double a = qx - px;
+    double b = qy - py;
+    return clip(polygon, a, b, (a * (px + qx) + b * (py + qy)) / 2);
+  }
+
+  /**
+   * Clips the polygon to the half-plane a x + b y <= c (Sutherland-Hodgman).
+   */
+  static double[] clip(double[] polygon, double a, double b, double c) {
+    int n = polygon.length / 2;
+    if (n == 0) {
+      return polygon;
+    }
+    double[] result = new double[polygon.length + 4];
+    int size = 0;
+    double sx = polygon[2 * n - 2];
+    double sy = polygon[2 * n - 1];
+    double sd = a * sx + b * sy - c;
+    for (int i = 0; i < n; i++) {
+      double ex = polygon[2 * i];
+      double ey = polygon[2 * i + 1];
+      double ed = a * ex + b * ey - c;
+      if ((sd <= 0) != (ed <= 0)) {
+        double t = sd / (sd - ed);
+        if (size + 2 > result.length) {
+          result = Arrays.copyOf(result, result.length * 2);
+        }
+        result[size++] = sx + t * (ex - sx);
+        result[size++] = sy + t * (ey - sy);
+      }
+      if (ed <= 0) {
+        if (size + 2 > result.length) {
+          result = Arrays.copyOf(result, result.length * 2);
+        }
+        result[size++] = ex;
+        result[size++] = ey;
+      }
+      sx = ex;
+      sy = ey;
+      sd = ed;
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Voronoi(%d Cells; [%s, %s] x [%s, %s])", delaunay.size(), minX, maxX, minY, maxY);
+  }
+}
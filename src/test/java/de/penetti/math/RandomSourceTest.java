@@ -0,0 +1,65 @@
+package de.penetti.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RandomSourceTest {
+  @Test
+  void testSeeded() {
+    RandomSource r1 = RandomSource.seeded(4711);
+    RandomSource r2 = RandomSource.seeded(4711);
+    for (int i = 0; i < 100; i++) {
+      double d = r1.nextDouble();
+      assertEquals(d, r2.nextDouble());
+      assertTrue(d >= 0 && d < 1);
+    }
+  }
+
+  @Test
+  void testNextDoubleInRange() {
+    RandomSource r = RandomSource.seeded(42);
+    for (int i = 0; i < 1000; i++) {
+      double d = r.nextDouble(-3, 7);
+      assertTrue(d >= -3 && d < 7);
+    }
+  }
+
+  @Test
+  void testFill() {
+    double[] xs = new double[1000];
+    double[] ys = new double[1000];
+    RandomSource.seeded(1).fill(xs, ys, 0, 10, -20, -10);
+    assertTrue(Arrays.stream(xs).allMatch(x -> x >= 0 && x < 10));
+    assertTrue(Arrays.stream(ys).allMatch(y -> y >= -20 && y < -10));
+    double[] xs2 = new double[1000];
+    double[] ys2 = new double[1000];
+    RandomSource.seeded(1).fill(xs2, ys2, 0, 10, -20, -10);
+    assertArrayEquals(xs, xs2);
+    assertArrayEquals(ys, ys2);
+    assertThrows(IllegalArgumentException.class, () -> RandomSource.seeded(1).fill(xs, new double[1], 0, 1, 0, 1));
+  }
+
+  @Test
+  void testDefault() {
+    RandomSource source = RandomSource.getDefault();
+    ConcurrentHashMap<Double, Boolean> values = new ConcurrentHashMap<>();
+    IntStream.range(0, 10_000).parallel().forEach(i -> values.put(source.nextDouble(), Boolean.TRUE));
+    assertTrue(values.size() > 9_990);
+
+    RandomSource seeded = RandomSource.seeded(4711);
+    RandomSource.setDefault(seeded);
+    try {
+      assertSame(seeded, RandomSource.getDefault());
+      assertEquals(RandomSource.seeded(4711).nextDouble(), RandomSource.getDefault().nextDouble());
+    }
+    finally {
+      RandomSource.setDefault(source);
+    }
+    assertThrows(NullPointerException.class, () -> RandomSource.setDefault(null));
+  }
+}
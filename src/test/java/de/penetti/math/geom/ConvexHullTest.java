@@ -0,0 +1,91 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static de.penetti.math.TestUtils.DELTA_9;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConvexHullTest {
+  private static List<Vector> vectors(Polyline polyline) {
+    List<Vector> vectors = new ArrayList<>();
+    polyline.stream().forEach(vectors::add);
+    return vectors;
+  }
+
+  private static void assertHull(double[] xs, double[] ys, Polyline hull) {
+    assertTrue(hull.isClosed());
+    assertTrue(hull.isCCW());
+    List<Vector> vectors = vectors(hull);
+    int n = vectors.size();
+    for (int i = 0; i < n; i++) {
+      Vector a = vectors.get(i);
+      Vector b = vectors.get(i + 1 == n ? 0 : i + 1);
+      // strikt konvex und alle Punkte links der Kanten oder darauf
+      Vector c = vectors.get((i + 2) % n);
+      assertTrue((b.getX() - a.getX()) * (c.getY() - a.getY()) - (b.getY() - a.getY()) * (c.getX() - a.getX()) > 0);
+      for (int j = 0; j < xs.length; j++) {
+        double cross = (b.getX() - a.getX()) * (ys[j] - a.getY()) - (b.getY() - a.getY()) * (xs[j] - a.getX());
+        assertTrue(cross >= -1e-9);
+      }
+    }
+  }
+
+  @Test
+  void testPolyline() {
+    Polyline polyline = new Polyline(false, new Vector(0, 0), new Vector(2, 1), new Vector(4, 0), new Vector(3, 2),
+                                     new Vector(4, 4), new Vector(2, 4), new Vector(0, 4), new Vector(1, 2));
+    Polyline hull = polyline.convexHull();
+    assertEquals(new Polyline(true, new Vector(0, 0), new Vector(4, 0), new Vector(4, 4), new Vector(0, 4)), hull);
+    assertEquals(16, hull.area(), DELTA_9);
+  }
+
+  @Test
+  void testRandomPoints() {
+    Random random = new Random(4711);
+    int n = 2000;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = random.nextGaussian() * 100;
+      ys[i] = random.nextGaussian() * 50;
+    }
+    assertHull(xs, ys, ConvexHull.of(xs, ys));
+  }
+
+  @Test
+  void testParallel() {
+    Random random = new Random(815);
+    int n = ConvexHull.PARALLEL_THRESHOLD * 5 + 17;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      double angle = random.nextDouble() * 2 * Math.PI;
+      double r = Math.sqrt(random.nextDouble()) * 100;
+      xs[i] = r * Math.cos(angle);
+      ys[i] = r * Math.sin(angle);
+    }
+    Polyline hull = ConvexHull.of(xs, ys);
+    assertHull(xs, ys, hull);
+    double[][] sequential = ConvexHull.hull(xs, ys, 0, n);
+    List<Vector> vectors = vectors(hull);
+    assertEquals(sequential[0].length, vectors.size());
+    for (int i = 0; i < vectors.size(); i++) {
+      assertEquals(new Vector(sequential[0][i], sequential[1][i]), vectors.get(i));
+    }
+  }
+
+  @Test
+  void testDegenerate() {
+    assertEquals(new Polyline(true, new Vector(0, 0), new Vector(3, 3)),
+                 ConvexHull.of(new double[]{2, 0, 1, 3, 1}, new double[]{2, 0, 1, 3, 1}));
+    assertEquals(new Polyline(true, new Vector(0, 0), new Vector(1, 1)),
+                 ConvexHull.of(new double[]{1, 0}, new double[]{1, 0}));
+    assertThrows(IllegalArgumentException.class, () -> ConvexHull.of(new double[]{1, 1, 1}, new double[]{2, 2, 2}));
+    assertThrows(IllegalArgumentException.class, () -> ConvexHull.of(new double[0], new double[0]));
+    assertThrows(IllegalArgumentException.class, () -> ConvexHull.of(new double[2], new double[3]));
+  }
+}
@@ -0,0 +1,217 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DelaunayTest {
+  private static Delaunay random(int n, long seed) {
+    RandomSource random = RandomSource.seeded(seed);
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    random.fill(xs, ys, -100, 100, -50, 50);
+    return Delaunay.of(xs, ys);
+  }
+
+  private static double area2(Delaunay d, int a, int b, int c) {
+    return (d.getX(b) - d.getX(a)) * (d.getY(c) - d.getY(a)) - (d.getY(b) - d.getY(a)) * (d.getX(c) - d.getX(a));
+  }
+
+  /**
+   * Checks the half-edge structure, the orientation of the triangles and the hull.
+   */
+  private static void assertValid(Delaunay d) {
+    int[] triangles = d.getTriangles();
+    int[] halfedges = d.getHalfedges();
+    assertEquals(triangles.length, halfedges.length);
+    for (int e = 0; e < triangles.length; e++) {
+      int o = halfedges[e];
+      if (o != -1) {
+        assertEquals(e, halfedges[o]);
+        assertEquals(triangles[e], triangles[Delaunay.next(o)]);
+        assertEquals(triangles[Delaunay.next(e)], triangles[o]);
+      }
+    }
+    for (int t = 0; t < triangles.length; t += 3) {
+      assertTrue(Predicates.orientation(d.getX(triangles[t]), d.getY(triangles[t]), d.getX(triangles[t + 1]),
+          d.getY(triangles[t + 1]), d.getX(triangles[t + 2]), d.getY(triangles[t + 2])) > 0);
+    }
+    int[] hull = d.getHull();
+    if (triangles.length > 0) {
+      long hullEdges = Arrays.stream(halfedges).filter(o -> o == -1).count();
+      assertEquals(hull.length, hullEdges);
+      for (int i = 0; i < hull.length; i++) {
+        int a = hull[i];
+        int b = hull[(i + 1) % hull.length];
+        for (int p = 0; p < d.size(); p++) {
+          assertTrue(Predicates.orientation(d.getX(a), d.getY(a), d.getX(b), d.getY(b), d.getX(p), d.getY(p)) >= 0);
+        }
+      }
+    }
+  }
+
+  private static void assertDelaunay(Delaunay d) {
+    int[] triangles = d.getTriangles();
+    for (int t = 0; t < triangles.length; t += 3) {
+      int a = triangles[t];
+      int b = triangles[t + 1];
+      int c = triangles[t + 2];
+      for (int p = 0; p < d.size(); p++) {
+        assertTrue(Predicates.inCircle(d.getX(a), d.getY(a), d.getX(b), d.getY(b), d.getX(c), d.getY(c), d.getX(p),
+            d.getY(p)) <= 0, "point " + p + " in circumcircle of triangle " + t / 3);
+      }
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    Delaunay d = Delaunay.of(new double[0], new double[0]);
+    assertEquals(0, d.size());
+    assertEquals(0, d.triangleCount());
+    assertEquals(0, d.getHull().length);
+  }
+
+  @Test
+  public void testArrayLengths() {
+    assertThrows(IllegalArgumentException.class, () -> Delaunay.of(new double[2], new double[3]));
+  }
+
+  @Test
+  public void testTriangle() {
+    Delaunay d = Delaunay.of(List.of(Vector.create(0, 0), Vector.create(0, 1), Vector.create(1, 0)));
+    assertEquals(1, d.triangleCount());
+    assertValid(d);
+    assertEquals(3, d.getHull().length);
+    List<Integer> neighbours = new ArrayList<>();
+    d.neighbours(0, neighbours::add);
+    assertEquals(Set.of(1, 2), new TreeSet<>(neighbours));
+  }
+
+  @Test
+  public void testCollinear() {
+    Delaunay d = Delaunay.of(new double[]{2, 0, 3, 1, 1}, new double[]{4, 0, 6, 2, 2});
+    assertEquals(0, d.triangleCount());
+    assertArrayEquals(new int[]{1, 3, 0, 2}, d.getHull());
+    List<Integer> neighbours = new ArrayList<>();
+    d.neighbours(0, neighbours::add);
+    assertEquals(List.of(3, 2), neighbours);
+    neighbours.clear();
+    d.neighbours(4, neighbours::add);
+    assertEquals(List.of(), neighbours);
+  }
+
+  @Test
+  public void testSinglePoint() {
+    Delaunay d = Delaunay.of(new double[]{1}, new double[]{2});
+    assertEquals(0, d.triangleCount());
+    assertArrayEquals(new int[]{0}, d.getHull());
+  }
+
+  @Test
+  public void testRandom() {
+    for (int seed = 0; seed < 10; seed++) {
+      Delaunay d = random(300, seed);
+      assertValid(d);
+      assertDelaunay(d);
+      assertEquals(2 * d.size() - 2 - d.getHull().length, d.triangleCount());
+    }
+  }
+
+  @Test
+  public void testGrid() {
+    // viele kozirkulare und kollineare Punkte
+    int n = 20;
+    double[] xs = new double[n * n + 5];
+    double[] ys = new double[n * n + 5];
+    for (int i = 0; i < n * n; i++) {
+      xs[i] = i % n;
+      ys[i] = i / n;
+    }
+    // Dubletten
+    for (int i = 0; i < 5; i++) {
+      xs[n * n + i] = xs[7 * i];
+      ys[n * n + i] = ys[7 * i];
+    }
+    Delaunay d = Delaunay.of(xs, ys);
+    assertValid(d);
+    assertDelaunay(d);
+    assertEquals(4 * (n - 1), d.getHull().length);
+    assertEquals(2 * n * n - 2 - 4 * (n - 1), d.triangleCount());
+    int[] triangles = d.getTriangles();
+    double area = 0;
+    for (int t = 0; t < triangles.length; t += 3) {
+      area += area2(d, triangles[t], triangles[t + 1], triangles[t + 2]) / 2;
+    }
+    assertEquals((n - 1) * (n - 1), area, 1e-9);
+  }
+
+  @Test
+  public void testNearlyCollinear() {
+    // Sensoren entlang einer Straße: der Umkreismittelpunkt des flachen Startdreiecks liegt weit entfernt
+    for (int run = 0; run < 300; run++) {
+      RandomSource random = RandomSource.seeded(run);
+      int n = 3 + run % 20;
+      double[] xs = new double[n];
+      double[] ys = new double[n];
+      for (int i = 0; i < n; i++) {
+        double t = random.nextDouble(0, 100);
+        xs[i] = t * 0.2887;
+        ys[i] = t;
+      }
+      Delaunay d = Delaunay.of(xs, ys);
+      assertValid(d);
+      assertDelaunay(d);
+      for (int i = 0; i < n; i++) {
+        List<Integer> neighbours = new ArrayList<>();
+        d.neighbours(i, neighbours::add);
+        assertFalse(neighbours.isEmpty(), "point " + i + " of run " + run);
+      }
+      if (d.triangleCount() > 0) {
+        assertEquals(2 * n - 2 - d.getHull().length, d.triangleCount(), "run " + run);
+      }
+    }
+  }
+
+  @Test
+  public void testNeighbours() {
+    Delaunay d = random(200, 42);
+    int[] triangles = d.getTriangles();
+    List<Set<Integer>> expected = new ArrayList<>();
+    for (int i = 0; i < d.size(); i++) {
+      expected.add(new TreeSet<>());
+    }
+    for (int e = 0; e < triangles.length; e++) {
+      expected.get(triangles[e]).add(triangles[Delaunay.next(e)]);
+      expected.get(triangles[Delaunay.next(e)]).add(triangles[e]);
+    }
+    for (int i = 0; i < d.size(); i++) {
+      List<Integer> neighbours = new ArrayList<>();
+      d.neighbours(i, neighbours::add);
+      assertEquals(expected.get(i).size(), neighbours.size());
+      assertEquals(expected.get(i), new TreeSet<>(neighbours));
+    }
+    // auf dem Rand sind der erste und der letzte Nachbar die Nachbarn auf dem Rand
+    int[] hull = d.getHull();
+    List<Integer> neighbours = new ArrayList<>();
+    d.neighbours(hull[1], neighbours::add);
+    assertEquals(hull[0], neighbours.get(0));
+    assertEquals(hull[2], neighbours.get(neighbours.size() - 1));
+  }
+
+  @Test
+  public void testLarge() {
+    Delaunay d = random(100_000, 7);
+    int[] halfedges = d.getHalfedges();
+    for (int e = 0; e < halfedges.length; e++) {
+      assertTrue(halfedges[e] == -1 || halfedges[halfedges[e]] == e);
+    }
+    assertEquals(2 * d.size() - 2 - d.getHull().length, d.triangleCount());
+  }
+}
@@ -0,0 +1,137 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DouglasPeuckerTest {
+  private static double distance(double x, double y, List<Vector> vectors, boolean closed) {
+    double min = Double.POSITIVE_INFINITY;
+    int n = vectors.size();
+    for (int i = 0; i < (closed ? n : n - 1); i++) {
+      Vector a = vectors.get(i);
+      Vector b = vectors.get(i + 1 == n ? 0 : i + 1);
+      min = Math.min(min, SegmentIndex.segmentDistanceSq(x, y, a.getX(), a.getY(), b.getX(), b.getY()));
+    }
+    return Math.sqrt(min);
+  }
+
+  private static List<Vector> track(int n, long seed) {
+    Random random = new Random(seed);
+    List<Vector> vectors = new ArrayList<>(n);
+    double x = 0;
+    double y = 0;
+    double heading = 0;
+    for (int i = 0; i < n; i++) {
+      heading += random.nextGaussian() * .1;
+      x += Math.cos(heading);
+      y += Math.sin(heading);
+      vectors.add(new Vector(x, y));
+    }
+    return vectors;
+  }
+
+  @Test
+  void testSimplifyOpen() {
+    Polyline polyline = new Polyline(false, new Vector(0, 0), new Vector(1, .05), new Vector(2, -.05),
+                                     new Vector(3, 0), new Vector(3, 3), new Vector(3.02, 4), new Vector(3, 5));
+    Polyline simplified = polyline.eleminateNonCorners(.1);
+    assertEquals(new Polyline(false, new Vector(0, 0), new Vector(3, 0), new Vector(3, 5)), simplified);
+    assertEquals(polyline, polyline.eleminateNonCorners(0));
+    assertEquals(new Polyline(false, new Vector(0, 0), new Vector(3, 5)), polyline.eleminateNonCorners(10));
+    assertThrows(IllegalArgumentException.class, () -> polyline.eleminateNonCorners(-1));
+    assertThrows(IllegalArgumentException.class, () -> polyline.eleminateNonCorners(Double.NaN));
+  }
+
+  @Test
+  void testSimplifyClosed() {
+    Polyline square = new Polyline(true, new Vector(0, 0), new Vector(2, 0), new Vector(4, 0), new Vector(4, 4),
+                                   new Vector(0, 4), new Vector(0, 2));
+    Polyline simplified = DouglasPeucker.simplify(square, .01);
+    assertTrue(simplified.isClosed());
+    assertEquals(new Polyline(true, new Vector(0, 0), new Vector(4, 0), new Vector(4, 4), new Vector(0, 4)),
+                 simplified);
+    assertEquals(2, DouglasPeucker.simplify(square, 100).size());
+  }
+
+  @Test
+  void testToleranceIsKept() {
+    List<Vector> vectors = track(5000, 4711);
+    Polyline polyline = new Polyline(false, vectors);
+    double tolerance = 2.5;
+    Polyline simplified = DouglasPeucker.simplify(polyline, tolerance);
+    assertTrue(simplified.size() < polyline.size() / 10);
+    List<Vector> kept = new ArrayList<>();
+    simplified.stream().forEach(kept::add);
+    for (Vector v : vectors) {
+      assertTrue(distance(v.getX(), v.getY(), kept, false) <= tolerance + 1e-9);
+    }
+  }
+
+  @Test
+  void testMillionVertices() {
+    int n = 1_000_000;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = i;
+      ys[i] = (i % 2) * 1e-3;
+    }
+    PackedPolyline simplified = DouglasPeucker.simplify(PackedPolyline.of(false, xs, ys), .01);
+    assertEquals(2, simplified.size());
+    for (int i = 0; i < n; i++) {
+      ys[i] = 1000 * Math.sin(i * 1e-3);
+    }
+    simplified = DouglasPeucker.simplify(PackedPolyline.of(false, xs, ys), .5);
+    assertTrue(simplified.size() > 100 && simplified.size() < n / 10, "" + simplified.size());
+    assertEquals(n - 1, simplified.getX(simplified.size() - 1));
+  }
+
+  @Test
+  void testStreaming() {
+    List<Vector> vectors = track(10_000, 815);
+    double tolerance = 1.5;
+    List<Vector> out = new ArrayList<>();
+    DouglasPeucker.Streaming streaming = DouglasPeucker.streaming(tolerance, 256, (x, y) -> out.add(new Vector(x, y)));
+    vectors.forEach(streaming::add);
+    streaming.finish();
+    assertEquals(vectors.size(), streaming.getReceived());
+    assertEquals(out.size(), streaming.getEmitted());
+    assertEquals(vectors.size() - out.size(), streaming.getRemoved());
+    assertEquals(vectors.get(0), out.get(0));
+    assertEquals(vectors.get(vectors.size() - 1), out.get(out.size() - 1));
+    for (Vector v : vectors) {
+      assertTrue(distance(v.getX(), v.getY(), out, false) <= tolerance + 1e-9);
+    }
+    int full = DouglasPeucker.simplify(new Polyline(false, vectors), tolerance).size();
+    assertTrue(out.size() < full * 1.2, out.size() + " / " + full);
+    assertThrows(IllegalStateException.class, () -> streaming.add(1, 1));
+    streaming.finish();
+    assertEquals(out.size(), streaming.getEmitted());
+  }
+
+  @Test
+  void testStreamingSmallInputs() {
+    List<Vector> out = new ArrayList<>();
+    try (DouglasPeucker.Streaming streaming = DouglasPeucker.streaming(1, 3, (x, y) -> out.add(new Vector(x, y)))) {
+      streaming.add(1, 1);
+      assertEquals(0, streaming.getRemoved());
+    }
+    assertEquals(List.of(new Vector(1, 1)), out);
+
+    out.clear();
+    DouglasPeucker.Streaming streaming = DouglasPeucker.streaming(1, 3, (x, y) -> out.add(new Vector(x, y)));
+    streaming.add(0, 0).add(1, .1).add(2, 0).add(3, .1);
+    assertEquals(1, streaming.getRemoved());
+    streaming.add(4, 0).finish();
+    assertEquals(List.of(new Vector(0, 0), new Vector(2, 0), new Vector(4, 0)), out);
+    assertEquals(2, streaming.getRemoved());
+
+    assertThrows(IllegalArgumentException.class, () -> DouglasPeucker.streaming(1, 2, (x, y) -> { }));
+    assertThrows(IllegalArgumentException.class, () -> DouglasPeucker.streaming(-1, 3, (x, y) -> { }));
+  }
+}
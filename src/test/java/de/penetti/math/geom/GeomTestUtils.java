@@ -0,0 +1,106 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.penetti.math.TestUtils.DELTA_9;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Polygons and helpers shared by the geometry tests.
+ */
+final class GeomTestUtils {
+  /**
+   * A closed, simple, clockwise polygon with 23 vertices.
+   */
+  static final Polyline POLYLINE = new Polyline(true,
+                                                new Vector(-4, 9),
+                                                new Vector(-4, 13),
+                                                new Vector(-7, 15),
+                                                new Vector(-9, 11),
+                                                new Vector(-12, 19),
+                                                new Vector(4, 18),
+                                                new Vector(14, 14),
+                                                new Vector(10, 14),
+                                                new Vector(13, 10),
+                                                new Vector(11, 7),
+                                                new Vector(9, 4),
+                                                new Vector(12, 0),
+                                                new Vector(4, -2),
+                                                new Vector(15, -3),
+                                                new Vector(12, -7),
+                                                new Vector(13, -16),
+                                                new Vector(8, -18),
+                                                new Vector(8, -6),
+                                                new Vector(1, -12),
+                                                new Vector(-6, -14),
+                                                new Vector(-14, -11),
+                                                new Vector(-9, -4),
+                                                new Vector(-12, 5));
+
+  private GeomTestUtils() {
+  }
+
+  /**
+   * Creates a simple, counter clockwise star around the origin with n spikes of alternating radii.
+   */
+  static Polyline star(int n) {
+    List<Vector> vectors = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      double angle = 2 * Math.PI * i / n;
+      double r = i % 2 == 0 ? 100 : 40 + i % 7;
+      vectors.add(new Vector(r * Math.cos(angle), r * Math.sin(angle)));
+    }
+    return new Polyline(true, vectors);
+  }
+
+  static Polyline rectangle(double minX, double minY, double maxX, double maxY) {
+    return new Polyline(true, new Vector(minX, minY), new Vector(maxX, minY), new Vector(maxX, maxY),
+                        new Vector(minX, maxY));
+  }
+
+  /**
+   * Creates a simple, counter clockwise ring around the centre with random radii between 10 and 100. The angle
+   * between two vertices is less than 180°, so the ring has many split and merge vertices but is simple.
+   */
+  static Polyline star(RandomSource random, int n, double cx, double cy) {
+    List<Vector> vectors = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      double angle = (i + random.nextDouble(0, 1)) * 2 * Math.PI / n;
+      double r = random.nextDouble(10, 100);
+      vectors.add(new Vector(cx + r * Math.cos(angle), cy + r * Math.sin(angle)));
+    }
+    return new Polyline(true, vectors);
+  }
+
+  /**
+   * Gets the area of the rings: outer boundaries count positive, holes negative.
+   */
+  static double area(List<Polyline> rings) {
+    double area = 0;
+    for (Polyline ring : rings) {
+      assertTrue(ring.isClosed());
+      area += ring.isCCW() ? ring.area() : -ring.area();
+    }
+    return area;
+  }
+
+  /**
+   * Tests, if the point lies inside the rings after the even-odd rule.
+   */
+  static boolean inside(List<Polyline> rings, Vector v) {
+    boolean inside = false;
+    for (Polyline ring : rings) {
+      inside ^= ring.contains(v);
+    }
+    return inside;
+  }
+
+  static void assertVector(Vector expected, Vector actual) {
+    assertEquals(expected.getX(), actual.getX(), DELTA_9);
+    assertEquals(expected.getY(), actual.getY(), DELTA_9);
+  }
+}
@@ -0,0 +1,105 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GridIndexTest {
+  private static int[] collect(Consumer<IntConsumer> query) {
+    IntStream.Builder builder = IntStream.builder();
+    query.accept(builder::add);
+    return builder.build().sorted().toArray();
+  }
+
+  private static int[] brute(int n, IntPredicate predicate) {
+    return IntStream.range(0, n).filter(predicate).toArray();
+  }
+
+  @Test
+  public void testCells() {
+    List<Vector> vectors = new ArrayList<>();
+    vectors.add(new Vector(0, 0));
+    vectors.add(new Vector(2.5, .5));
+    vectors.add(new Vector(1, 1));
+    vectors.add(new Vector(4, 3));
+    vectors.add(new Vector(.5, .2));
+    GridIndex grid = GridIndex.of(vectors, 1);
+    assertEquals(5, grid.size());
+    assertEquals(5, grid.getColumns());
+    assertEquals(4, grid.getRows());
+    assertEquals(2, grid.count(0, 0));
+    assertArrayEquals(new int[]{0, 4}, collect(c -> grid.cell(0, 0, c)));
+    assertArrayEquals(new int[]{3}, collect(c -> grid.cell(4, 3, c)));
+    assertArrayEquals(new int[]{0, 1, 2, 4}, collect(c -> grid.cells(-3, -3, 2, 1, c)));
+    assertArrayEquals(new int[]{0, 2, 4}, collect(c -> grid.neighbourhood(.2, .3, c)));
+    assertEquals(new Vector(4, 3), grid.get(3));
+    assertEquals(4, grid.column(100));
+    assertEquals(0, grid.row(-100));
+    assertThrows(IndexOutOfBoundsException.class, () -> grid.count(5, 0));
+  }
+
+  @Test
+  public void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> GridIndex.of(new double[1], new double[2], 1));
+    assertThrows(IllegalArgumentException.class, () -> GridIndex.of(new double[1], new double[1], 0));
+    assertThrows(IllegalArgumentException.class, () -> GridIndex.of(new double[1], new double[1], Double.NaN));
+    assertThrows(IllegalArgumentException.class, () -> GridIndex.of(new double[]{0, 1e9}, new double[]{0, 1e9}, 1e-3));
+    assertThrows(IllegalArgumentException.class, () -> GridIndex.of(new double[]{Double.NaN}, new double[1], 1));
+
+    GridIndex empty = GridIndex.of(new double[0], new double[0], 1);
+    assertEquals(0, collect(c -> empty.radius(0, 0, 10, c)).length);
+  }
+
+  @Test
+  public void testRadiusAndRange() {
+    int n = 5000;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    RandomSource.seeded(7).fill(xs, ys, -100, 100, -50, 50);
+    GridIndex grid = GridIndex.of(xs, ys, 4);
+    RandomSource random = RandomSource.seeded(8);
+    for (int q = 0; q < 200; q++) {
+      double x = random.nextDouble(-110, 110);
+      double y = random.nextDouble(-60, 60);
+      double r = random.nextDouble(0, 15);
+      assertArrayEquals(brute(n, i -> (xs[i] - x) * (xs[i] - x) + (ys[i] - y) * (ys[i] - y) <= r * r),
+                        collect(c -> grid.radius(x, y, r, c)));
+      double w = random.nextDouble(0, 30);
+      double h = random.nextDouble(0, 30);
+      assertArrayEquals(brute(n, i -> xs[i] >= x && xs[i] <= x + w && ys[i] >= y && ys[i] <= y + h),
+                        collect(c -> grid.range(x, y, x + w, y + h, c)));
+    }
+  }
+
+  @Test
+  public void testParallel() {
+    int n = 200_000;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    RandomSource.seeded(9).fill(xs, ys, 0, 1000, 0, 1000);
+    GridIndex sequential = GridIndex.of(xs, ys, 10);
+    GridIndex parallel = GridIndex.of(xs, ys, 10, true);
+    for (int column = 0; column < sequential.getColumns(); column += 7) {
+      for (int row = 0; row < sequential.getRows(); row += 3) {
+        int c = column;
+        int r = row;
+        assertArrayEquals(collect(k -> sequential.cell(c, r, k)), collect(k -> parallel.cell(c, r, k)));
+      }
+    }
+    int k = 0;
+    for (int i : collect(c -> parallel.cells(5, 5, 6, 6, c))) {
+      assertTrue(xs[i] >= 50 && xs[i] < 70 && ys[i] >= 50 && ys[i] < 70);
+      k++;
+    }
+    assertTrue(k > 0);
+    assertArrayEquals(IntStream.range(0, n).toArray(), collect(c -> sequential.cells(0, 0, 200, 200, c)));
+  }
+}
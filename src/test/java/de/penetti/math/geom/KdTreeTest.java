@@ -0,0 +1,134 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KdTreeTest {
+  private static double distanceSq(double[] xs, double[] ys, int i, double x, double y) {
+    return (xs[i] - x) * (xs[i] - x) + (ys[i] - y) * (ys[i] - y);
+  }
+
+  private static double[][] points(int n, long seed) {
+    RandomSource random = RandomSource.seeded(seed);
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    random.fill(xs, ys, -100, 100, -50, 50);
+    // Dubletten und gleiche Koordinaten
+    for (int i = 0; i < n / 10; i++) {
+      xs[i] = xs[n - 1 - i];
+      ys[2 * i] = ys[n - 1 - i];
+    }
+    return new double[][]{xs, ys};
+  }
+
+  @Test
+  public void testEmpty() {
+    KdTree tree = KdTree.of(new double[0], new double[0]);
+    assertEquals(0, tree.size());
+    assertEquals(-1, tree.nearest(1, 2));
+    assertEquals(0, tree.nearest(1, 2, 3).length);
+    assertEquals(0, tree.radius(0, 0, 10).length);
+    assertEquals(0, tree.range(-1, -1, 1, 1).length);
+  }
+
+  @Test
+  public void testOf() {
+    List<Vector> vectors = new ArrayList<>();
+    vectors.add(new Vector(3, 1));
+    vectors.add(new Vector(-1, 2));
+    vectors.add(new Vector(0, 0));
+    KdTree tree = KdTree.of(vectors);
+    assertEquals(3, tree.size());
+    for (int i = 0; i < vectors.size(); i++) {
+      assertEquals(vectors.get(i), tree.get(i));
+    }
+    assertEquals(2, tree.nearest(new Vector(.1, .2)));
+    assertThrows(IndexOutOfBoundsException.class, () -> tree.get(3));
+    assertThrows(IllegalArgumentException.class, () -> KdTree.of(new double[1], new double[2]));
+    assertThrows(IllegalArgumentException.class, () -> tree.nearest(0, 0, -1));
+
+    Polyline polyline = new Polyline(true, new Vector(0, 0), new Vector(4, 0), new Vector(4, 3));
+    assertEquals(1, KdTree.of(polyline).nearest(5, -1));
+  }
+
+  @Test
+  public void testNearest() {
+    double[][] p = points(5000, 1);
+    double[] xs = p[0];
+    double[] ys = p[1];
+    KdTree tree = KdTree.of(xs, ys);
+    RandomSource random = RandomSource.seeded(2);
+    for (int q = 0; q < 500; q++) {
+      double x = random.nextDouble(-120, 120);
+      double y = random.nextDouble(-60, 60);
+      int expected = 0;
+      for (int i = 1; i < xs.length; i++) {
+        if (distanceSq(xs, ys, i, x, y) < distanceSq(xs, ys, expected, x, y)) {
+          expected = i;
+        }
+      }
+      assertEquals(expected, tree.nearest(x, y));
+
+      int[] k = tree.nearest(x, y, 7);
+      assertEquals(7, k.length);
+      double[] brute = new double[xs.length];
+      for (int i = 0; i < xs.length; i++) {
+        brute[i] = distanceSq(xs, ys, i, x, y);
+      }
+      Arrays.sort(brute);
+      for (int i = 0; i < k.length; i++) {
+        assertEquals(brute[i], distanceSq(xs, ys, k[i], x, y));
+      }
+    }
+    assertEquals(xs.length, tree.nearest(0, 0, xs.length + 5).length);
+  }
+
+  @Test
+  public void testRadiusAndRange() {
+    double[][] p = points(3000, 3);
+    double[] xs = p[0];
+    double[] ys = p[1];
+    KdTree tree = KdTree.of(xs, ys);
+    RandomSource random = RandomSource.seeded(4);
+    for (int q = 0; q < 200; q++) {
+      double x = random.nextDouble(-100, 100);
+      double y = random.nextDouble(-50, 50);
+      double r = random.nextDouble(0, 20);
+      int[] found = tree.radius(x, y, r);
+      Arrays.sort(found);
+      assertArrayEquals(brute(xs, ys, i -> distanceSq(xs, ys, i, x, y) <= r * r), found);
+
+      double w = random.nextDouble(0, 30);
+      double h = random.nextDouble(0, 30);
+      found = tree.range(x, y, x + w, y + h);
+      Arrays.sort(found);
+      assertArrayEquals(brute(xs, ys, i -> xs[i] >= x && xs[i] <= x + w && ys[i] >= y && ys[i] <= y + h), found);
+    }
+  }
+
+  private static int[] brute(double[] xs, double[] ys, IntPredicate predicate) {
+    return IntStream.range(0, xs.length).filter(predicate).toArray();
+  }
+
+  @Test
+  public void testConcurrentReaders() {
+    double[][] p = points(20000, 5);
+    KdTree tree = KdTree.of(p[0], p[1]);
+    int[] expected = new int[1000];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = tree.nearest(i / 10. - 50, i / 20. - 25);
+    }
+    int[] actual = IntStream.range(0, expected.length).parallel()
+                                             .map(i -> tree.nearest(i / 10. - 50, i / 20. - 25))
+                                             .toArray();
+    assertArrayEquals(expected, actual);
+  }
+}
@@ -0,0 +1,61 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import static de.penetti.math.TestUtils.DELTA_ZERO;
+import static de.penetti.math.geom.Line.LineStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineIntersectorTest {
+  @Test
+  void testSegmentIntersects() {
+    LineIntersector.Result result = new LineIntersector.Result();
+    assertEquals(SEGMENT_INTERSECTS, LineIntersector.intersect(4, 10, 6, 14, 2, 11, 7, 13, result));
+    assertEquals(SEGMENT_INTERSECTS, result.getLineStatus());
+    assertTrue(result.hasIntersection());
+    assertEquals(5.125, result.getX(), DELTA_ZERO);
+    assertEquals(12.25, result.getY(), DELTA_ZERO);
+    assertEquals(new Vector(5.125, 12.25), result.getIntersection());
+  }
+
+  @Test
+  void testLineIntersects() {
+    LineIntersector.Result result = new LineIntersector.Result();
+    assertEquals(LINE_INTERSECTS, LineIntersector.intersect(6, 10, 8, 14, 2, 11, 7, 13, result));
+    assertEquals(7.625, result.getX(), DELTA_ZERO);
+    assertEquals(13.25, result.getY(), DELTA_ZERO);
+  }
+
+  @Test
+  void testTouchingEndpoints() {
+    assertEquals(SEGMENT_INTERSECTS, LineIntersector.intersect(0, 0, 2, 2, 2, 2, 4, 0, null));
+    assertEquals(SEGMENT_INTERSECTS, LineIntersector.intersect(0, 0, 4, 0, 2, 0, 2, 5, null));
+  }
+
+  @Test
+  void testParallelAndIdentical() {
+    LineIntersector.Result result = new LineIntersector.Result();
+    assertEquals(PARALLEL, LineIntersector.intersect(6, 10, 8, 14, 4, 10, 6, 14, result));
+    assertFalse(result.hasIntersection());
+    assertNull(result.getIntersection());
+    assertEquals(IDENTICAL, LineIntersector.intersect(6, 10, 8, 14, 4, 6, 10, 18, result));
+    assertTrue(Double.isNaN(result.getX()));
+  }
+
+  @Test
+  void testDeficient() {
+    LineIntersector.Result result = new LineIntersector.Result();
+    assertEquals(DEFICIENT, LineIntersector.intersect(1, 1, 1, 1, 0, 0, 4, 4, result));
+    assertEquals(DEFICIENT, LineIntersector.intersect(0, 0, 4, 4, 0, 0, Double.NaN, 4, result));
+    assertNull(result.getIntersection());
+  }
+
+  @Test
+  void testResultIsReused() {
+    LineIntersector.Result result = new LineIntersector.Result();
+    LineIntersector.intersect(4, 10, 6, 14, 2, 11, 7, 13, result);
+    LineIntersector.intersect(6, 10, 8, 14, 4, 10, 6, 14, result);
+    assertEquals(PARALLEL, result.getLineStatus());
+    assertTrue(Double.isNaN(result.getY()));
+  }
+}
@@ -173,6 +173,31 @@ public class LineTest
     pnt = new Line(2, 10, 7, 8).normal();
     assertEquals(0.371391, pnt.getX(), DELTA_6);
     assertEquals(0.928477, pnt.getY(), DELTA_6);
+
+    assertEquals(pnt, new Line(7, 8, 2, 10).normal());
+    assertEquals(new Vector(1, 0), new Line(3, 0, 3, 5).normal());
+    assertEquals(new Vector(1, 0), new Line(3, 5, 3, 0).normal());
+    pnt = new Line(5, 1, 0, 1).normal();
+    assertEquals(0., pnt.getX(), DELTA_ZERO);
+    assertEquals(1., pnt.getY(), DELTA_ZERO);
+    pnt = new Line(3, 3, 3, 3).normal();
+    assertTrue(Double.isNaN(pnt.getX()));
+    assertTrue(Double.isNaN(pnt.getY()));
+  }
+
+  @Test
+  public void testDistance()
+  {
+    Line l = new Line(0, 0, 4, 0);
+    assertEquals(3, l.distance(new Vector(6, 3)), DELTA_ZERO);
+    assertEquals(3, l.distance(new Vector(2, -3)), DELTA_ZERO);
+    assertEquals(Math.sqrt(13), l.segmentDistance(new Vector(6, 3)), DELTA_6);
+    assertEquals(3, l.segmentDistance(new Vector(2, -3)), DELTA_ZERO);
+    assertEquals(new Vector(4, 0), l.closestPoint(new Vector(6, 3)));
+    assertEquals(new Vector(2, 0), l.closestPoint(new Vector(2, -3)));
+    assertEquals(new Vector(0, 0), l.closestPoint(new Vector(-1, 1)));
+    assertEquals(l.orthogonal(new Vector(1, 7)).length(), l.distance(new Vector(1, 7)), DELTA_ZERO);
+    assertEquals(5, new Line(1, 1, 1, 1).segmentDistance(new Vector(4, 5)), DELTA_ZERO);
   }
 
   @Test
@@ -193,6 +218,17 @@ public class LineTest
     assertEquals(BEHIND,  l.classify(new Vector(-17, -12)));
     assertEquals(BEYOND,  l.classify(new Vector(10, 15)));
     assertEquals(BEYOND,  l.classify(new Vector(14, 19)));
+
+    Line.PointStatus[] out = new Line.PointStatus[3];
+    l.classify(new double[]{0, -4, 10}, new double[]{0, 4, 15}, out);
+    assertArrayEquals(new Line.PointStatus[]{RIGHT, LEFT, BEYOND}, out);
+    assertThrows(IllegalArgumentException.class, () -> l.classify(new double[2], new double[2], out));
+
+    // fast kollinear: hier versagt die einfache Determinante leicht
+    Line near = new Line(12, 12, 24, 24);
+    double ulp = Math.ulp(.5);
+    assertEquals(RIGHT, near.classify(new Vector(.5 + 2 * ulp, .5 + ulp)));
+    assertEquals(LEFT, near.classify(new Vector(.5 + ulp, .5 + 2 * ulp)));
   }
 
   @Test
@@ -263,6 +299,14 @@ public class LineTest
     assertEquals(PARALLEL, s.getLineStatus());
   }
 
+  @Test
+  public void testLinesIntersectionWithoutLength()
+  {
+    Line.Intersection s = new Line(1, 1, 1, 1).intersection(new Line(0, 0, 4, 4));
+    assertEquals(DEFICIENT, s.getLineStatus());
+    assertFalse(s.getIntersection().isPresent());
+  }
+
   @Test
   public void testEquals()
   {
@@ -0,0 +1,61 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import static de.penetti.math.MathUtil.HALF_PI;
+import static de.penetti.math.TestUtils.DELTA_ZERO;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MutableVectorTest {
+  private static void assertVector(Vector expected, MutableVector actual) {
+    assertEquals(expected.getX(), actual.getX(), DELTA_ZERO);
+    assertEquals(expected.getY(), actual.getY(), DELTA_ZERO);
+  }
+
+  @Test
+  void testSet() {
+    MutableVector m = MutableVector.create();
+    assertVector(new Vector(), m);
+    assertSame(m, m.set(new Vector(3, 4)));
+    assertVector(new Vector(3, 4), m);
+    assertVector(new Vector(5, 6), MutableVector.create().set(MutableVector.create(5, 6)));
+    assertEquals(new Vector(3, 4), m.toVector());
+    assertVector(new Vector(7, 8), MutableVector.of(new Vector(7, 8)));
+  }
+
+  @Test
+  void testArithmetic() {
+    Vector v = new Vector(3.5, -2.25);
+    Vector w = new Vector(-1.75, 4);
+    MutableVector m = MutableVector.of(v);
+    assertVector(v.add(w), m.add(w));
+    assertVector(v.add(w).sub(w), m.sub(w));
+    assertVector(v.mul(2.5), m.mul(2.5));
+    assertVector(v.mul(2.5).normalize(), m.normalize());
+    assertEquals(1., m.length(), 1e-15);
+    assertEquals(v.dot(w), MutableVector.of(v).dot(w), DELTA_ZERO);
+    assertVector(new Vector(4, 6), MutableVector.create(1, 2).add(5, 6).sub(2, 2));
+  }
+
+  @Test
+  void testRotate() {
+    Vector v = new Vector(3, 4);
+    Vector origin = new Vector(-2, 1);
+    assertVector(v.rotate(.7), MutableVector.of(v).rotate(.7));
+    assertVector(v.rotate(origin, .7), MutableVector.of(v).rotate(origin, .7));
+    MutableVector m = MutableVector.create(1, 0).rotate(HALF_PI);
+    assertEquals(0, m.getX(), 1e-15);
+    assertEquals(1, m.getY(), 1e-15);
+  }
+
+  @Test
+  void testChain() {
+    Vector v = new Vector(3, 4);
+    Vector origin = new Vector(-2, 1);
+    MutableVector m = MutableVector.create();
+    for (int i = 0; i < 10; i++) {
+      m.set(v).sub(origin).rotate(i * .3).add(origin);
+      assertVector(v.rotate(origin, i * .3), m);
+    }
+  }
+}
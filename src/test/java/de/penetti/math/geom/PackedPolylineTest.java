@@ -0,0 +1,125 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static de.penetti.math.TestUtils.DELTA_9;
+import static de.penetti.math.TestUtils.DELTA_ZERO;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedPolylineTest {
+  private static final Polyline polyline = GeomTestUtils.POLYLINE;
+  private static final PackedPolyline packed = PackedPolyline.fromPolyline(polyline);
+
+  @Test
+  void testOfWithInvalidArrays() {
+    assertThrows(NullPointerException.class, () -> PackedPolyline.of(false, null, new double[2]));
+    assertThrows(IllegalArgumentException.class, () -> PackedPolyline.of(false, new double[2], new double[3]));
+    assertThrows(IllegalArgumentException.class, () -> PackedPolyline.of(false, new double[1], new double[1]));
+  }
+
+  @Test
+  void testOfCopiesArrays() {
+    double[] xs = {0, 2, 2};
+    double[] ys = {0, 0, 2};
+    PackedPolyline pl = PackedPolyline.of(true, xs, ys);
+    xs[1] = 5;
+    assertEquals(2, pl.getX(1), DELTA_ZERO);
+    pl.xs()[1] = 5;
+    assertEquals(2, pl.getX(1), DELTA_ZERO);
+  }
+
+  @Test
+  void testConversion() {
+    assertEquals(polyline.size(), packed.size());
+    assertTrue(packed.isClosed());
+    assertEquals(polyline, packed.toPolyline());
+    assertEquals(new Vector(-4, 9), packed.get(0));
+    assertEquals(packed, PackedPolyline.fromPolyline(packed.toPolyline()));
+  }
+
+  @Test
+  void testLength() {
+    assertEquals(polyline.length(), packed.length(), DELTA_9);
+    PackedPolyline pl = PackedPolyline.of(false, new double[]{0, 2, 2, 0}, new double[]{0, 0, 2, 2});
+    assertEquals(6d, pl.length(), DELTA_ZERO);
+    pl = PackedPolyline.of(true, new double[]{0, 2, 2, 0}, new double[]{0, 0, 2, 2});
+    assertEquals(8d, pl.length(), DELTA_ZERO);
+  }
+
+  @Test
+  void testArea() {
+    assertEquals(641.0, packed.area(), DELTA_ZERO);
+    assertEquals(4346.82, PackedPolyline.of(false, new double[]{0, 0, 58.9, 58.9},
+                                            new double[]{0, 73.8, 73.8, 0}).area(), DELTA_ZERO);
+  }
+
+  @Test
+  void testIsCCW() {
+    assertFalse(packed.isCCW());
+    assertTrue(PackedPolyline.fromPolyline(polyline.ccw()).isCCW());
+    assertTrue(PackedPolyline.of(false, new double[]{0, 2}, new double[]{0, 0}).isCCW());
+  }
+
+  @Test
+  void testContains() {
+    for (int x = -16; x <= 16; x++) {
+      for (int y = -20; y <= 20; y++) {
+        Vector v = new Vector(x, y);
+        assertEquals(polyline.contains(v), packed.contains(v), v.toString());
+        v = new Vector(x + .5, y + .25);
+        assertEquals(polyline.contains(v), packed.contains(v.getX(), v.getY()), v.toString());
+      }
+    }
+  }
+
+  @Test
+  void testCentroid() {
+    assertEquals(polyline.centroid(), packed.centroid());
+  }
+
+  @Test
+  void testIntersectionLine() {
+    Line line = Line.withOrigin(new Vector(17, -17)).withDestination(new Vector(-14, 14));
+    Collection<PackedPolyline.SegmentIntersection> intersections = packed.intersection(line);
+    List<Vector> expected = polyline.intersection(line).stream()
+                                    .filter(i -> i.getLineStatus() == Line.LineStatus.SEGMENT_INTERSECTS)
+                                    .map(i -> i.getIntersection().get())
+                                    .collect(Collectors.toList());
+    assertEquals(4, intersections.size());
+    List<Vector> actual = new ArrayList<>();
+    intersections.forEach(i -> actual.add(i.getIntersection()));
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getX(), actual.get(i).getX(), DELTA_9);
+      assertEquals(expected.get(i).getY(), actual.get(i).getY(), DELTA_9);
+    }
+
+    intersections = packed.intersection(Line.withOrigin(new Vector(-4, 9)).withDirection(new Vector(0, 4)));
+    assertEquals(2, intersections.size());
+    assertEquals(1, intersections.iterator().next().getSegment());
+  }
+
+  @Test
+  void testIntersectionPolyline() {
+    Polyline other = Transform2D.rotation(new Vector(1, 2), .7).apply(polyline);
+    Collection<PackedPolyline.SegmentPairIntersection> intersections =
+      packed.intersection(PackedPolyline.fromPolyline(other));
+    List<Polyline.PolylineIntersection> expected = new ArrayList<>(polyline.intersection(other));
+    assertFalse(expected.isEmpty());
+    assertEquals(expected.size(), intersections.size());
+    int k = 0;
+    for (PackedPolyline.SegmentPairIntersection i : intersections) {
+      Polyline.PolylineIntersection e = expected.get(k++);
+      assertEquals(polyline.segment(i.getSegment1()), e.getLine1());
+      assertEquals(other.segment(i.getSegment2()), e.getLine2());
+      assertEquals(e.getIntersection().get(), i.getIntersection());
+    }
+
+    PackedPolyline far = PackedPolyline.fromPolyline(Transform2D.translation(100, 0).apply(polyline));
+    assertTrue(packed.intersection(far).isEmpty());
+  }
+}
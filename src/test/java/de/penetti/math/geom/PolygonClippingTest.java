@@ -0,0 +1,318 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+import de.penetti.math.geom.PolygonClipping.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static de.penetti.math.geom.GeomTestUtils.area;
+import static de.penetti.math.geom.GeomTestUtils.inside;
+import static de.penetti.math.geom.GeomTestUtils.rectangle;
+import static de.penetti.math.geom.GeomTestUtils.star;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolygonClippingTest {
+  /**
+   * Creates a wavy ring with little noise, like a digitized outline.
+   */
+  private static Polyline blob(RandomSource random, int n, double cx, double cy) {
+    List<Vector> vectors = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      double angle = (i + random.nextDouble(0, 1)) * 2 * Math.PI / n;
+      double r = 100 + 10 * Math.sin(7 * angle) + random.nextDouble(0, 100.0 / n);
+      vectors.add(new Vector(cx + r * Math.cos(angle), cy + r * Math.sin(angle)));
+    }
+    return new Polyline(true, vectors);
+  }
+
+  private static void shuffle(List<Polyline> polygons, RandomSource random) {
+    for (int i = polygons.size() - 1; i > 0; i--) {
+      Collections.swap(polygons, i, (int) random.nextDouble(0, i + 1));
+    }
+  }
+
+  @Test
+  public void testOverlappingSquares() {
+    Polyline a = rectangle(0, 0, 2, 2);
+    Polyline b = rectangle(1, 1, 3, 3);
+    List<Polyline> union = a.union(b);
+    assertEquals(1, union.size());
+    assertEquals(8, union.get(0).size());
+    assertTrue(union.get(0).isCCW());
+    assertEquals(7, area(union), 1e-12);
+
+    List<Polyline> intersection = a.clip(b, Operation.INTERSECTION);
+    assertEquals(1, intersection.size());
+    assertEquals(4, intersection.get(0).size());
+    assertEquals(1, area(intersection), 1e-12);
+
+    assertEquals(3, area(a.difference(b)), 1e-12);
+    assertEquals(3, area(b.difference(a)), 1e-12);
+    List<Polyline> xor = a.xor(b);
+    assertEquals(2, xor.size());
+    assertEquals(6, area(xor), 1e-12);
+  }
+
+  @Test
+  public void testOrientationOfInput() {
+    Polyline a = rectangle(0, 0, 2, 2).reverse();
+    Polyline b = rectangle(1, 1, 3, 3);
+    assertEquals(7, area(a.union(b)), 1e-12);
+    assertEquals(1, area(a.clip(b.reverse(), Operation.INTERSECTION)), 1e-12);
+  }
+
+  @Test
+  public void testDisjoint() {
+    Polyline a = rectangle(0, 0, 1, 1);
+    Polyline b = rectangle(2, 0, 3, 1);
+    assertEquals(2, a.union(b).size());
+    assertEquals(List.of(), a.clip(b, Operation.INTERSECTION));
+    List<Polyline> difference = a.difference(b);
+    assertEquals(1, difference.size());
+    assertEquals(1, area(difference), 1e-12);
+  }
+
+  @Test
+  public void testContained() {
+    Polyline outer = rectangle(0, 0, 4, 4);
+    Polyline inner = rectangle(1, 1, 2, 2);
+    List<Polyline> union = outer.union(inner);
+    assertEquals(1, union.size());
+    assertEquals(16, area(union), 1e-12);
+
+    List<Polyline> difference = outer.difference(inner);
+    assertEquals(2, difference.size());
+    assertEquals(15, area(difference), 1e-12);
+    assertEquals(1, difference.stream().filter(ring -> !ring.isCCW()).count());
+
+    assertEquals(1, area(outer.clip(inner, Operation.INTERSECTION)), 1e-12);
+    assertEquals(List.of(), inner.difference(outer));
+  }
+
+  @Test
+  public void testIdentical() {
+    Polyline a = rectangle(0, 0, 1, 1);
+    List<Polyline> union = a.union(rectangle(0, 0, 1, 1));
+    assertEquals(1, union.size());
+    assertEquals(1, area(union), 1e-12);
+    assertEquals(List.of(), a.xor(a));
+    assertEquals(List.of(), a.difference(a));
+    assertEquals(1, area(a.clip(a, Operation.INTERSECTION)), 1e-12);
+  }
+
+  @Test
+  public void testSharedEdge() {
+    // die gemeinsame Kante und die kollinearen Punkte fallen weg
+    List<Polyline> union = rectangle(0, 0, 1, 1).union(rectangle(1, 0, 2, 1));
+    assertEquals(1, union.size());
+    assertEquals(4, union.get(0).size());
+    assertEquals(2, area(union), 1e-12);
+
+    // teilweise gemeinsame Kante
+    union = rectangle(0, 0, 1, 1).union(rectangle(1, .5, 2, 2));
+    assertEquals(1, union.size());
+    assertEquals(1 + 1.5, area(union), 1e-12);
+    assertEquals(List.of(), rectangle(0, 0, 1, 1).clip(rectangle(1, .5, 2, 2), Operation.INTERSECTION));
+  }
+
+  @Test
+  public void testTouchingCorner() {
+    List<Polyline> union = rectangle(0, 0, 1, 1).union(rectangle(1, 1, 2, 2));
+    assertEquals(2, union.size());
+    assertEquals(2, area(union), 1e-12);
+    union.forEach(ring -> assertEquals(4, ring.size()));
+  }
+
+  @Test
+  public void testHoles() {
+    // Loch in gleicher Orientierung wie der äußere Rand: gerade-ungerade-Regel
+    List<Polyline> subject = List.of(rectangle(0, 0, 4, 4), rectangle(1, 1, 3, 3));
+    List<Polyline> clip = List.of(rectangle(2, -1, 5, 5));
+    List<Polyline> union = PolygonClipping.compute(subject, clip, Operation.UNION);
+    // 12 + 18 - 6
+    assertEquals(24, area(union), 1e-12);
+    assertEquals(2, union.size());
+    List<Polyline> intersection = PolygonClipping.compute(subject, clip, Operation.INTERSECTION);
+    assertEquals(8 - 2, area(intersection), 1e-12);
+  }
+
+  @Test
+  public void testSpike() {
+    // die Spitze hat keine Fläche und verschwindet
+    Polyline spike = new Polyline(true, new Vector(0, 0), new Vector(2, 0), new Vector(2, 1), new Vector(3, 1),
+                                  new Vector(2, 1), new Vector(2, 2), new Vector(0, 2));
+    List<Polyline> union = spike.union(rectangle(5, 5, 6, 6));
+    assertEquals(2, union.size());
+    assertEquals(5, area(union), 1e-12);
+    assertEquals(4, union.get(0).size());
+  }
+
+  @Test
+  public void testZeroArea() {
+    // alle Strecken waagerecht auf derselben Höhe
+    Polyline flat = new Polyline(true, new Vector(0, 0), new Vector(1, 0), new Vector(2, 0));
+    assertTrue(PolygonClipping.union(flat, flat).isEmpty());
+    assertTrue(PolygonClipping.unionAll(List.of(flat)).isEmpty());
+    List<Polyline> union = flat.union(rectangle(0, 0, 2, 1));
+    assertEquals(1, union.size());
+    assertEquals(2, area(union), 1e-12);
+  }
+
+  @Test
+  public void testSelfIntersecting() {
+    // Schleife: nach der gerade-ungerade-Regel zwei Dreiecke
+    Polyline bowtie = new Polyline(true, new Vector(0, 0), new Vector(2, 2), new Vector(2, 0), new Vector(0, 2));
+    List<Polyline> union = bowtie.union(rectangle(10, 10, 11, 11));
+    assertEquals(3, union.size());
+    assertEquals(2 + 1, area(union), 1e-12);
+  }
+
+  @Test
+  public void testRandom() {
+    RandomSource random = RandomSource.seeded(11);
+    for (int k = 0; k < 20; k++) {
+      Polyline a = star(random, 50, 0, 0);
+      Polyline b = star(random, 60, random.nextDouble(-50, 50), random.nextDouble(-50, 50));
+      List<Polyline> union = a.union(b);
+      List<Polyline> intersection = a.clip(b, Operation.INTERSECTION);
+      List<Polyline> difference = a.difference(b);
+      List<Polyline> xor = a.xor(b);
+      double tolerance = 1e-9 * (a.area() + b.area());
+      assertEquals(a.area() + b.area() - area(intersection), area(union), tolerance);
+      assertEquals(a.area() - area(intersection), area(difference), tolerance);
+      assertEquals(area(union) - area(intersection), area(xor), tolerance);
+      for (Polyline ring : union) {
+        assertTrue(ring.isSimple());
+      }
+
+      // Stichproben
+      for (int i = 0; i < 200; i++) {
+        Vector v = new Vector(random.nextDouble(-150, 150), random.nextDouble(-150, 150));
+        boolean inA = a.contains(v);
+        boolean inB = b.contains(v);
+        assertEquals(inA || inB, inside(union, v));
+        assertEquals(inA && inB, inside(intersection, v));
+        assertEquals(inA && !inB, inside(difference, v));
+        assertEquals(inA != inB, inside(xor, v));
+      }
+    }
+  }
+
+  @Test
+  public void testUnionAllEmpty() {
+    assertEquals(List.of(), PolygonClipping.unionAll(List.of()));
+  }
+
+  @Test
+  public void testUnionAllParcels() {
+    // 40 x 40 Parzellen in zufälliger Reihenfolge, ohne die Parzelle (20, 20)
+    List<Polyline> parcels = new ArrayList<>();
+    for (int i = 0; i < 40 * 40; i++) {
+      if (i != 20 * 40 + 20) {
+        parcels.add(rectangle(i % 40, i / 40, i % 40 + 1, i / 40 + 1));
+      }
+    }
+    shuffle(parcels, RandomSource.seeded(3));
+    List<Polyline> union = Polyline.unionAll(parcels);
+    assertEquals(2, union.size());
+    assertEquals(40 * 40 - 1, area(union), 1e-9);
+    for (Polyline ring : union) {
+      assertEquals(4, ring.size());
+    }
+  }
+
+  @Test
+  public void testUnionAllFrames() {
+    // 10 x 10 Rahmen aus je vier sich berührenden Rechtecken; die Vereinigung hat je Rahmen ein Loch
+    List<Polyline> parts = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      double x = 5 * (i % 10);
+      double y = 5 * (i / 10);
+      parts.add(rectangle(x, y, x + 3, y + 1));
+      parts.add(rectangle(x, y + 2, x + 3, y + 3));
+      parts.add(rectangle(x, y + 1, x + 1, y + 2));
+      parts.add(rectangle(x + 2, y + 1, x + 3, y + 2));
+    }
+    shuffle(parts, RandomSource.seeded(7));
+    assertTrue(parts.size() > 2 * PolygonClipping.PARALLEL_THRESHOLD);
+    List<Polyline> union = PolygonClipping.unionAll(parts);
+    List<Polyline> sequential = List.of(parts.get(0));
+    for (int i = 1; i < parts.size(); i++) {
+      sequential = PolygonClipping.compute(sequential, List.of(parts.get(i)), Operation.UNION);
+    }
+    for (List<Polyline> rings : List.of(union, sequential)) {
+      assertEquals(200, rings.size());
+      assertEquals(100, rings.stream().filter(Polyline::isCCW).count());
+      assertEquals(100 * 8, area(rings), 1e-9);
+      rings.forEach(ring -> assertEquals(4, ring.size()));
+    }
+    assertFalse(inside(union, new Vector(1.5, 1.5)));
+    assertTrue(inside(union, new Vector(.5, 1.5)));
+  }
+
+  @Test
+  public void testUnionAllDisjoint() {
+    List<Polyline> union = PolygonClipping.unionAll(List.of(rectangle(0, 0, 1, 1), rectangle(5, 0, 6, 1),
+                                                            rectangle(0, 5, 1, 6).reverse()));
+    assertEquals(3, union.size());
+    union.forEach(ring -> assertTrue(ring.isCCW()));
+    assertEquals(3, area(union), 1e-12);
+  }
+
+  @Test
+  public void testUnionAllRandom() {
+    RandomSource random = RandomSource.seeded(17);
+    List<Polyline> polygons = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      Polyline star = star(random, 12, random.nextDouble(0, 1000), random.nextDouble(0, 1000));
+      polygons.add(star);
+    }
+    List<Polyline> union = PolygonClipping.unionAll(polygons);
+    List<Polyline> sequential = List.of(polygons.get(0));
+    for (int i = 1; i < polygons.size(); i++) {
+      sequential = PolygonClipping.compute(sequential, List.of(polygons.get(i)), Operation.UNION);
+    }
+    assertEquals(area(sequential), area(union), 1e-9 * area(union));
+    for (int k = 0; k < 500; k++) {
+      Vector v = new Vector(random.nextDouble(-100, 1100), random.nextDouble(-100, 1100));
+      boolean expected = polygons.stream().anyMatch(polygon -> polygon.contains(v));
+      assertEquals(expected, inside(union, v));
+    }
+  }
+
+  @Test
+  public void testHilbert() {
+    // aufeinander folgende Positionen sind benachbarte Zellen
+    int size = 64;
+    int[] xs = new int[size * size];
+    int[] ys = new int[size * size];
+    Arrays.fill(xs, -1);
+    for (int x = 0; x < size; x++) {
+      for (int y = 0; y < size; y++) {
+        long d = PolygonClipping.hilbert(x, y);
+        assertTrue(d < size * size);
+        assertEquals(-1, xs[(int) d]);
+        xs[(int) d] = x;
+        ys[(int) d] = y;
+      }
+    }
+    for (int d = 1; d < size * size; d++) {
+      assertEquals(1, Math.abs(xs[d] - xs[d - 1]) + Math.abs(ys[d] - ys[d - 1]));
+    }
+  }
+
+  @Test
+  public void testLarge() {
+    RandomSource random = RandomSource.seeded(5);
+    Polyline a = blob(random, 100_000, 0, 0);
+    Polyline b = blob(random, 100_000, 20, 10);
+    List<Polyline> intersection = a.clip(b, Operation.INTERSECTION);
+    List<Polyline> union = a.union(b);
+    double tolerance = 1e-9 * (a.area() + b.area());
+    assertEquals(a.area() + b.area() - area(intersection), area(union), tolerance);
+  }
+}
@@ -0,0 +1,57 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import static de.penetti.math.TestUtils.DELTA_9;
+import static de.penetti.math.geom.GeomTestUtils.assertVector;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolylineMetricsTest {
+  private static final Polyline polyline = GeomTestUtils.POLYLINE;
+
+  @Test
+  void testMetrics() {
+    PolylineMetrics metrics = polyline.metrics();
+    assertEquals(polyline.length(), metrics.getLength(), DELTA_9);
+    assertEquals(641., metrics.getArea(), DELTA_9);
+    assertEquals(-641., metrics.getSignedArea(), DELTA_9);
+    assertFalse(metrics.isCCW());
+    assertVector(polyline.centroid(), metrics.getVertexCentroid());
+    assertEquals(-14, metrics.getMinX());
+    assertEquals(-18, metrics.getMinY());
+    assertEquals(15, metrics.getMaxX());
+    assertEquals(19, metrics.getMaxY());
+    assertEquals(29, metrics.getWidth());
+    assertEquals(37, metrics.getHeight());
+
+    PolylineMetrics ccw = polyline.ccw().metrics();
+    assertTrue(ccw.isCCW());
+    assertEquals(641., ccw.getSignedArea(), DELTA_9);
+    assertVector(metrics.getCentroid(), ccw.getCentroid());
+    assertVector(metrics.getCentroid(), PolylineMetrics.of(PackedPolyline.fromPolyline(polyline)).getCentroid());
+  }
+
+  @Test
+  void testCentroid() {
+    // L-förmiges Polygon aus den Quadraten [0,2]x[0,2] und [2,4]x[0,2] sowie [0,2]x[2,4]
+    Polyline l = new Polyline(true, new Vector(0, 0), new Vector(4, 0), new Vector(4, 2), new Vector(2, 2),
+                              new Vector(2, 4), new Vector(0, 4));
+    assertVector(new Vector(10 / 6., 10 / 6.), l.metrics().getCentroid());
+    assertVector(new Vector(10 / 6., 10 / 6.), l.cw().centerOfGravity());
+    assertVector(new Vector(2, 2), l.centroid());
+    Vector degenerate = new Polyline(true, new Vector(0, 0), new Vector(4, 0)).metrics().getCentroid();
+    assertTrue(Double.isNaN(degenerate.getX()));
+  }
+
+  @Test
+  void testOpenPolyline() {
+    Polyline open = new Polyline(false, new Vector(0, 0), new Vector(2, 0), new Vector(2, 2), new Vector(0, 2));
+    PolylineMetrics metrics = open.metrics();
+    assertEquals(6., metrics.getLength(), DELTA_9);
+    assertEquals(open.area(), metrics.getArea(), DELTA_9);
+    assertEquals(open.isCCW(), metrics.isCCW());
+    PolylineMetrics packed = PolylineMetrics.of(PackedPolyline.fromPolyline(open));
+    assertEquals(6., packed.getLength(), DELTA_9);
+    assertEquals(4., packed.getArea(), DELTA_9);
+  }
+}
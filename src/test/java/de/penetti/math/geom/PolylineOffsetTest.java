@@ -0,0 +1,233 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+import de.penetti.math.geom.PolylineOffset.JoinStyle;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static de.penetti.math.geom.GeomTestUtils.area;
+import static de.penetti.math.geom.GeomTestUtils.inside;
+import static de.penetti.math.geom.GeomTestUtils.rectangle;
+import static de.penetti.math.geom.GeomTestUtils.star;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolylineOffsetTest {
+  @Test
+  public void testSquare() {
+    Polyline square = rectangle(0, 0, 10, 10);
+    List<Polyline> miter = square.offset(1, JoinStyle.MITER);
+    assertEquals(1, miter.size());
+    assertEquals(4, miter.get(0).size());
+    assertTrue(miter.get(0).isCCW());
+    assertEquals(144, area(miter), 1e-9);
+    assertEquals(142, area(square.offset(1, JoinStyle.BEVEL)), 1e-9);
+    // Steiner: Fläche + Umfang * Abstand + Kreis, der Kreis wird von innen angenähert
+    double round = area(square.offset(1, JoinStyle.ROUND));
+    assertTrue(round < 140 + Math.PI);
+    assertTrue(round > 140 + Math.PI * (1 - 2e-3));
+  }
+
+  @Test
+  public void testOrientation() {
+    Polyline square = rectangle(0, 0, 10, 10);
+    assertEquals(area(square.offset(1, JoinStyle.ROUND)), area(square.reverse().offset(1, JoinStyle.ROUND)), 1e-9);
+  }
+
+  @Test
+  public void testShrink() {
+    Polyline square = rectangle(0, 0, 10, 10);
+    for (JoinStyle join : JoinStyle.values()) {
+      List<Polyline> offset = square.offset(-1, join);
+      assertEquals(1, offset.size());
+      assertEquals(4, offset.get(0).size());
+      assertEquals(64, area(offset), 1e-9);
+      assertTrue(square.offset(-5.5, join).isEmpty());
+    }
+  }
+
+  @Test
+  public void testZeroDistance() {
+    Polyline square = rectangle(0, 0, 10, 10);
+    assertEquals(100, area(square.offset(0, JoinStyle.ROUND)), 1e-12);
+    // von der Acht bleibt nur die Hälfte gegen den Uhrzeigersinn
+    Polyline eight = new Polyline(true, new Vector(0, 0), new Vector(2, 2), new Vector(2, 0), new Vector(0, 2));
+    List<Polyline> cleaned = eight.offset(0, JoinStyle.MITER);
+    assertEquals(1, cleaned.size());
+    assertEquals(1, area(cleaned), 1e-12);
+    // ohne Fläche
+    Polyline flat = new Polyline(true, new Vector(0, 0), new Vector(1, 0), new Vector(2, 0));
+    assertTrue(flat.offset(0, JoinStyle.MITER).isEmpty());
+  }
+
+  @Test
+  public void testBufferZeroDistance() {
+    Polyline segment = new Polyline(false, new Vector(0, 0), new Vector(1, 0));
+    for (JoinStyle join : JoinStyle.values()) {
+      assertTrue(segment.buffer(0, join).isEmpty());
+    }
+  }
+
+  @Test
+  public void testMiterLimit() {
+    // spitze Ecke oben: die Gehrung wäre länger als das Doppelte des Abstands
+    Polyline triangle = new Polyline(true, new Vector(0, 0), new Vector(2, 0), new Vector(1, 10));
+    List<Polyline> limited = PolylineOffset.offset(List.of(triangle), 1, JoinStyle.MITER, 2, 0);
+    List<Polyline> unlimited = PolylineOffset.offset(List.of(triangle), 1, JoinStyle.MITER, 100, 0);
+    assertEquals(4, limited.get(0).size());
+    assertEquals(3, unlimited.get(0).size());
+    assertTrue(area(limited) < area(unlimited));
+  }
+
+  @Test
+  public void testHole() {
+    // Rahmen: der Rand wächst nach außen, das Loch schrumpft
+    List<Polyline> frame = List.of(rectangle(0, 0, 10, 10), rectangle(3, 3, 7, 7).cw());
+    assertEquals(144 - 4, area(PolylineOffset.offset(frame, 1, JoinStyle.MITER)), 1e-9);
+    List<Polyline> closed = PolylineOffset.offset(frame, 2.5, JoinStyle.MITER);
+    assertEquals(1, closed.size());
+    assertEquals(225, area(closed), 1e-9);
+  }
+
+  @Test
+  public void testRandom() {
+    // die Punkte mit Abstand bis zu d vom Polygon bzw. innen mit Abstand über |d|
+    RandomSource random = RandomSource.seeded(11);
+    for (int k = 0; k < 30; k++) {
+      Polyline star = star(random, 3 + k, 0, 0);
+      double distance = random.nextDouble(-20, 20);
+      double tolerance = 1e-3;
+      List<Polyline> offset = PolylineOffset.offset(List.of(star.ccw()), distance, JoinStyle.ROUND, 2, tolerance);
+      offset.forEach(ring -> assertTrue(ring.isSimple()));
+      for (int i = 0; i < 200; i++) {
+        Vector v = new Vector(random.nextDouble(-130, 130), random.nextDouble(-130, 130));
+        double signed = star.contains(v) ? -star.distance(v) : star.distance(v);
+        if (Math.abs(signed - distance) > 2 * tolerance) {
+          assertEquals(signed < distance, inside(offset, v), "star " + k + ", point " + v);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBufferSegment() {
+    Polyline segment = new Polyline(false, new Vector(0, 0), new Vector(10, 0));
+    assertEquals(20, area(segment.buffer(1, JoinStyle.BEVEL)), 1e-9);
+    assertEquals(20, area(segment.buffer(1, JoinStyle.MITER)), 1e-9);
+    double round = area(segment.buffer(1, JoinStyle.ROUND));
+    assertTrue(round < 20 + Math.PI);
+    assertTrue(round > 20 + Math.PI * (1 - 2e-3));
+  }
+
+  @Test
+  public void testBufferPoint() {
+    Polyline point = new Polyline(false, new Vector(1, 2), new Vector(1, 2));
+    List<Polyline> circle = point.buffer(1, JoinStyle.ROUND);
+    assertEquals(1, circle.size());
+    assertEquals(Math.PI, area(circle), 1e-2);
+    assertTrue(point.buffer(1, JoinStyle.BEVEL).isEmpty());
+  }
+
+  @Test
+  public void testOffsetPoint() {
+    Polyline point = new Polyline(true, new Vector(0, 0), new Vector(0, 0));
+    assertTrue(point.offset(1, JoinStyle.MITER).isEmpty());
+    assertTrue(point.offset(1, JoinStyle.BEVEL).isEmpty());
+    assertTrue(point.offset(-1, JoinStyle.ROUND).isEmpty());
+    List<Polyline> circle = point.offset(1, JoinStyle.ROUND);
+    assertEquals(1, circle.size());
+    assertEquals(Math.PI, area(circle), 1e-2);
+    List<PolylineOffset.Path> paths = PolylineOffset.offsetPaths(List.of(point), 1, JoinStyle.MITER, 2);
+    assertEquals(1, paths.size());
+    assertEquals(0, paths.get(0).size());
+    assertEquals(Optional.empty(), paths.get(0).flatten(1e-3));
+  }
+
+  @Test
+  public void testBufferRandom() {
+    // eine sich selbst schneidende offene Polyline
+    RandomSource random = RandomSource.seeded(13);
+    List<Vector> vectors = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      vectors.add(new Vector(random.nextDouble(0, 100), random.nextDouble(0, 100)));
+    }
+    Polyline polyline = new Polyline(false, vectors);
+    double tolerance = 1e-3;
+    List<Polyline> buffer = PolylineOffset.buffer(polyline, 3, JoinStyle.ROUND, 2, tolerance);
+    for (int i = 0; i < 2000; i++) {
+      Vector v = new Vector(random.nextDouble(-10, 110), random.nextDouble(-10, 110));
+      double distance = polyline.distance(v);
+      if (Math.abs(distance - 3) > 2 * tolerance) {
+        assertEquals(distance < 3, inside(buffer, v), "point " + v);
+      }
+    }
+  }
+
+  @Test
+  public void testBufferNegative() {
+    Polyline segment = new Polyline(false, new Vector(0, 0), new Vector(10, 0));
+    assertThrows(IllegalArgumentException.class, () -> segment.buffer(-1, JoinStyle.ROUND));
+  }
+
+  @Test
+  public void testPaths() {
+    Polyline square = rectangle(0, 0, 10, 10);
+    List<PolylineOffset.Path> paths = PolylineOffset.offsetPaths(List.of(square), 1, JoinStyle.ROUND, 2);
+    assertEquals(1, paths.size());
+    PolylineOffset.Path path = paths.get(0);
+    assertEquals(8, path.size());
+    List<Arc> arcs = path.arcs();
+    assertEquals(4, arcs.size());
+    for (int i = 0; i < 4; i++) {
+      assertEquals(Math.tan(Math.PI / 8), path.bulge(2 * i), 1e-12);
+      assertEquals(0, path.bulge(2 * i + 1));
+      assertEquals(1, arcs.get(i).getXRadius(), 1e-12);
+      assertEquals(Math.PI / 2, arcs.get(i).getExtend(), 1e-12);
+    }
+    assertEquals(square.vector(0).getX(), arcs.get(0).getCenter().getX(), 1e-12);
+    assertEquals(square.vector(0).getY(), arcs.get(0).getCenter().getY(), 1e-12);
+    Polyline flat = path.flatten(1e-4).orElseThrow();
+    assertEquals(140 + Math.PI, flat.area(), 1e-3);
+  }
+
+  @Test
+  public void testLarge() {
+    // eine gewellte Kontur mit vielen Punkten, innen und außen versetzt
+    int n = 200_000;
+    List<Vector> vectors = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      double angle = i * 2 * Math.PI / n;
+      double r = 1000 + 50 * Math.sin(40 * angle);
+      vectors.add(new Vector(r * Math.cos(angle), r * Math.sin(angle)));
+    }
+    Polyline contour = new Polyline(true, vectors);
+    List<Polyline> outer = contour.offset(10, JoinStyle.ROUND);
+    List<Polyline> inner = contour.offset(-10, JoinStyle.ROUND);
+    assertEquals(1, outer.size());
+    assertEquals(1, inner.size());
+    double length = contour.length();
+    assertEquals(contour.area() + 10 * length, area(outer), 1e-3 * contour.area());
+    assertEquals(contour.area() - 10 * length, area(inner), 1e-3 * contour.area());
+  }
+
+  @Test
+  public void testNoisyInward() {
+    // die gewellte Kontur mit Rauschen unter der Toleranz; der Abstand ist hundertmal so groß wie die Strecken
+    RandomSource random = RandomSource.seeded(19);
+    int n = 200_000;
+    List<Vector> vectors = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      double angle = i * 2 * Math.PI / n;
+      double r = 1000 + 50 * Math.sin(40 * angle) + random.nextDouble(-1e-3, 1e-3);
+      vectors.add(new Vector(r * Math.cos(angle), r * Math.sin(angle)));
+    }
+    Polyline contour = new Polyline(true, vectors);
+    List<Polyline> inner = assertTimeoutPreemptively(Duration.ofSeconds(20), () -> contour.offset(-3, JoinStyle.ROUND));
+    assertEquals(1, inner.size());
+    double smooth = contour.eleminateNonCorners(1e-3).length();
+    assertEquals(contour.area() - 3 * smooth, area(inner), 1e-4 * contour.area());
+  }
+}
@@ -16,11 +16,19 @@ package de.penetti.math.geom;
 import org.junit.jupiter.api.Test;
 
 import java.awt.geom.Point2D;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static de.penetti.math.TestUtils.DELTA_9;
 import static de.penetti.math.TestUtils.DELTA_ZERO;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -358,8 +366,16 @@ public class PolylineTest {
     Collection<Polyline.PolylineIntersection> intersections = polyline.intersection(pl);
     assertEquals(3, intersections.stream().filter(i -> i.getLineStatus() == Line.LineStatus.SEGMENT_INTERSECTS).count());
 
+    assertEquals(3, intersections.size());
+
     intersections = polyline.intersection(new Polyline(true, pl));
     assertEquals(4, intersections.stream().filter(i -> i.getLineStatus() == Line.LineStatus.SEGMENT_INTERSECTS).count());
+    assertEquals(4, intersections.size());
+    for (Polyline.PolylineIntersection intersection : intersections) {
+      Vector v = intersection.getIntersection().get();
+      assertTrue(intersection.getLine1().contains(v) || intersection.getLine1().distance(v) < DELTA_9);
+      assertSame(polyline, intersection.getPolyline1());
+    }
   }
 
   @Test
@@ -385,4 +401,208 @@ public class PolylineTest {
                            .build(true);
     assertTrue(pl1.equals(pl2));
   }
+
+  @Test
+  void testCachedProperties() throws Exception {
+    Polyline pl = new Polyline(true, new Vector(0, 0), new Vector(3, 0), new Vector(3, 4));
+    assertSame(pl.metrics(), pl.metrics());
+    assertEquals(12., pl.length(), DELTA_ZERO);
+    assertEquals(6., pl.area(), DELTA_ZERO);
+    assertTrue(pl.isCCW());
+    assertArrayEquals(new double[]{0, 3, 7, 12}, pl.cumulativeLengths(), DELTA_ZERO);
+    pl.cumulativeLengths()[1] = 42;
+    assertEquals(3., pl.cumulativeLengths()[1], DELTA_ZERO);
+    assertArrayEquals(new double[]{0, 3, 7}, new Polyline(false, new Vector(0, 0), new Vector(3, 0), new Vector(3, 4))
+      .cumulativeLengths(), DELTA_ZERO);
+
+    Polyline uncached = pl.uncached();
+    assertTrue(uncached.isUncached());
+    assertFalse(pl.isUncached());
+    assertSame(uncached, uncached.uncached());
+    assertEquals(pl, uncached);
+    assertNotSame(uncached.metrics(), uncached.metrics());
+    assertSame(pl.segmentIndex(), pl.segmentIndex());
+    assertNotSame(uncached.segmentIndex(), uncached.segmentIndex());
+    assertEquals(pl.area(), uncached.area(), DELTA_ZERO);
+    assertArrayEquals(pl.cumulativeLengths(), uncached.cumulativeLengths(), DELTA_ZERO);
+
+    List<PolylineMetrics> metrics = Collections.synchronizedList(new ArrayList<>());
+    Polyline shared = new Polyline(true, new Vector(0, 0), new Vector(3, 0), new Vector(3, 4));
+    IntStream.range(0, 1000).parallel().forEach(i -> metrics.add(shared.metrics()));
+    assertTrue(metrics.stream().allMatch(m -> m == metrics.get(0)));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(pl);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Polyline copy = (Polyline) in.readObject();
+      assertEquals(pl, copy);
+      assertEquals(6., copy.area(), DELTA_ZERO);
+    }
+  }
+
+  @Test
+  void testReverse() {
+    Polyline reversed = polyline.reverse();
+    assertEquals(polyline.size(), reversed.size());
+    assertEquals(new Vector(-12, 5), reversed.stream().findFirst().get());
+    assertEquals(polyline.area(), reversed.area(), DELTA_9);
+    assertEquals(!polyline.isCCW(), reversed.isCCW());
+    assertEquals(polyline, reversed.reverse());
+    assertEquals(polyline.ccw(), reversed);
+    List<Vector> expected = new ArrayList<>();
+    polyline.stream().forEach(expected::add);
+    Collections.reverse(expected);
+    assertEquals(new Polyline(true, expected), reversed);
+    assertEquals(new Polyline(true, expected).hashCode(), reversed.hashCode());
+  }
+
+  @Test
+  void testSlice() {
+    Polyline slice = polyline.slice(2, 6);
+    assertFalse(slice.isClosed());
+    assertEquals(new Polyline(false, new Vector(-7, 15), new Vector(-9, 11), new Vector(-12, 19), new Vector(4, 18)),
+                 slice);
+    assertEquals(new Vector(-9, 11), slice.slice(1, 3).stream().findFirst().get());
+    assertEquals(slice.length(), new Polyline(false, slice.stream().collect(Collectors.toList())).length(), DELTA_ZERO);
+    assertEquals(new Polyline(false, new Vector(-12, 5), new Vector(-9, -4)), polyline.reverse().slice(0, 2));
+    assertThrows(IllegalArgumentException.class, () -> polyline.slice(2, 3));
+    assertThrows(IndexOutOfBoundsException.class, () -> polyline.slice(20, 24));
+  }
+
+  @Test
+  void testConcat() {
+    Polyline concat = Polyline.concat(true, polyline.slice(0, 10), polyline.slice(10, 15), polyline.slice(15, 23));
+    assertEquals(polyline, concat);
+    assertEquals(polyline.area(), concat.area(), DELTA_ZERO);
+    assertTrue(concat.contains(new Vector()));
+    Polyline twice = Polyline.concat(false, concat, polyline.reverse());
+    assertEquals(46, twice.size());
+    assertEquals(new Vector(-12, 5), twice.stream().skip(22).findFirst().get());
+    assertEquals(new Vector(-12, 5), twice.stream().skip(23).findFirst().get());
+    assertEquals(new Vector(-4, 9), twice.stream().skip(45).findFirst().get());
+    assertEquals(new Polyline(false, new Vector(-9, -4), new Vector(-12, 5), new Vector(-12, 5)), twice.slice(21, 24));
+    assertThrows(IllegalArgumentException.class, () -> Polyline.concat(false));
+  }
+
+  @Test
+  void testSerializeViews() throws Exception {
+    Polyline view = Polyline.concat(false, polyline.reverse().slice(3, 8), polyline.slice(0, 4));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(view);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Polyline copy = (Polyline) in.readObject();
+      assertEquals(view, copy);
+      // die Zwischenspeicher funktionieren auch nach dem Lesen
+      assertEquals(view.metrics().getLength(), copy.metrics().getLength(), DELTA_9);
+      assertEquals(view.vertexIndex().size(), copy.vertexIndex().size());
+    }
+  }
+
+  @Test
+  void testIntersectionsStream() {
+    Line line = Line.withOrigin(new Vector(17, -17)).withDestination(new Vector(-14, 14));
+    List<Polyline.LineIntersection> all = new ArrayList<>(polyline.intersection(line));
+    List<Polyline.LineIntersection> hits = polyline.intersections(line).collect(Collectors.toList());
+    List<Polyline.LineIntersection> expected = all.stream()
+                                         .filter(i -> i.getLineStatus() == Line.LineStatus.SEGMENT_INTERSECTS)
+                                         .collect(Collectors.toList());
+    assertEquals(4, hits.size());
+    for (int i = 0; i < hits.size(); i++) {
+      assertEquals(expected.get(i).getLine1(), hits.get(i).getLine1());
+      assertEquals(expected.get(i).getIntersection(), hits.get(i).getIntersection());
+      assertSame(polyline, hits.get(i).getPolyline());
+    }
+    assertEquals(all.stream().filter(i -> i.getLineStatus() != Line.LineStatus.SEGMENT_INTERSECTS).count(),
+                 polyline.intersections(line, EnumSet.of(Line.LineStatus.LINE_INTERSECTS, Line.LineStatus.PARALLEL))
+                         .count());
+    assertEquals(0, polyline.intersections(line, EnumSet.noneOf(Line.LineStatus.class)).count());
+
+    assertTrue(polyline.anyIntersection(line));
+    assertEquals(expected.get(0).getIntersection(), polyline.firstIntersection(line).get().getIntersection());
+    Line miss = Line.withOrigin(new Vector(100, 100)).withDestination(new Vector(101, 100));
+    assertFalse(polyline.anyIntersection(miss));
+    assertFalse(polyline.firstIntersection(miss).isPresent());
+  }
+
+  @Test
+  public void testClosestPointAndDistance() {
+    Polyline open = new Polyline(new Vector(0, 0), new Vector(4, 0), new Vector(4, 3));
+    assertEquals(new Vector(2, 0), open.closestPoint(new Vector(2, -1)));
+    assertEquals(1, open.distance(new Vector(2, -1)), DELTA_ZERO);
+    assertEquals(new Vector(4, 3), open.closestPoint(new Vector(5, 5)));
+    assertEquals(Math.sqrt(5), open.distance(new Vector(5, 5)), DELTA_9);
+    assertEquals(new Vector(0, 0), open.closestPoint(new Vector(-3, -4)));
+    assertEquals(5, open.distance(new Vector(-3, -4)), DELTA_9);
+    // erst die geschlossene Polyline hat die Strecke von (4, 3) nach (0, 0)
+    assertEquals(2, open.distance(new Vector(0, 2)), DELTA_9);
+    Polyline closed = new Polyline(true, open);
+    assertEquals(1.6, closed.distance(new Vector(0, 2)), DELTA_9);
+    assertEquals(.0, closed.distance(new Vector(2, 1.5)), DELTA_9);
+
+    double[] out = new double[2];
+    closed.distances(new double[]{2, 0}, new double[]{-1, 2}, out);
+    assertArrayEquals(new double[]{1, 1.6}, out, DELTA_9);
+    assertThrows(IllegalArgumentException.class, () -> closed.distances(new double[1], new double[2], out));
+  }
+
+  @Test
+  public void testIsSimple() {
+    assertTrue(polyline.isSimple());
+    assertTrue(polyline.selfIntersections().isEmpty());
+    Polyline square = new Polyline(true, new Vector(0, 0), new Vector(2, 0), new Vector(2, 2), new Vector(0, 2));
+    assertTrue(square.isSimple());
+    // der letzte Punkt wiederholt den ersten
+    Polyline repeated = new Polyline(true, new Vector(0, 0), new Vector(2, 0), new Vector(2, 2), new Vector(0, 2),
+                                     new Vector(0, 0));
+    assertTrue(repeated.isSimple());
+    assertTrue(repeated.selfIntersections().isEmpty());
+
+    Polyline bowtie = new Polyline(true, new Vector(0, 0), new Vector(2, 2), new Vector(2, 0), new Vector(0, 2));
+    assertFalse(bowtie.isSimple());
+    Collection<Polyline.PolylineIntersection> intersections = bowtie.selfIntersections();
+    assertEquals(1, intersections.size());
+    Polyline.PolylineIntersection intersection = intersections.iterator().next();
+    assertEquals(new Vector(1, 1), intersection.getIntersection().get());
+    assertEquals(bowtie.segment(0), intersection.getLine1());
+    assertEquals(bowtie.segment(2), intersection.getLine2());
+    // auch offen schneiden sich die Strecken 0 und 2
+    assertFalse(new Polyline(false, bowtie).isSimple());
+    assertTrue(new Polyline(new Vector(0, 0), new Vector(2, 2), new Vector(2, 0)).isSimple());
+
+    // Berührung in einem Punkt
+    Polyline touching = new Polyline(true, new Vector(0, 0), new Vector(4, 0), new Vector(2, 2),
+                                     new Vector(4, 4), new Vector(0, 4), new Vector(2, 2));
+    assertFalse(touching.isSimple());
+    // geschlossen mit zwei Punkten läuft die Polyline auf sich selbst zurück
+    assertEquals(1, new Polyline(true, new Vector(0, 0), new Vector(4, 0)).selfIntersections().size());
+    assertTrue(new Polyline(new Vector(0, 0), new Vector(4, 0)).isSimple());
+  }
+
+  @Test
+  public void testIndexOf() {
+    assertEquals(3, polyline.indexOf(polyline.vector(3)));
+    assertEquals(-1, polyline.indexOf(new Vector(1000, 1000)));
+    assertFalse(polyline.hasDuplicateVertices());
+
+    List<Vector> vectors = new ArrayList<>();
+    for (int i = 0; i < 2 * Polyline.VERTEX_INDEX_THRESHOLD; i++) {
+      vectors.add(new Vector(i % 50, i / 50));
+    }
+    vectors.add(new Vector(3, 0));
+    Polyline large = new Polyline(vectors);
+    assertSame(large.vertexIndex(), large.vertexIndex());
+    assertEquals(3, large.indexOf(new Vector(3, 0)));
+    assertTrue(large.containsVector(new Vector(13, 1)));
+    assertFalse(large.containsVector(new Vector(13, 2)));
+    assertTrue(large.hasDuplicateVertices());
+    assertArrayEquals(new int[]{vectors.size() - 1}, large.vertexIndex().duplicates());
+    Polyline uncached = large.uncached();
+    assertNotSame(uncached.vertexIndex(), uncached.vertexIndex());
+    assertEquals(3, uncached.indexOf(new Vector(3, 0)));
+    assertEquals(large.size() - 2, large.reverse().indexOf(new Vector(1, 0)));
+  }
 }
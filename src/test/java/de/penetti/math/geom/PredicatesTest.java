@@ -0,0 +1,107 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PredicatesTest {
+  private static BigDecimal big(double value) {
+    return new BigDecimal(value);
+  }
+
+  private static int orientationExact(double ax, double ay, double bx, double by, double cx, double cy) {
+    BigDecimal left = big(ax).subtract(big(cx)).multiply(big(by).subtract(big(cy)));
+    BigDecimal right = big(ay).subtract(big(cy)).multiply(big(bx).subtract(big(cx)));
+    return left.subtract(right).signum();
+  }
+
+  private static int inCircleExact(double[] p) {
+    BigDecimal[][] m = new BigDecimal[3][3];
+    for (int i = 0; i < 3; i++) {
+      BigDecimal x = big(p[2 * i]).subtract(big(p[6]));
+      BigDecimal y = big(p[2 * i + 1]).subtract(big(p[7]));
+      m[i][0] = x;
+      m[i][1] = y;
+      m[i][2] = x.multiply(x).add(y.multiply(y));
+    }
+    BigDecimal det = m[0][0].multiply(m[1][1].multiply(m[2][2]).subtract(m[1][2].multiply(m[2][1])))
+                            .subtract(m[0][1].multiply(m[1][0].multiply(m[2][2]).subtract(m[1][2].multiply(m[2][0]))))
+                            .add(m[0][2].multiply(m[1][0].multiply(m[2][1]).subtract(m[1][1].multiply(m[2][0]))));
+    return det.signum();
+  }
+
+  @Test
+  public void testOrientation() {
+    assertEquals(1, Predicates.orientation(0, 0, 1, 0, 0, 1));
+    assertEquals(-1, Predicates.orientation(0, 0, 1, 0, 0, -1));
+    assertEquals(0, Predicates.orientation(0, 0, 1, 1, 3, 3));
+    assertEquals(1, Predicates.orientation(new Vector(0, 0), new Vector(1, 0), new Vector(5, 1e-300)));
+    assertEquals(0, Predicates.orientation(1, 1, 1, 1, 2, 3));
+  }
+
+  @Test
+  public void testOrientationNearlyCollinear() {
+    // Gitter von Punkten nahe der Geraden y = x, an dem die einfache Determinante falsche Vorzeichen liefert
+    double ulp = Math.ulp(.5);
+    int wrong = 0;
+    for (int i = 0; i < 64; i++) {
+      for (int j = 0; j < 64; j++) {
+        double x = .5 + i * ulp;
+        double y = .5 + j * ulp;
+        int expected = orientationExact(x, y, 12, 12, 24, 24);
+        assertEquals(expected, Predicates.orientation(x, y, 12, 12, 24, 24));
+        double naive = (x - 24) * (12 - 24) - (y - 24) * (12 - 24);
+        if ((int) Math.signum(naive) != expected) {
+          wrong++;
+        }
+      }
+    }
+    assertTrue(wrong > 0);
+  }
+
+  @Test
+  public void testOrientationRandom() {
+    RandomSource random = RandomSource.seeded(11);
+    for (int i = 0; i < 10000; i++) {
+      double ax = random.nextDouble(-1e6, 1e6);
+      double ay = random.nextDouble(-1e6, 1e6);
+      double bx = random.nextDouble(-1e6, 1e6);
+      double by = random.nextDouble(-1e6, 1e6);
+      double t = random.nextDouble(-2, 3);
+      // c liegt (fast) auf der Geraden (a, b)
+      double cx = ax + t * (bx - ax);
+      double cy = ay + t * (by - ay);
+      assertEquals(orientationExact(ax, ay, bx, by, cx, cy), Predicates.orientation(ax, ay, bx, by, cx, cy));
+      assertEquals(orientationExact(ax, ay, bx, by, cx, cy),
+                   (int) Math.signum(Predicates.orient2dExact(ax, ay, bx, by, cx, cy)));
+    }
+  }
+
+  @Test
+  public void testInCircle() {
+    assertEquals(1, Predicates.inCircle(0, 0, 1, 0, 0, 1, .2, .2));
+    assertEquals(-1, Predicates.inCircle(0, 0, 1, 0, 0, 1, 2, 2));
+    assertEquals(0, Predicates.inCircle(0, 0, 1, 0, 0, 1, 1, 1));
+    assertEquals(-1, Predicates.inCircle(0, 0, 0, 1, 1, 0, .2, .2));
+
+    RandomSource random = RandomSource.seeded(12);
+    for (int i = 0; i < 2000; i++) {
+      // d liegt (fast) auf dem Kreis um (cx, cy)
+      double mx = random.nextDouble(-100, 100);
+      double my = random.nextDouble(-100, 100);
+      double r = random.nextDouble(1, 50);
+      double[] p = new double[8];
+      for (int k = 0; k < 4; k++) {
+        double phi = random.nextDouble(0, 2 * Math.PI);
+        p[2 * k] = mx + r * Math.cos(phi);
+        p[2 * k + 1] = my + r * Math.sin(phi);
+      }
+      int expected = inCircleExact(p);
+      assertEquals(expected, Predicates.inCircle(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7]));
+      assertEquals(expected, (int) Math.signum(Predicates.incircleExact(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7])));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.geom.PreparedPolygon.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static de.penetti.math.geom.GeomTestUtils.star;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PreparedPolygonTest {
+  private static final Polyline polyline = GeomTestUtils.POLYLINE;
+  private static final PreparedPolygon prepared = polyline.prepare();
+
+  @Test
+  void testContains() {
+    for (int x = -16; x <= 16; x++) {
+      for (int y = -20; y <= 20; y++) {
+        Vector v = new Vector(x + .5, y + .25);
+        assertEquals(polyline.contains(v), prepared.contains(v), v.toString());
+        v = new Vector(x, y);
+        if (prepared.locate(v) != Location.BOUNDARY) {
+          assertEquals(polyline.contains(v), prepared.contains(v.getX(), v.getY()), v.toString());
+        }
+      }
+    }
+  }
+
+  @Test
+  void testLocate() {
+    assertSame(polyline, prepared.getPolyline());
+    assertEquals(Location.INSIDE, prepared.locate(new Vector(0, 0)));
+    assertEquals(Location.OUTSIDE, prepared.locate(new Vector(12, 13)));
+    assertEquals(Location.OUTSIDE, prepared.locate(new Vector(100, 0)));
+    assertEquals(Location.OUTSIDE, prepared.locate(Double.NaN, 0));
+    assertEquals(Location.BOUNDARY, prepared.locate(new Vector(-4, 9)));
+    assertEquals(Location.BOUNDARY, prepared.locate(new Vector(-4, 11)));
+    assertEquals(Location.BOUNDARY, prepared.locate(new Vector(12, 14)));
+    assertEquals(Location.BOUNDARY, prepared.locate(new Vector(8, -18)));
+    assertTrue(prepared.contains(new Vector(12, 14)));
+  }
+
+  @Test
+  void testContainsStar() {
+    Polyline star = star(777);
+    PreparedPolygon prepared = PreparedPolygon.of(star);
+    Random random = new Random(4711);
+    double[] xs = new double[5000];
+    double[] ys = new double[5000];
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = random.nextDouble() * 240 - 120;
+      ys[i] = random.nextDouble() * 240 - 120;
+    }
+    boolean[] out = new boolean[xs.length];
+    prepared.contains(xs, ys, out);
+    for (int i = 0; i < xs.length; i++) {
+      assertEquals(star.contains(new Vector(xs[i], ys[i])), out[i]);
+    }
+    assertThrows(IllegalArgumentException.class, () -> prepared.contains(xs, new double[1], out));
+  }
+
+  @Test
+  void testDegenerate() {
+    PreparedPolygon flat = new Polyline(true, new Vector(0, 0), new Vector(4, 0)).prepare();
+    assertEquals(Location.BOUNDARY, flat.locate(2, 0));
+    assertEquals(Location.OUTSIDE, flat.locate(5, 0));
+    assertEquals(Location.OUTSIDE, flat.locate(2, 1));
+  }
+
+  @Test
+  void testLongEdges() {
+    // Kamm: fast alle Kanten überspannen die ganze Höhe und lägen sonst in allen n Streifen
+    int teeth = 50_000;
+    List<Vector> vectors = new ArrayList<>(2 * teeth + 2);
+    for (int i = 0; i < teeth; i++) {
+      vectors.add(new Vector(2 * i, 0));
+      vectors.add(new Vector(2 * i + 1, 1000));
+    }
+    vectors.add(new Vector(2 * teeth, -10));
+    vectors.add(new Vector(0, -10));
+    Polyline comb = new Polyline(true, vectors);
+    PreparedPolygon prepared = comb.prepare();
+    for (int i = 0; i < 200; i++) {
+      Vector v = new Vector(i * 497.3 % (2 * teeth), i * 5.17 % 1000 - 5);
+      assertEquals(comb.contains(v), prepared.contains(v), v.toString());
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static de.penetti.math.TestUtils.DELTA_9;
+import static de.penetti.math.geom.GeomTestUtils.star;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentIndexTest {
+  private static final Polyline polyline = GeomTestUtils.POLYLINE;
+
+  @Test
+  void testWindow() {
+    SegmentIndex index = polyline.segmentIndex();
+    assertEquals(23, index.size());
+    assertSame(polyline, index.getPolyline());
+    List<Integer> segments = new ArrayList<>();
+    index.window(-100, -100, 100, 100, segments::add);
+    assertEquals(23, segments.size());
+    segments.clear();
+    index.window(12.5, -20, 20, -10, segments::add);
+    segments.sort(null);
+    assertEquals(List.of(14, 15), segments);
+    segments.clear();
+    index.window(100, 100, 200, 200, segments::add);
+    assertTrue(segments.isEmpty());
+  }
+
+  @Test
+  void testIntersection() {
+    Polyline star = star(1000);
+    SegmentIndex index = star.segmentIndex();
+    Random random = new Random(4711);
+    for (int k = 0; k < 200; k++) {
+      Line line = Line.withOrigin(new Vector(random.nextDouble() * 240 - 120, random.nextDouble() * 240 - 120))
+                      .withDestination(new Vector(random.nextDouble() * 240 - 120, random.nextDouble() * 240 - 120));
+      List<Polyline.LineIntersection> expected = star.intersection(line).stream()
+                                                     .filter(i -> i.getLineStatus() == Line.LineStatus.SEGMENT_INTERSECTS)
+                                                     .collect(Collectors.toList());
+      List<Polyline.LineIntersection> actual = new ArrayList<>(index.intersection(line));
+      assertEquals(expected.size(), actual.size());
+      assertEquals(!expected.isEmpty(), index.intersects(line));
+      Iterator<Polyline.LineIntersection> it = actual.iterator();
+      for (Polyline.LineIntersection e : expected) {
+        Polyline.LineIntersection a = it.next();
+        assertEquals(e.getLine1(), a.getLine1());
+        assertSame(line, a.getLine2());
+        assertSame(star, a.getPolyline());
+        assertEquals(e.getIntersection().get().getX(), a.getIntersection().get().getX(), DELTA_9);
+        assertEquals(e.getIntersection().get().getY(), a.getIntersection().get().getY(), DELTA_9);
+      }
+    }
+  }
+
+  @Test
+  void testContains() {
+    SegmentIndex index = polyline.segmentIndex();
+    for (int x = -16; x <= 16; x++) {
+      for (int y = -20; y <= 20; y++) {
+        Vector v = new Vector(x, y);
+        assertEquals(polyline.contains(v), index.contains(v), v.toString());
+        v = new Vector(x + .5, y + .25);
+        assertEquals(polyline.contains(v), index.contains(v), v.toString());
+      }
+    }
+  }
+
+  @Test
+  void testNearestSegment() {
+    Polyline star = star(500);
+    SegmentIndex index = star.segmentIndex();
+    PackedPolyline packed = PackedPolyline.fromPolyline(star);
+    Random random = new Random(815);
+    for (int k = 0; k < 200; k++) {
+      double x = random.nextDouble() * 300 - 150;
+      double y = random.nextDouble() * 300 - 150;
+      double best = Double.POSITIVE_INFINITY;
+      for (int s = 0; s < packed.segments(); s++) {
+        int e = (s + 1) % packed.size();
+        best = Math.min(best, SegmentIndex.segmentDistanceSq(x, y, packed.getX(s), packed.getY(s),
+                                                             packed.getX(e), packed.getY(e)));
+      }
+      int nearest = index.nearestSegment(x, y);
+      int e = (nearest + 1) % packed.size();
+      assertEquals(best, SegmentIndex.segmentDistanceSq(x, y, packed.getX(nearest), packed.getY(nearest),
+                                                        packed.getX(e), packed.getY(e)), DELTA_9);
+    }
+    assertEquals(0, polyline.segmentIndex().nearestSegment(new Vector(-3, 10)));
+  }
+
+  @Test
+  void testOpenPolyline() {
+    Polyline open = new Polyline(false, new Vector(0, 0), new Vector(2, 0), new Vector(2, 2));
+    SegmentIndex index = open.segmentIndex();
+    assertEquals(2, index.size());
+    assertTrue(index.intersection(Line.withOrigin(new Vector(1, 1)).withDestination(new Vector(-1, 1))).isEmpty());
+    assertEquals(1, index.nearestSegment(3, 3));
+    assertEquals(new Vector(2, 2), index.closestPoint(new Vector(3, 3)));
+    assertEquals(Math.sqrt(2), index.distance(3, 3), DELTA_9);
+    // die offene Polyline hat keine Strecke von (2, 2) nach (0, 0)
+    assertEquals(1, index.distance(new Vector(1, 1)), DELTA_9);
+  }
+
+  @Test
+  void testContainsOpenRing() {
+    // wie Polyline.contains wird die schließende Strecke von (0, 4) nach (0, 0) berücksichtigt
+    Polyline open = new Polyline(false, new Vector(0, 0), new Vector(4, 0), new Vector(4, 4), new Vector(0, 4));
+    SegmentIndex index = open.segmentIndex();
+    assertTrue(open.contains(new Vector(2, 2)));
+    assertTrue(index.contains(new Vector(2, 2)));
+    assertTrue(index.contains(new Vector(0, 2)));
+    assertFalse(index.contains(new Vector(-1, 2)));
+    for (int x = -2; x <= 6; x++) {
+      for (int y = -2; y <= 6; y++) {
+        Vector v = new Vector(x + .5, y + .25);
+        assertEquals(open.contains(v), index.contains(v), v.toString());
+      }
+    }
+  }
+
+  @Test
+  void testIntersects() {
+    Polyline star = star(500);
+    SegmentIndex index = star.segmentIndex();
+    assertTrue(index.intersects(Line.withOrigin(new Vector(-200, 0)).withDestination(new Vector(200, 1))));
+    assertFalse(index.intersects(Line.withOrigin(new Vector(-1, 0)).withDestination(new Vector(1, 1))));
+    assertFalse(index.intersects(Line.withOrigin(new Vector(200, 200)).withDestination(new Vector(300, 300))));
+  }
+
+  @Test
+  void testDistances() {
+    Polyline star = star(500);
+    SegmentIndex index = star.segmentIndex();
+    Random random = new Random(4711);
+    int n = 1000;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = random.nextDouble() * 300 - 150;
+      ys[i] = random.nextDouble() * 300 - 150;
+    }
+    double[] sequential = new double[n];
+    double[] parallel = new double[n];
+    index.distances(xs, ys, sequential, false);
+    index.distances(xs, ys, parallel, true);
+    double[] polyline = new double[n];
+    star.distances(xs, ys, polyline);
+    for (int i = 0; i < n; i++) {
+      Vector v = new Vector(xs[i], ys[i]);
+      assertEquals(star.distance(v), sequential[i], DELTA_9);
+      assertEquals(sequential[i], parallel[i]);
+      assertEquals(sequential[i], polyline[i]);
+      assertEquals(sequential[i], index.closestPoint(v).sub(v).length(), DELTA_9);
+    }
+    assertThrows(IllegalArgumentException.class, () -> index.distances(xs, ys, new double[1], false));
+  }
+}
@@ -0,0 +1,152 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentSweepTest {
+  private static PackedPolyline randomPolyline(Random random, int n, boolean closed) {
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = random.nextDouble() * 100;
+      ys[i] = random.nextDouble() * 100;
+    }
+    return PackedPolyline.of(closed, xs, ys);
+  }
+
+  private static Set<Long> bruteForce(PackedPolyline p1, PackedPolyline p2) {
+    Set<Long> hits = new HashSet<>();
+    for (int s = 0; s < p1.segments(); s++) {
+      int sEnd = (s + 1) % p1.size();
+      for (int t = 0; t < p2.segments(); t++) {
+        int tEnd = (t + 1) % p2.size();
+        if (LineIntersector.intersect(p1.getX(s), p1.getY(s), p1.getX(sEnd), p1.getY(sEnd),
+                                      p2.getX(t), p2.getY(t), p2.getX(tEnd), p2.getY(tEnd),
+                                      null) == Line.LineStatus.SEGMENT_INTERSECTS) {
+          hits.add(((long) s << 32) | t);
+        }
+      }
+    }
+    return hits;
+  }
+
+  @Test
+  void testIntersectionsMatchBruteForce() {
+    Random random = new Random(4711);
+    for (int run = 0; run < 20; run++) {
+      PackedPolyline p1 = randomPolyline(random, 2 + random.nextInt(60), random.nextBoolean());
+      PackedPolyline p2 = randomPolyline(random, 2 + random.nextInt(60), random.nextBoolean());
+      Set<Long> hits = new HashSet<>();
+      SegmentSweep.intersections(p1, p2, (s, t, x, y) -> {
+        assertTrue(hits.add(((long) s << 32) | t), "reported twice: " + s + "/" + t);
+        return true;
+      });
+      assertEquals(bruteForce(p1, p2), hits);
+    }
+  }
+
+  @Test
+  void testAxisParallelSegments() {
+    PackedPolyline grid = PackedPolyline.of(false, new double[]{0, 10, 10, 0, 0, 10}, new double[]{0, 0, 2, 2, 4, 4});
+    PackedPolyline probe = PackedPolyline.of(false, new double[]{5, 5}, new double[]{-1, 5});
+    Set<Long> hits = new HashSet<>();
+    SegmentSweep.intersections(grid, probe, (s, t, x, y) -> {
+      assertEquals(5, x);
+      hits.add(((long) s << 32) | t);
+      return true;
+    });
+    assertEquals(bruteForce(grid, probe), hits);
+    assertEquals(3, hits.size());
+  }
+
+  @Test
+  void testStop() {
+    Random random = new Random(42);
+    PackedPolyline p1 = randomPolyline(random, 100, false);
+    PackedPolyline p2 = randomPolyline(random, 100, false);
+    int[] count = {0};
+    SegmentSweep.intersections(p1, p2, (s, t, x, y) -> ++count[0] < 1);
+    assertEquals(1, count[0]);
+  }
+
+  @Test
+  void testSelfIntersectionsMatchBruteForce() {
+    Random random = new Random(815);
+    for (int run = 0; run < 20; run++) {
+      PackedPolyline p = randomPolyline(random, 2 + random.nextInt(60), random.nextBoolean());
+      int segments = p.segments();
+      Set<Long> expected = new HashSet<>();
+      for (long hit : bruteForce(p, p)) {
+        int s = (int) (hit >>> 32);
+        int t = (int) hit;
+        boolean adjacent = t == s + 1 || (p.isClosed() && s == 0 && t == segments - 1);
+        if (s < t && !adjacent) {
+          expected.add(hit);
+        }
+      }
+      Set<Long> hits = new HashSet<>();
+      SegmentSweep.selfIntersections(p, (s, t, x, y) -> {
+        assertTrue(s < t);
+        assertTrue(hits.add(((long) s << 32) | t), "reported twice: " + s + "/" + t);
+        return true;
+      });
+      assertEquals(expected, hits);
+    }
+  }
+
+  @Test
+  void testSelfIntersectionsOfDegenerateSegments() {
+    // Zurücklaufen auf der vorigen Strecke
+    PackedPolyline spike = PackedPolyline.of(false, new double[]{0, 4, 2}, new double[]{0, 0, 0});
+    Set<Long> hits = new HashSet<>();
+    SegmentSweep.selfIntersections(spike, (s, t, x, y) -> hits.add(((long) s << 32) | t));
+    assertEquals(Set.of(1L), hits);
+
+    // kollineare, nicht benachbarte Strecken 0 und 3; außerdem berühren (2, 0) die Strecke 0 und (4, 0) die Strecke 3
+    PackedPolyline overlap = PackedPolyline.of(false, new double[]{0, 4, 4, 2, 6}, new double[]{0, 0, 2, 0, 0});
+    hits.clear();
+    SegmentSweep.selfIntersections(overlap, (s, t, x, y) -> hits.add(((long) s << 32) | t));
+    assertEquals(Set.of(2L, 3L, (1L << 32) | 3), hits);
+
+    PackedPolyline apart = PackedPolyline.of(false, new double[]{0, 4, 4, 6, 9}, new double[]{0, 0, 2, 0, 0});
+    hits.clear();
+    SegmentSweep.selfIntersections(apart, (s, t, x, y) -> hits.add(((long) s << 32) | t));
+    assertTrue(hits.isEmpty());
+  }
+
+  @Test
+  void testRepeatedClosingVertex() {
+    // die schließende Strecke von (0, 1) nach (0, 1) hat die Länge 0
+    PackedPolyline square = PackedPolyline.of(true, new double[]{0, 1, 1, 0, 0}, new double[]{0, 0, 1, 1, 0});
+    Set<Long> hits = new HashSet<>();
+    SegmentSweep.selfIntersections(square, (s, t, x, y) -> hits.add(((long) s << 32) | t));
+    assertTrue(hits.isEmpty());
+  }
+
+  @Test
+  void testLongChains() {
+    // Schlangenlinie: alle Ketten überdecken dieselben x, die Bounding-Boxen nur benachbarter Ketten überlappen
+    int rows = 200_000;
+    double[] xs = new double[2 * rows];
+    double[] ys = new double[2 * rows];
+    for (int i = 0; i < rows; i++) {
+      xs[2 * i] = i % 2 == 0 ? 0 : 1000;
+      xs[2 * i + 1] = i % 2 == 0 ? 1000 : 0;
+      ys[2 * i] = i;
+      ys[2 * i + 1] = i;
+    }
+    PackedPolyline serpentine = PackedPolyline.of(false, xs, ys);
+    int[] count = {0};
+    assertTimeoutPreemptively(Duration.ofSeconds(20), () -> SegmentSweep.selfIntersections(serpentine, (s, t, x, y) -> {
+      count[0]++;
+      return true;
+    }));
+    assertEquals(0, count[0]);
+  }
+}
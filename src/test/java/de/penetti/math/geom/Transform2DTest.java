@@ -0,0 +1,108 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static de.penetti.math.MathUtil.HALF_PI;
+import static de.penetti.math.TestUtils.DELTA_9;
+import static de.penetti.math.TestUtils.DELTA_ZERO;
+import static de.penetti.math.geom.GeomTestUtils.assertVector;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Transform2DTest {
+  @Test
+  void testElementary() {
+    Vector v = new Vector(3, 4);
+    assertEquals(v, Transform2D.identity().apply(v));
+    assertEquals(new Vector(5, 1), Transform2D.translation(2, -3).apply(v));
+    assertEquals(new Vector(5, 1), Transform2D.translation(new Vector(2, -3)).apply(v));
+    assertEquals(new Vector(6, 2), Transform2D.scaling(2, .5).apply(v));
+    assertEquals(new Vector(9, 12), Transform2D.scaling(3).apply(v));
+    assertEquals(new Vector(11, 4), Transform2D.shearing(2, 0).apply(v));
+    assertVector(new Vector(-4, 3), Transform2D.rotation(HALF_PI).apply(v));
+    assertVector(v.rotate(.7), Transform2D.rotation(.7).apply(v));
+    Vector origin = new Vector(-2, 1);
+    assertVector(v.rotate(origin, .7), Transform2D.rotation(origin, .7).apply(v));
+  }
+
+  @Test
+  void testComposition() {
+    Vector v = new Vector(3, 4);
+    Transform2D t = Transform2D.translation(1, 2).rotate(HALF_PI).scale(2, 3);
+    assertVector(new Vector(-12, 12), t.apply(v));
+    Transform2D u = Transform2D.translation(1, 2)
+                               .then(Transform2D.rotation(HALF_PI))
+                               .then(Transform2D.scaling(2, 3));
+    assertEquals(t, u);
+    assertEquals(t.hashCode(), u.hashCode());
+    assertEquals(6., t.determinant(), DELTA_9);
+    assertEquals(t.apply(v).getX(), t.transformX(3, 4), DELTA_ZERO);
+    assertEquals(t.apply(v).getY(), t.transformY(3, 4), DELTA_ZERO);
+    assertEquals(Transform2D.of(1, 2, 3, 4, 5, 6), Transform2D.of(1, 2, 3, 4, 5, 6).then(Transform2D.identity()));
+    assertVector(new Vector(3, 12), Transform2D.identity().shear(0, 2).translate(0, 2).apply(v));
+  }
+
+  @Test
+  void testGeometry() {
+    Transform2D t = Transform2D.rotation(new Vector(1, 1), .3).translate(5, -2);
+    Line line = new Line(0, 0, 4, 2);
+    Line tl = t.apply(line);
+    assertVector(t.apply(line.getOrigin()), tl.getOrigin());
+    assertVector(t.apply(line.getDestination()), tl.getDestination());
+
+    Polyline polyline = new Polyline(true, new Vector(0, 0), new Vector(4, 0), new Vector(4, 3), new Vector(0, 3));
+    Polyline tp = t.apply(polyline);
+    assertTrue(tp.isClosed());
+    assertEquals(polyline.area(), tp.area(), DELTA_9);
+    assertEquals(tp, t.apply(polyline, true));
+    Iterator<Vector> it = tp.stream().iterator();
+    polyline.stream().forEach(v -> assertEquals(t.apply(v), it.next()));
+    assertFalse(tp.isUncached());
+    assertTrue(t.apply(polyline.uncached()).isUncached());
+    assertTrue(t.apply(polyline.uncached(), true).isUncached());
+
+    PackedPolyline packed = PackedPolyline.fromPolyline(polyline);
+    assertEquals(PackedPolyline.fromPolyline(tp), t.apply(packed));
+    assertEquals(PackedPolyline.fromPolyline(tp), t.apply(packed, true));
+    assertEquals(PackedPolyline.fromPolyline(polyline), packed);
+
+    Arc arc = new Arc(new Vector(1, 2), 3, 0, HALF_PI);
+    Arc ta = Transform2D.translation(2, 2).applyToCenter(arc);
+    assertEquals(new Vector(3, 4), ta.getCenter());
+    assertEquals(3, ta.getXRadius(), DELTA_ZERO);
+    assertEquals(HALF_PI, ta.getEndAngle(), DELTA_ZERO);
+
+    MutableVector m = MutableVector.create(3, 4);
+    assertSame(m, t.apply(m));
+    assertEquals(t.apply(new Vector(3, 4)), m.toVector());
+  }
+
+  @Test
+  void testCoordinateArrays() {
+    int n = 10_000;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = i;
+      ys[i] = n - i;
+    }
+    double[] pxs = xs.clone();
+    double[] pys = ys.clone();
+    Transform2D t = Transform2D.rotation(.5).scale(2, 1).translate(1, 1);
+    List<Vector> expected = IntStream.range(0, n)
+                                     .mapToObj(i -> t.apply(new Vector(xs[i], ys[i])))
+                                     .collect(Collectors.toList());
+    t.apply(xs, ys);
+    t.apply(pxs, pys, true);
+    for (int i = 0; i < n; i++) {
+      assertEquals(expected.get(i), new Vector(xs[i], ys[i]));
+    }
+    assertArrayEquals(xs, pxs);
+    assertArrayEquals(ys, pys);
+    assertThrows(IllegalArgumentException.class, () -> t.apply(xs, new double[1]));
+  }
+}
@@ -0,0 +1,139 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static de.penetti.math.TestUtils.DELTA_9;
+import static de.penetti.math.geom.GeomTestUtils.star;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TriangulationTest {
+  /**
+   * Checks the number, the orientation and the area of the triangles and that they lie inside the polygon.
+   */
+  private static void check(Polyline polygon, int[] triangles) {
+    int n = polygon.size();
+    assertEquals(3 * (n - 2), triangles.length);
+    PreparedPolygon prepared = polygon.prepare();
+    double area = 0;
+    for (int t = 0; t < triangles.length; t += 3) {
+      Vector a = polygon.vector(triangles[t]);
+      Vector b = polygon.vector(triangles[t + 1]);
+      Vector c = polygon.vector(triangles[t + 2]);
+      double orientation = Predicates.orient2d(a.getX(), a.getY(), b.getX(), b.getY(), c.getX(), c.getY());
+      assertTrue(orientation >= 0, "clockwise triangle " + t / 3);
+      area += orientation / 2;
+      if (orientation > 0) {
+        Vector centroid = new Vector((a.getX() + b.getX() + c.getX()) / 3, (a.getY() + b.getY() + c.getY()) / 3);
+        assertTrue(prepared.contains(centroid), "triangle " + t / 3 + " outside");
+      }
+    }
+    assertEquals(polygon.area(), area, DELTA_9 * Math.max(1, polygon.area()));
+  }
+
+  @Test
+  public void testSimplePolygons() {
+    Polyline triangle = new Polyline(true, new Vector(0, 0), new Vector(1, 0), new Vector(0, 1));
+    assertArrayEquals(new int[]{0, 1, 2}, Triangulation.triangulate(triangle));
+
+    Polyline square = new Polyline(true, new Vector(0, 0), new Vector(2, 0), new Vector(2, 2), new Vector(0, 2));
+    check(square, square.triangulate());
+
+    // im Uhrzeigersinn
+    Polyline clockwise = square.reverse();
+    check(clockwise, clockwise.triangulate());
+
+    // Kamm mit waagerechten Kanten, Split- und Merge-Knoten
+    Polyline comb = new Polyline(true, new Vector(0, 0), new Vector(7, 0), new Vector(7, 4), new Vector(6, 4),
+                                 new Vector(6, 1), new Vector(5, 1), new Vector(5, 4), new Vector(4, 4),
+                                 new Vector(4, 1), new Vector(3, 1), new Vector(3, 4), new Vector(0, 4));
+    check(comb, comb.triangulate());
+    Polyline upsideDown = Transform2D.rotation(Math.PI).apply(comb);
+    check(upsideDown, upsideDown.triangulate());
+    Polyline sideways = Transform2D.rotation(Math.PI / 2).apply(comb);
+    check(sideways, sideways.triangulate());
+
+    // kollineare Punkte
+    Polyline collinear = new Polyline(true, new Vector(0, 0), new Vector(1, 0), new Vector(2, 0), new Vector(3, 0),
+                                      new Vector(3, 3), new Vector(0, 3));
+    check(collinear, collinear.triangulate());
+
+    assertThrows(IllegalArgumentException.class, () -> Triangulation.triangulate(new double[2], new double[2]));
+    assertThrows(IllegalArgumentException.class, () -> Triangulation.triangulate(new double[3], new double[2]));
+  }
+
+  @Test
+  public void testRepeatedClosingVertex() {
+    Polyline square = new Polyline(true, new Vector(0, 0), new Vector(10, 0), new Vector(10, 10), new Vector(0, 10),
+                                   new Vector(0, 0));
+    for (Polyline polygon : List.of(square, square.reverse())) {
+      int[] triangles = polygon.triangulate();
+      assertEquals(6, triangles.length);
+      double area = 0;
+      for (int t = 0; t < triangles.length; t += 3) {
+        assertTrue(Arrays.stream(triangles, t, t + 3).allMatch(i -> i < 4), "closing vertex in triangle " + t / 3);
+        Vector a = polygon.vector(triangles[t]);
+        Vector b = polygon.vector(triangles[t + 1]);
+        Vector c = polygon.vector(triangles[t + 2]);
+        double orientation = Predicates.orient2d(a.getX(), a.getY(), b.getX(), b.getY(), c.getX(), c.getY());
+        assertTrue(orientation > 0, "degenerate triangle " + t / 3);
+        area += orientation / 2;
+      }
+      assertEquals(100, area, DELTA_9);
+    }
+    assertThrows(IllegalArgumentException.class,
+                 () -> Triangulation.triangulate(new double[]{0, 1, 0}, new double[]{0, 0, 0}));
+  }
+
+  @Test
+  public void testRandomPolygons() {
+    RandomSource random = RandomSource.seeded(21);
+    for (int run = 0; run < 200; run++) {
+      Polyline polygon = star(random, 3 + run % 40, 0, 0);
+      check(polygon, polygon.triangulate());
+    }
+  }
+
+  @Test
+  public void testGridPolygons() {
+    // viele gleiche x- und y-Koordinaten
+    RandomSource random = RandomSource.seeded(22);
+    for (int run = 0; run < 100; run++) {
+      int n = 4 + run % 30;
+      List<Vector> vectors = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        double phi = 2 * Math.PI * i / n;
+        double r = Math.floor(random.nextDouble(2, 8));
+        vectors.add(new Vector(Math.rint(r * Math.cos(phi) * 2), Math.rint(r * Math.sin(phi) * 2)));
+      }
+      Polyline polygon = new Polyline(true, vectors);
+      if (polygon.isSimple() && polygon.area() > 0 && !polygon.hasDuplicateVertices()) {
+        check(polygon, polygon.triangulate());
+      }
+    }
+  }
+
+  @Test
+  public void testLarge() {
+    Polyline polygon = star(RandomSource.seeded(23), 20000, 0, 0);
+    check(polygon, polygon.triangulate());
+  }
+
+  @Test
+  public void testTriangulateAll() {
+    RandomSource random = RandomSource.seeded(24);
+    List<Polyline> polygons = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      polygons.add(star(random, 3 + i, 0, 0));
+    }
+    List<int[]> triangles = Triangulation.triangulateAll(polygons);
+    assertEquals(polygons.size(), triangles.size());
+    for (int i = 0; i < polygons.size(); i++) {
+      assertArrayEquals(Triangulation.triangulate(polygons.get(i)), triangles.get(i));
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package de.penetti.math.geom;
 
 import de.penetti.math.Numbers;
+import de.penetti.math.RandomSource;
 import org.junit.jupiter.api.Test;
 
 import static de.penetti.math.TestUtils.*;
@@ -296,4 +297,16 @@ public class VectorTest
     assertEquals(0,v1.determinante(v2), DELTA_ZERO);
   }
 
+  @Test
+  public void testRandomWithSeededSource()
+  {
+    Vector v1 = Vector.random(RandomSource.seeded(4711));
+    Vector v2 = Vector.random(RandomSource.seeded(4711));
+    assertEquals(v1, v2);
+    assertTrue(v1.getX() >= 0 && v1.getX() < 1);
+    v1 = Vector.random(-5, 5, 10, 20, RandomSource.seeded(42));
+    assertTrue(v1.getX() >= -5 && v1.getX() < 6);
+    assertTrue(v1.getY() >= 10 && v1.getY() < 21);
+    assertNotNull(Vector.random());
+  }
 }
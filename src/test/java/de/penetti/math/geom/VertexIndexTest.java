@@ -0,0 +1,60 @@
+package de.penetti.math.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VertexIndexTest {
+  @Test
+  public void testIndexOf() {
+    VertexIndex index = VertexIndex.of(new double[]{1, 2, 1, 0., -0., Double.NaN, 2},
+                                       new double[]{1, 2, 1, 5, 5, 3, 2});
+    assertEquals(7, index.size());
+    assertEquals(0, index.indexOf(1, 1));
+    assertEquals(1, index.indexOf(new Vector(2, 2)));
+    assertEquals(3, index.indexOf(0., 5));
+    // wie bei Vector.equals sind 0.0 und -0.0 verschieden, NaN ist gleich NaN
+    assertEquals(4, index.indexOf(-0., 5));
+    assertEquals(5, index.indexOf(Double.NaN, 3));
+    assertEquals(-1, index.indexOf(1, 2));
+    assertFalse(index.contains(new Vector(3, 3)));
+    assertTrue(index.contains(2, 2));
+    assertTrue(index.hasDuplicates());
+    assertArrayEquals(new int[]{2, 6}, index.duplicates());
+
+    VertexIndex empty = VertexIndex.of(new double[0], new double[0]);
+    assertEquals(-1, empty.indexOf(0, 0));
+    assertFalse(empty.hasDuplicates());
+    assertThrows(IllegalArgumentException.class, () -> VertexIndex.of(new double[1], new double[2]));
+  }
+
+  @Test
+  public void testLarge() {
+    Random random = new Random(17);
+    int n = 10000;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      // viele Kollisionen durch wenige verschiedene Koordinaten
+      xs[i] = random.nextInt(200);
+      ys[i] = random.nextInt(200);
+    }
+    VertexIndex index = VertexIndex.of(xs, ys);
+    int duplicates = 0;
+    for (int i = 0; i < n; i++) {
+      int first = index.indexOf(xs[i], ys[i]);
+      assertTrue(first <= i);
+      assertEquals(xs[i], xs[first]);
+      assertEquals(ys[i], ys[first]);
+      for (int j = 0; j < first; j++) {
+        assertFalse(xs[j] == xs[i] && ys[j] == ys[i]);
+      }
+      if (first < i) {
+        duplicates++;
+      }
+    }
+    assertEquals(duplicates, index.duplicates().length);
+  }
+}
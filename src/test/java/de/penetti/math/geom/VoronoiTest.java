@@ -0,0 +1,109 @@
+package de.penetti.math.geom;
+
+import de.penetti.math.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VoronoiTest {
+  @Test
+  public void testEmptyRectangle() {
+    Delaunay d = Delaunay.of(new double[]{0}, new double[]{0});
+    assertThrows(IllegalArgumentException.class, () -> d.voronoi(0, 0, 0, 1));
+  }
+
+  @Test
+  public void testSinglePoint() {
+    Voronoi voronoi = Delaunay.of(new double[]{1}, new double[]{1}).voronoi(0, 0, 4, 3);
+    Polyline cell = voronoi.cell(0).get();
+    assertTrue(cell.isClosed());
+    assertEquals(12, cell.area(), 1e-12);
+  }
+
+  @Test
+  public void testCollinear() {
+    Voronoi voronoi = Delaunay.of(new double[]{1, 3, 2, 1}, new double[]{1, 1, 1, 1}).voronoi(0, 0, 4, 2);
+    assertEquals(3, voronoi.cell(0).get().area(), 1e-12);
+    assertEquals(2, voronoi.cell(2).get().area(), 1e-12);
+    assertEquals(3, voronoi.cell(1).get().area(), 1e-12);
+    assertEquals(Optional.empty(), voronoi.cell(3));
+  }
+
+  @Test
+  public void testSquare() {
+    Voronoi voronoi = Delaunay.of(new double[]{1, 3, 3, 1}, new double[]{1, 1, 3, 3}).voronoi(0, 0, 4, 4);
+    for (int i = 0; i < 4; i++) {
+      Polyline cell = voronoi.cell(i).get();
+      assertEquals(4, cell.area(), 1e-12);
+      assertTrue(cell.ccw() == cell || cell.ccw().equals(cell));
+    }
+  }
+
+  @Test
+  public void testRandom() {
+    RandomSource random = RandomSource.seeded(3);
+    int n = 200;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    random.fill(xs, ys, 0, 100, 0, 50);
+    Delaunay delaunay = Delaunay.of(xs, ys);
+    Voronoi voronoi = delaunay.voronoi(-10, -10, 110, 60);
+    List<Polyline> cells = voronoi.cells();
+    assertEquals(n, cells.size());
+    double area = 0;
+    for (int i = 0; i < n; i++) {
+      Polyline cell = voronoi.cell(i).get();
+      assertTrue(cell.contains(Vector.create(xs[i], ys[i])));
+      area += cell.area();
+    }
+    assertEquals(120 * 70, area, 1e-6);
+
+    // jeder Punkt des Rechtecks liegt in der Zelle des nächsten Punkts
+    for (int k = 0; k < 200; k++) {
+      double x = random.nextDouble(-10, 110);
+      double y = random.nextDouble(-10, 60);
+      int nearest = 0;
+      for (int i = 1; i < n; i++) {
+        if (Math.hypot(xs[i] - x, ys[i] - y) < Math.hypot(xs[nearest] - x, ys[nearest] - y)) {
+          nearest = i;
+        }
+      }
+      assertTrue(cells.get(nearest).contains(Vector.create(x, y)));
+    }
+  }
+
+  @Test
+  public void testNearlyCollinear() {
+    // Sensoren entlang einer Straße: die flachen Dreiecke haben weit entfernte oder unendliche Umkreismittelpunkte
+    for (int run = 0; run < 100; run++) {
+      RandomSource random = RandomSource.seeded(run);
+      int n = 9;
+      double[] xs = new double[n];
+      double[] ys = new double[n];
+      for (int i = 0; i < n; i++) {
+        double t = random.nextDouble(0, 100);
+        xs[i] = t * 0.2887;
+        ys[i] = t;
+      }
+      Voronoi voronoi = Delaunay.of(xs, ys).voronoi(-10, -10, 50, 110);
+      double area = 0;
+      for (int i = 0; i < n; i++) {
+        Polyline cell = voronoi.cell(i).orElseThrow();
+        assertTrue(cell.contains(Vector.create(xs[i], ys[i])), "point " + i + " of run " + run);
+        area += cell.area();
+      }
+      assertEquals(60 * 120, area, 1e-6);
+    }
+  }
+
+  @Test
+  public void testCellOutsideRectangle() {
+    Voronoi voronoi = Delaunay.of(new double[]{0, 10, 0, 10}, new double[]{0, 0, 10, 10}).voronoi(0, 0, 4, 4);
+    assertTrue(voronoi.cell(0).isPresent());
+    assertEquals(Optional.empty(), voronoi.cell(3));
+    assertEquals(16, voronoi.cell(0).get().area(), 1e-12);
+  }
+}